@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import lombok.var;
+import me.waliedyassen.runescript.benchmarks.BenchmarkSupport.BenchmarkScriptCache;
+import me.waliedyassen.runescript.compiler.Input;
+import me.waliedyassen.runescript.compiler.ScriptCompiler;
+import me.waliedyassen.runescript.compiler.SourceFile;
+import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
+import me.waliedyassen.runescript.compiler.codegen.opcode.BasicOpcode;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeCodeWriter;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.idmapping.IDManager;
+import me.waliedyassen.runescript.compiler.lexer.token.Kind;
+import me.waliedyassen.runescript.compiler.symbol.ScriptSymbolTable;
+import me.waliedyassen.runescript.compiler.util.trigger.BasicTriggerType;
+import me.waliedyassen.runescript.runtime.executor.impl.ArrayOps;
+import me.waliedyassen.runescript.runtime.executor.impl.CoreOps;
+import me.waliedyassen.runescript.runtime.executor.impl.MathOps;
+import me.waliedyassen.runescript.runtime.executor.impl.StringOps;
+import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutorMap;
+import me.waliedyassen.runescript.runtime.script.OperandType;
+import me.waliedyassen.runescript.runtime.script.Script;
+import me.waliedyassen.runescript.runtime.script.ScriptDecoder;
+import me.waliedyassen.runescript.type.Type;
+import me.waliedyassen.runescript.type.primitive.PrimitiveType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiles RuneScript source code through the {@link ScriptCompiler} into {@link Script scripts} which the benchmarks
+ * can execute, so the executor is measured with the same instruction sequences the compiler produces.
+ * <p>
+ * The core opcodes are mapped to their {@link CoreOpcode#ordinal() ordinal}, and the {@code tostring} command is mapped
+ * to {@link #TOSTRING}.
+ *
+ * @author Walied K. Yassen
+ */
+public final class BenchmarkCompiler {
+
+    /**
+     * The opcode of the {@link StringOps#TOSTRING} command.
+     */
+    public static final int TOSTRING = 100;
+
+    /**
+     * Creates a new {@link InstructionExecutorMap} with the executors of all the opcodes the compiled scripts can use.
+     *
+     * @return the created {@link InstructionExecutorMap} object.
+     */
+    public static InstructionExecutorMap createExecutorMap() {
+        var map = new InstructionExecutorMap();
+        map.register(CoreOpcode.PUSH_INT_CONSTANT.ordinal(), CoreOps.PUSH_CONSTANT_INT);
+        map.register(CoreOpcode.PUSH_STRING_CONSTANT.ordinal(), CoreOps.PUSH_CONSTANT_STRING);
+        map.register(CoreOpcode.PUSH_LONG_CONSTANT.ordinal(), CoreOps.PUSH_CONSTANT_LONG);
+        map.register(CoreOpcode.POP_INT_DISCARD.ordinal(), CoreOps.POP_INT_DISCARD);
+        map.register(CoreOpcode.POP_STRING_DISCARD.ordinal(), CoreOps.POP_STRING_DISCARD);
+        map.register(CoreOpcode.POP_LONG_DISCARD.ordinal(), CoreOps.POP_LONG_DISCARD);
+        map.register(CoreOpcode.PUSH_INT_LOCAL.ordinal(), CoreOps.PUSH_INT_LOCAL);
+        map.register(CoreOpcode.PUSH_STRING_LOCAL.ordinal(), CoreOps.PUSH_STRING_LOCAL);
+        map.register(CoreOpcode.PUSH_LONG_LOCAL.ordinal(), CoreOps.PUSH_LONG_LOCAL);
+        map.register(CoreOpcode.POP_INT_LOCAL.ordinal(), CoreOps.POP_INT_LOCAL);
+        map.register(CoreOpcode.POP_STRING_LOCAL.ordinal(), CoreOps.POP_STRING_LOCAL);
+        map.register(CoreOpcode.POP_LONG_LOCAL.ordinal(), CoreOps.POP_LONG_LOCAL);
+        map.register(CoreOpcode.DEFINE_ARRAY.ordinal(), ArrayOps.DEFINE_ARRAY);
+        map.register(CoreOpcode.PUSH_ARRAY_INT.ordinal(), ArrayOps.PUSH_ARRAY_INT);
+        map.register(CoreOpcode.POP_ARRAY_INT.ordinal(), ArrayOps.POP_ARRAY_INT);
+        map.register(CoreOpcode.PUSH_ARRAY_STRING.ordinal(), ArrayOps.PUSH_ARRAY_STRING);
+        map.register(CoreOpcode.POP_ARRAY_STRING.ordinal(), ArrayOps.POP_ARRAY_STRING);
+        map.register(CoreOpcode.PUSH_ARRAY_LONG.ordinal(), ArrayOps.PUSH_ARRAY_LONG);
+        map.register(CoreOpcode.POP_ARRAY_LONG.ordinal(), ArrayOps.POP_ARRAY_LONG);
+        map.register(CoreOpcode.BRANCH.ordinal(), CoreOps.BRANCH);
+        map.register(CoreOpcode.BRANCH_EQUALS.ordinal(), CoreOps.BRANCH_EQUALS);
+        map.register(CoreOpcode.BRANCH_NOT.ordinal(), CoreOps.BRANCH_NOT);
+        map.register(CoreOpcode.BRANCH_LESS_THAN.ordinal(), CoreOps.BRANCH_LESS_THAN);
+        map.register(CoreOpcode.BRANCH_GREATER_THAN.ordinal(), CoreOps.BRANCH_GREATER_THAN);
+        map.register(CoreOpcode.BRANCH_LESS_THAN_OR_EQUALS.ordinal(), CoreOps.BRANCH_LESS_THAN_OR_EQUALS);
+        map.register(CoreOpcode.BRANCH_GREATER_THAN_OR_EQUALS.ordinal(), CoreOps.BRANCH_GREATER_THAN_OR_EQUALS);
+        map.register(CoreOpcode.SWITCH.ordinal(), CoreOps.SWITCH);
+        map.register(CoreOpcode.RETURN.ordinal(), CoreOps.RETURN);
+        map.register(CoreOpcode.JOIN_STRING.ordinal(), CoreOps.JOIN_STRING);
+        map.register(CoreOpcode.JUMP_WITH_PARAMS.ordinal(), CoreOps.JUMP_WITH_PARAMS);
+        map.register(CoreOpcode.GOSUB_WITH_PARAMS.ordinal(), CoreOps.GOSUB_WITH_PARAMS);
+        map.register(CoreOpcode.ADD.ordinal(), MathOps.ADD);
+        map.register(CoreOpcode.MUL.ordinal(), MathOps.MUL);
+        map.register(TOSTRING, StringOps.TOSTRING);
+        return map;
+    }
+
+    /**
+     * Compiles all of the scripts in the specified RuneScript {@code source} and registers them in the specified
+     * {@link BenchmarkScriptCache cache}.
+     *
+     * @param source the source code of the scripts, which may only use the {@code proc} trigger.
+     * @param cache  the cache to register the compiled scripts in.
+     * @return the compiled scripts, indexed by their name (e.g. {@code [proc,name]}).
+     * @throws IllegalStateException if the source code has any compilation errors.
+     */
+    public static Map<String, Script> compile(String source, BenchmarkScriptCache cache) {
+        var environment = new CompilerEnvironment();
+        var hook = new BasicTriggerType("clientscript", null, null, true, null, false, null);
+        environment.registerTrigger(hook);
+        environment.setHookTriggerType(hook);
+        environment.registerTrigger(new BasicTriggerType("proc", Kind.TILDE, CoreOpcode.GOSUB_WITH_PARAMS, true, null, true, null));
+        var instructionMap = new InstructionMap();
+        for (var opcode : CoreOpcode.values()) {
+            instructionMap.registerCore(opcode, opcode.ordinal(), opcode.isLargeOperand());
+        }
+        var symbolTable = new ScriptSymbolTable(true);
+        symbolTable.defineCommand(new BasicOpcode(TOSTRING, false), "tostring", PrimitiveType.STRING, new Type[]{PrimitiveType.INT}, false, null, false, null);
+        var idManager = new BenchmarkIdManager();
+        var compiler = ScriptCompiler.builder()
+                .withEnvironment(environment)
+                .withInstructionMap(instructionMap)
+                .withSymbolTable(symbolTable)
+                .withIdProvider(idManager)
+                .withSupportsLongPrimitiveType(true)
+                .withForkJoinPool(null)
+                .build();
+        var input = new Input();
+        input.setRunIdGeneration(true);
+        input.setRunCodeGeneration(true);
+        input.addSourceFile(new SourceFile("benchmarks", "benchmark", "rs2", source.getBytes(StandardCharsets.UTF_8)));
+        var writer = new BytecodeCodeWriter(idManager, true);
+        var decoder = createDecoder();
+        var scripts = new HashMap<String, Script>();
+        try {
+            for (var compiledFile : compiler.compile(input).getCompiledFiles()) {
+                if (compiledFile.isErroneous()) {
+                    throw new IllegalStateException("Failed to compile the benchmark scripts: " + compiledFile.getErrors());
+                }
+                for (var unit : compiledFile.getUnits()) {
+                    var binaryScript = unit.getBinaryScript();
+                    var script = decoder.decode(writer.write(binaryScript).encode());
+                    cache.put(idManager.findScript(binaryScript.getName(), binaryScript.getExtension()), script);
+                    scripts.put(script.getName(), script);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return scripts;
+    }
+
+    /**
+     * Creates a new {@link ScriptDecoder} with the operand types of all the opcodes the compiled scripts can use.
+     *
+     * @return the created {@link ScriptDecoder} object.
+     */
+    private static ScriptDecoder createDecoder() {
+        var decoder = new ScriptDecoder(true);
+        for (var opcode : CoreOpcode.values()) {
+            if (opcode == CoreOpcode.PUSH_STRING_CONSTANT) {
+                decoder.register(opcode.ordinal(), OperandType.STRING);
+            } else if (opcode == CoreOpcode.PUSH_LONG_CONSTANT) {
+                decoder.register(opcode.ordinal(), OperandType.LONG);
+            } else {
+                decoder.register(opcode.ordinal(), opcode.isLargeOperand() ? OperandType.INT : OperandType.BYTE);
+            }
+        }
+        decoder.register(TOSTRING, OperandType.BYTE);
+        return decoder;
+    }
+
+    /**
+     * An {@link IDManager} which assigns the script ids sequentially and does not support any configs.
+     *
+     * @author Walied K. Yassen
+     */
+    private static final class BenchmarkIdManager implements IDManager {
+
+        /**
+         * The ids of the scripts, indexed by their name.
+         */
+        private final Map<String, Integer> scripts = new HashMap<>();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int findOrCreateScript(String name, String extension) {
+            return scripts.computeIfAbsent(name, key -> scripts.size());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int findOrCreateConfig(Type type, String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int findScript(String name, String extension) throws IllegalArgumentException {
+            var id = scripts.get(name);
+            if (id == null) {
+                throw new IllegalArgumentException("Failed to find an id for script: " + name);
+            }
+            return id;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int findConfig(Type type, String name) throws IllegalArgumentException {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private BenchmarkCompiler() {
+        // NOOP
+    }
+}
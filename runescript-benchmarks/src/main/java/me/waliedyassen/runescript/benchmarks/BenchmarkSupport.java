@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.ScriptRuntimePool;
+import me.waliedyassen.runescript.runtime.cache.ScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import me.waliedyassen.runescript.runtime.executor.impl.CoreOps;
+import me.waliedyassen.runescript.runtime.executor.impl.MathOps;
+import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutorMap;
+import me.waliedyassen.runescript.runtime.script.Script;
+import me.waliedyassen.runescript.runtime.script.SwitchTable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contains the runtime, the cache and the instruction set which are shared by all of the benchmarks.
+ *
+ * @author Walied K. Yassen
+ */
+public final class BenchmarkSupport {
+
+    /**
+     * The opcode of the {@link CoreOps#PUSH_CONSTANT_INT} instruction.
+     */
+    public static final int PUSH_CONSTANT_INT = 0;
+
+    /**
+     * The opcode of the {@link CoreOps#PUSH_INT_LOCAL} instruction.
+     */
+    public static final int PUSH_INT_LOCAL = 1;
+
+    /**
+     * The opcode of the {@link CoreOps#POP_INT_LOCAL} instruction.
+     */
+    public static final int POP_INT_LOCAL = 2;
+
+    /**
+     * The opcode of the {@link CoreOps#POP_INT_DISCARD} instruction.
+     */
+    public static final int POP_INT_DISCARD = 3;
+
+    /**
+     * The opcode of the {@link CoreOps#BRANCH} instruction.
+     */
+    public static final int BRANCH = 4;
+
+    /**
+     * The opcode of the {@link CoreOps#BRANCH_LESS_THAN} instruction.
+     */
+    public static final int BRANCH_LESS_THAN = 5;
+
+    /**
+     * The opcode of the {@link CoreOps#BRANCH_EQUALS} instruction.
+     */
+    public static final int BRANCH_EQUALS = 6;
+
+    /**
+     * The opcode of the {@link CoreOps#GOSUB_WITH_PARAMS} instruction.
+     */
+    public static final int GOSUB_WITH_PARAMS = 7;
+
+    /**
+     * The opcode of the {@link CoreOps#RETURN} instruction.
+     */
+    public static final int RETURN = 8;
+
+    /**
+     * The opcode of the {@link MathOps#ADD} instruction.
+     */
+    public static final int ADD = 9;
+
+    /**
+     * The opcode of the {@link MathOps#SUB} instruction.
+     */
+    public static final int SUB = 10;
+
+    /**
+     * The opcode of the {@link MathOps#MUL} instruction.
+     */
+    public static final int MUL = 11;
+
+    /**
+     * Creates a new {@link InstructionExecutorMap} with all of the benchmark instructions registered.
+     *
+     * @return the created {@link InstructionExecutorMap} object.
+     */
+    public static InstructionExecutorMap createExecutorMap() {
+        var map = new InstructionExecutorMap();
+        map.register(PUSH_CONSTANT_INT, CoreOps.PUSH_CONSTANT_INT);
+        map.register(PUSH_INT_LOCAL, CoreOps.PUSH_INT_LOCAL);
+        map.register(POP_INT_LOCAL, CoreOps.POP_INT_LOCAL);
+        map.register(POP_INT_DISCARD, CoreOps.POP_INT_DISCARD);
+        map.register(BRANCH, CoreOps.BRANCH);
+        map.register(BRANCH_LESS_THAN, CoreOps.BRANCH_LESS_THAN);
+        map.register(BRANCH_EQUALS, CoreOps.BRANCH_EQUALS);
+        map.register(GOSUB_WITH_PARAMS, CoreOps.GOSUB_WITH_PARAMS);
+        map.register(RETURN, CoreOps.RETURN);
+        map.register(ADD, MathOps.ADD);
+        map.register(SUB, MathOps.SUB);
+        map.register(MUL, MathOps.MUL);
+        return map;
+    }
+
+    /**
+     * Creates a new {@link ScriptExecutor} which executes the benchmark instructions with the scripts of the specified
+     * {@link BenchmarkScriptCache cache}.
+     *
+     * @param cache the cache which provides the called scripts.
+     * @return the created {@link ScriptExecutor} object.
+     */
+    public static ScriptExecutor<BenchmarkRuntime> createExecutor(BenchmarkScriptCache cache) {
+        return new ScriptExecutor<>(16, cache, BenchmarkRuntime::new, createExecutorMap());
+    }
+
+    /**
+     * Assembles a new {@link Script} which only uses int locals and int operands.
+     *
+     * @param name         the name of the script.
+     * @param numLocals    the amount of int locals in the script.
+     * @param numArguments the amount of int arguments in the script.
+     * @param code         the instructions of the script, as pairs of an opcode followed by its operand.
+     * @return the assembled {@link Script} object.
+     */
+    public static Script script(String name, int numLocals, int numArguments, int... code) {
+        if (code.length % 2 != 0) {
+            throw new IllegalArgumentException("Each instruction must be followed by its operand");
+        }
+        var count = code.length / 2;
+        var instructions = new int[count];
+        var operands = new int[count];
+        for (var address = 0; address < count; address++) {
+            instructions[address] = code[address * 2];
+            operands[address] = code[address * 2 + 1];
+        }
+        return new Script(name, instructions, operands, new String[0], new long[0], numLocals, 0, 0, numArguments, 0, 0, new SwitchTable[0]);
+    }
+
+    /**
+     * The {@link ScriptRuntime} which is used by all of the benchmarks.
+     *
+     * @author Walied K. Yassen
+     */
+    public static final class BenchmarkRuntime extends ScriptRuntime {
+
+        /**
+         * Constructs a new {@link BenchmarkRuntime} type object instance.
+         *
+         * @param pool the owner pool of the runtime.
+         */
+        public BenchmarkRuntime(ScriptRuntimePool<BenchmarkRuntime> pool) {
+            super(pool);
+        }
+    }
+
+    /**
+     * A {@link ScriptCache} which holds the scripts that are registered by the benchmarks.
+     *
+     * @author Walied K. Yassen
+     */
+    public static final class BenchmarkScriptCache extends ScriptCache {
+
+        /**
+         * The registered scripts, indexed by their id.
+         */
+        private final Map<Integer, Script> scripts = new HashMap<>();
+
+        /**
+         * Registers the specified {@link Script} with the specified {@code id}.
+         *
+         * @param id     the id of the script.
+         * @param script the script to register.
+         */
+        public void put(int id, Script script) {
+            scripts.put(id, script);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Script get(int id) {
+            return scripts.get(id);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Script get(String name) {
+            for (var script : scripts.values()) {
+                if (script.getName().equals(name)) {
+                    return script;
+                }
+            }
+            return null;
+        }
+    }
+
+    private BenchmarkSupport() {
+        // NOOP
+    }
+}
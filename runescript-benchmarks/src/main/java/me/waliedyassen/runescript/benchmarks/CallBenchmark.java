@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import lombok.var;
+import me.waliedyassen.runescript.benchmarks.BenchmarkSupport.BenchmarkRuntime;
+import me.waliedyassen.runescript.benchmarks.BenchmarkSupport.BenchmarkScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import me.waliedyassen.runescript.runtime.script.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static me.waliedyassen.runescript.benchmarks.BenchmarkSupport.*;
+
+/**
+ * Measures the cost of a single gosub and return pair. The callee locals count is a parameter, before the frames were
+ * changed to locals windows every call copied all of the {@link me.waliedyassen.runescript.runtime.ScriptRuntime#MAX_LOCALS}
+ * slots of each type regardless of this count, now the cost should only grow with the locals the callee declares.
+ *
+ * @author Walied K. Yassen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallBenchmark {
+
+    /**
+     * The amount of calls each invocation of the benchmark performs.
+     */
+    private static final int CALLS = 1000;
+
+    /**
+     * The amount of int locals the called script declares.
+     */
+    @Param({"1", "16", "128"})
+    public int calleeLocals;
+
+    /**
+     * The executor which executes the benchmark scripts.
+     */
+    private ScriptExecutor<BenchmarkRuntime> executor;
+
+    /**
+     * The runtime which the benchmark scripts are executed in.
+     */
+    private BenchmarkRuntime runtime;
+
+    /**
+     * The script which calls the callee script {@link #CALLS} times.
+     */
+    private Script caller;
+
+    /**
+     * Sets-up the executor and the scripts of the benchmark.
+     */
+    @Setup
+    public void setup() {
+        var cache = new BenchmarkScriptCache();
+        cache.put(1, script("callee", calleeLocals, 1,
+                PUSH_INT_LOCAL, 0,
+                RETURN, 0));
+        caller = script("caller", 1, 0,
+                PUSH_CONSTANT_INT, 0,
+                POP_INT_LOCAL, 0,
+                PUSH_INT_LOCAL, 0,
+                PUSH_CONSTANT_INT, CALLS,
+                BRANCH_LESS_THAN, 1,
+                BRANCH, 8,
+                PUSH_INT_LOCAL, 0,
+                GOSUB_WITH_PARAMS, 1,
+                POP_INT_DISCARD, 0,
+                PUSH_INT_LOCAL, 0,
+                PUSH_CONSTANT_INT, 1,
+                ADD, 0,
+                POP_INT_LOCAL, 0,
+                BRANCH, -12);
+        executor = createExecutor(cache);
+        runtime = executor.getPool().pop();
+    }
+
+    /**
+     * Returns the runtime of the benchmark back to the pool.
+     */
+    @TearDown
+    public void tearDown() {
+        runtime.close();
+    }
+
+    /**
+     * Performs {@link #CALLS} gosub and return pairs.
+     *
+     * @return the amount of values left on the int stack, to prevent dead code elimination.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int gosubReturn() {
+        runtime.recycle();
+        executor.execute(runtime, caller);
+        return runtime.getIntStackSize();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import lombok.var;
+import me.waliedyassen.runescript.benchmarks.BenchmarkSupport.BenchmarkRuntime;
+import me.waliedyassen.runescript.benchmarks.BenchmarkSupport.BenchmarkScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import me.waliedyassen.runescript.runtime.executor.jit.ScriptJit;
+import me.waliedyassen.runescript.runtime.script.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link ScriptExecutor} loop with scripts that are compiled from RuneScript source code by the {@link
+ * me.waliedyassen.runescript.compiler.ScriptCompiler}, once for each of the execution tiers.
+ *
+ * @author Walied K. Yassen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutorBenchmark {
+
+    /**
+     * The source code of the benchmark scripts.
+     */
+    private static final String SOURCE = String.join("\n",
+            "[proc,inventory_total]()(int)",
+            "def_int $total = 0;",
+            "def_int $slot = 0;",
+            "while ($slot < 28) {",
+            "    $total = calc($total + ~item_value(calc($slot * 3)));",
+            "    $slot = calc($slot + 1);",
+            "}",
+            "return($total);",
+            "",
+            "[proc,item_value](int $item)(int)",
+            "switch_int ($item) {",
+            "    case 0, 3, 6 :",
+            "        return(100);",
+            "    case 9, 12, 15 :",
+            "        return(250);",
+            "    case 18 :",
+            "        return(1000);",
+            "}",
+            "return($item);",
+            "",
+            "[proc,stat_levels]()(int)",
+            "def_int $levels(24);",
+            "def_int $skill = 0;",
+            "while ($skill < 24) {",
+            "    $levels($skill) = calc($skill * 4 + 1);",
+            "    $skill = calc($skill + 1);",
+            "}",
+            "def_int $total = 0;",
+            "def_int $round = 0;",
+            "while ($round < 8) {",
+            "    $skill = 0;",
+            "    while ($skill < 24) {",
+            "        if ($levels($skill) > 50) {",
+            "            $total = calc($total + $levels($skill));",
+            "        } else {",
+            "            $total = calc($total + 1);",
+            "        }",
+            "        $skill = calc($skill + 1);",
+            "    }",
+            "    $round = calc($round + 1);",
+            "}",
+            "return($total);",
+            "",
+            "[proc,describe_inventory]()(string)",
+            "def_string $text = \"inventory:\";",
+            "def_int $slot = 0;",
+            "while ($slot < 8) {",
+            "    $text = \"<$text> <tostring($slot)>=<tostring(~item_value(calc($slot * 3)))>\";",
+            "    $slot = calc($slot + 1);",
+            "}",
+            "return($text);");
+
+    /**
+     * The execution tier which the benchmark scripts are executed with: {@code interpreter} executes each instruction
+     * on its own, {@code fused} uses the default instruction fusion, and {@code jit} compiles the scripts into JVM
+     * bytecode on their first execution.
+     */
+    @Param({"interpreter", "fused", "jit"})
+    public String tier;
+
+    /**
+     * The executor which executes the benchmark scripts.
+     */
+    private ScriptExecutor<BenchmarkRuntime> executor;
+
+    /**
+     * The runtime which the benchmark scripts are executed in.
+     */
+    private BenchmarkRuntime runtime;
+
+    /**
+     * The script which sums the value of 28 inventory slots, with a gosub and a switch per slot.
+     */
+    private Script inventoryTotal;
+
+    /**
+     * The script which fills an int array then sums it with nested loops and conditions.
+     */
+    private Script statLevels;
+
+    /**
+     * The script which builds a string out of 8 inventory slots.
+     */
+    private Script describeInventory;
+
+    /**
+     * Sets-up the executor and the scripts of the benchmark.
+     */
+    @Setup
+    public void setup() {
+        var cache = new BenchmarkScriptCache();
+        var scripts = BenchmarkCompiler.compile(SOURCE, cache);
+        inventoryTotal = scripts.get("[proc,inventory_total]");
+        statLevels = scripts.get("[proc,stat_levels]");
+        describeInventory = scripts.get("[proc,describe_inventory]");
+        executor = new ScriptExecutor<>(16, cache, BenchmarkRuntime::new, BenchmarkCompiler.createExecutorMap());
+        if (tier.equals("interpreter")) {
+            executor.setFuser(null);
+        } else if (tier.equals("jit")) {
+            executor.setJit(new ScriptJit());
+            executor.setJitThreshold(1);
+        }
+        runtime = executor.getPool().pop();
+    }
+
+    /**
+     * Returns the runtime of the benchmark back to the pool.
+     */
+    @TearDown
+    public void tearDown() {
+        runtime.close();
+    }
+
+    /**
+     * Executes the inventory total script.
+     *
+     * @return the computed total, to prevent dead code elimination.
+     */
+    @Benchmark
+    public int inventoryTotal() {
+        runtime.recycle();
+        executor.execute(runtime, inventoryTotal);
+        return result();
+    }
+
+    /**
+     * Executes the stat levels script.
+     *
+     * @return the computed total, to prevent dead code elimination.
+     */
+    @Benchmark
+    public int statLevels() {
+        runtime.recycle();
+        executor.execute(runtime, statLevels);
+        return result();
+    }
+
+    /**
+     * Executes the describe inventory script.
+     *
+     * @return the built string, to prevent dead code elimination.
+     */
+    @Benchmark
+    public String describeInventory() {
+        runtime.recycle();
+        executor.execute(runtime, describeInventory);
+        runtime.popString();
+        return runtime.popString();
+    }
+
+    /**
+     * Returns the int result of the last executed script. The compiler ends each script with an implicit return of the
+     * default value, which a top-level return falls through to, so the result is right below it on the stack.
+     *
+     * @return the int result of the last executed script.
+     */
+    private int result() {
+        runtime.popInt();
+        return runtime.popInt();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import lombok.var;
+import me.waliedyassen.runescript.benchmarks.BenchmarkSupport.BenchmarkRuntime;
+import me.waliedyassen.runescript.benchmarks.BenchmarkSupport.BenchmarkScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import me.waliedyassen.runescript.runtime.script.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static me.waliedyassen.runescript.benchmarks.BenchmarkSupport.*;
+
+/**
+ * Measures the cost of a loop iteration which is made of the sequences that the default {@link
+ * me.waliedyassen.runescript.runtime.executor.instruction.InstructionFuser} fuses, with the fusion enabled and disabled.
+ * Each iteration is eleven instructions, which become three dispatches when fused.
+ *
+ * @author Walied K. Yassen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FusionBenchmark {
+
+    /**
+     * The amount of loop iterations each invocation of the benchmark performs.
+     */
+    private static final int ITERATIONS = 1000;
+
+    /**
+     * Whether or not the instruction fusion is enabled.
+     */
+    @Param({"true", "false"})
+    public boolean fused;
+
+    /**
+     * The executor which executes the benchmark script.
+     */
+    private ScriptExecutor<BenchmarkRuntime> executor;
+
+    /**
+     * The runtime which the benchmark script is executed in.
+     */
+    private BenchmarkRuntime runtime;
+
+    /**
+     * The script which sums the numbers from zero up to {@link #ITERATIONS}.
+     */
+    private Script sum;
+
+    /**
+     * Sets-up the executor and the script of the benchmark.
+     */
+    @Setup
+    public void setup() {
+        sum = script("sum", 2, 0,
+                PUSH_CONSTANT_INT, 0,
+                POP_INT_LOCAL, 0,
+                PUSH_CONSTANT_INT, 0,
+                POP_INT_LOCAL, 1,
+                PUSH_INT_LOCAL, 1,
+                PUSH_INT_LOCAL, 0,
+                ADD, 0,
+                POP_INT_LOCAL, 1,
+                PUSH_INT_LOCAL, 0,
+                PUSH_CONSTANT_INT, 1,
+                ADD, 0,
+                POP_INT_LOCAL, 0,
+                PUSH_INT_LOCAL, 0,
+                PUSH_CONSTANT_INT, ITERATIONS,
+                BRANCH_LESS_THAN, -11,
+                PUSH_INT_LOCAL, 1);
+        executor = createExecutor(new BenchmarkScriptCache());
+        if (!fused) {
+            executor.setFuser(null);
+        }
+        runtime = executor.getPool().pop();
+    }
+
+    /**
+     * Returns the runtime of the benchmark back to the pool.
+     */
+    @TearDown
+    public void tearDown() {
+        runtime.close();
+    }
+
+    /**
+     * Performs {@link #ITERATIONS} loop iterations.
+     *
+     * @return the computed sum, to prevent dead code elimination.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public int loop() {
+        runtime.recycle();
+        executor.execute(runtime, sum);
+        return runtime.popInt();
+    }
+}
@@ -12,16 +12,38 @@ import me.waliedyassen.runescript.commons.document.LineMap;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 /**
- * Represents a buffered character stream, it reads all the data from {@link InputStream} and then caches the data into
+ * Represents a buffered character stream, it decodes all the UTF-8 data from the source and then caches the data into
  * a {@code char[]} object.
+ * <p>
+ * The streams which are decoded from bytes take their {@code char[]} from a per-thread pool, the sources which only
+ * contain ASCII characters are decoded by a plain copy loop, and the rest fall back to the UTF-8 decoder from the first
+ * non ASCII byte. Calling {@link #release()} once the stream is no longer used hands the {@code char[]} back to the
+ * pool so the next source that is decoded on the same thread can reuse it.
  *
  * @author Walied K. Yassen
  */
 public final class BufferedCharStream implements CharStream {
 
+    /**
+     * The maximum capacity of a {@code char[]} that we keep in the pool.
+     */
+    private static final int MAX_POOLED_CAPACITY = 1 << 20;
+
+    /**
+     * The {@code char[]} which is ready to be reused by the current thread.
+     */
+    private static final ThreadLocal<char[]> pool = new ThreadLocal<>();
+
     /**
      * A map of all the positions mapped to line numbers.
      */
@@ -30,7 +52,17 @@ public final class BufferedCharStream implements CharStream {
     /**
      * The characters buffer data.
      */
-    private final char[] buffer;
+    private char[] buffer;
+
+    /**
+     * The amount of characters in the buffer that belong to the stream.
+     */
+    private int length;
+
+    /**
+     * Whether or not the buffer was taken from the pool.
+     */
+    private boolean pooled;
 
     /**
      * The current position.
@@ -43,13 +75,36 @@ public final class BufferedCharStream implements CharStream {
     private int mark;
 
     /**
-     * Constructs a new {@link BufferedCharStream} type object instance.
+     * Constructs a new {@link BufferedCharStream} type object instance. The stream is read until its end but it is not
+     * closed.
      *
-     * @param stream the stream which we are going to retrieve the char data from.
-     * @throws IOException if anything occurs while retrieving the char data from the specified stream.
+     * @param stream the stream which we are going to retrieve the UTF-8 data from.
+     * @throws IOException if anything occurs while retrieving the data from the specified stream.
      */
     public BufferedCharStream(InputStream stream) throws IOException {
-        this(readAllChars(stream));
+        this(readAllBytes(stream));
+    }
+
+    /**
+     * Constructs a new {@link BufferedCharStream} type object instance.
+     *
+     * @param data the UTF-8 data which we are going to decode the characters from.
+     */
+    public BufferedCharStream(byte[] data) {
+        this(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Constructs a new {@link BufferedCharStream} type object instance. The position of the specified buffer is left
+     * untouched.
+     *
+     * @param data the UTF-8 data which we are going to decode the characters from.
+     */
+    public BufferedCharStream(ByteBuffer data) {
+        buffer = acquire(data.remaining());
+        length = decode(data, buffer);
+        pooled = true;
+        mark = -1;
     }
 
     /**
@@ -59,15 +114,34 @@ public final class BufferedCharStream implements CharStream {
      */
     public BufferedCharStream(char[] buffer) {
         this.buffer = buffer;
+        length = buffer.length;
         mark = -1;
     }
 
+    /**
+     * Creates a new {@link BufferedCharStream} which decodes the UTF-8 content of the file at the specified
+     * {@link Path path}, the file is memory mapped so its content is decoded without being copied into the heap first.
+     *
+     * @param path the path of the file to decode.
+     * @return the created {@link BufferedCharStream} object.
+     * @throws IOException if anything occurs while mapping the file.
+     */
+    public static BufferedCharStream map(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The file is too large to be decoded into a single stream: " + path);
+            }
+            return new BufferedCharStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public char take() {
-        if (pos >= buffer.length) {
+        if (pos >= length) {
             return NULL;
         }
         return buffer[pos++];
@@ -78,7 +152,7 @@ public final class BufferedCharStream implements CharStream {
      */
     @Override
     public char peek() {
-        if (pos >= buffer.length) {
+        if (pos >= length) {
             return NULL;
         }
         return buffer[pos];
@@ -120,7 +194,7 @@ public final class BufferedCharStream implements CharStream {
      */
     @Override
     public boolean hasRemaining() {
-        return pos < buffer.length;
+        return pos < length;
     }
 
     /**
@@ -147,26 +221,108 @@ public final class BufferedCharStream implements CharStream {
      */
     public LineMap getLineMap() {
         if (lineMap == null) {
-            lineMap = LineMap.create(buffer);
+            lineMap = LineMap.create(length == buffer.length ? buffer : Arrays.copyOf(buffer, length));
         }
         return lineMap;
     }
 
     /**
-     * Reads all of the content of the specified {@link InputStream stream} into a character array.
+     * Releases the characters buffer of the stream back into the pool, the stream will have no characters left
+     * after this call. Calling this on a stream which was not decoded from bytes only clears the stream.
+     */
+    public void release() {
+        if (pooled && buffer.length <= MAX_POOLED_CAPACITY) {
+            pool.set(buffer);
+        }
+        buffer = new char[0];
+        length = 0;
+        pos = 0;
+        mark = -1;
+        pooled = false;
+        lineMap = null;
+    }
+
+    /**
+     * Acquires a characters buffer which can hold at least the specified amount of characters from the pool, or
+     * create a new one if the pool had none that is large enough.
+     *
+     * @param capacity the minimum capacity of the buffer.
+     * @return the characters buffer.
+     */
+    private static char[] acquire(int capacity) {
+        var buffer = pool.get();
+        if (buffer != null && buffer.length >= capacity) {
+            pool.set(null);
+            return buffer;
+        }
+        return new char[capacity];
+    }
+
+    /**
+     * Decodes the UTF-8 data of the specified {@link ByteBuffer} into the specified characters buffer. UTF-8 never
+     * produces more characters than bytes, so a characters buffer with the same capacity as the remaining bytes is
+     * always enough. Malformed input is replaced with the unicode replacement character.
+     *
+     * @param data   the UTF-8 data to decode.
+     * @param output the buffer to decode the characters into.
+     * @return the amount of characters that were decoded.
+     */
+    private static int decode(ByteBuffer data, char[] output) {
+        var position = data.position();
+        var limit = data.limit();
+        var count = 0;
+        if (data.hasArray()) {
+            var array = data.array();
+            var offset = data.arrayOffset();
+            for (; position < limit; position++) {
+                var value = array[offset + position];
+                if (value < 0) {
+                    break;
+                }
+                output[count++] = (char) value;
+            }
+        } else {
+            for (; position < limit; position++) {
+                var value = data.get(position);
+                if (value < 0) {
+                    break;
+                }
+                output[count++] = (char) value;
+            }
+        }
+        if (position == limit) {
+            return count;
+        }
+        var input = data.duplicate();
+        input.position(position);
+        var chars = CharBuffer.wrap(output, count, output.length - count);
+        var decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        var result = decoder.decode(input, chars, true);
+        if (result.isOverflow() || decoder.flush(chars).isOverflow()) {
+            throw new IllegalStateException("The characters buffer overflowed while decoding");
+        }
+        return chars.position();
+    }
+
+    /**
+     * Reads all of the content of the specified {@link InputStream stream} into a byte array.
      *
      * @param stream the stream to read all of it's content.
-     * @return the characters array that we read.
+     * @return the bytes array that we read.
      * @throws IOException if anything occurs while reading from the input stream.
      */
-    private static char[] readAllChars(InputStream stream) throws IOException {
-        var buffer = new char[stream.available()];
-        try (var reader = new InputStreamReader(stream)) {
-            if (reader.read(buffer) != buffer.length) {
-                // TODO: Change to another solution, but this should work fine for now.
-                throw new IllegalStateException("Failed to read the input stream fully");
+    private static byte[] readAllBytes(InputStream stream) throws IOException {
+        var buffer = new byte[Math.max(stream.available(), 8192)];
+        var size = 0;
+        int read;
+        while ((read = stream.read(buffer, size, buffer.length - size)) != -1) {
+            size += read;
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
             }
         }
-        return buffer;
+        return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
     }
-}
\ No newline at end of file
+}
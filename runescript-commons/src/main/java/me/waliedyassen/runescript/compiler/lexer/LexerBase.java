@@ -13,11 +13,12 @@ import lombok.var;
 import me.waliedyassen.runescript.commons.document.Range;
 import me.waliedyassen.runescript.compiler.lexer.token.Token;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Represents the base class for all of our lexical parsers.
+ * <p>
+ * The tokens are pulled from the implementation on demand and kept in a ring buffer which only grows as far as the
+ * deepest lookahead the parser performs, so the memory of the lexer does not depend on the size of the source and the
+ * parser can report the first errors before the rest of the source is tokenized.
  *
  * @param <K> the tokenizer token type.
  * @author Walied K. Yassen
@@ -26,9 +27,9 @@ import java.util.List;
 public abstract class LexerBase<K, T extends Token<K>> {
 
     /**
-     * The list of the {@linkplain Token}s that are availabe to this lexer.
+     * The initial capacity of the lookahead buffer, must be a power of two.
      */
-    protected final List<T> tokens = new ArrayList<>();
+    private static final int INITIAL_CAPACITY = 8;
 
     /**
      * The start range of the lexer.
@@ -37,9 +38,42 @@ public abstract class LexerBase<K, T extends Token<K>> {
     protected final Range startRange;
 
     /**
-     * The current pointer index value.
+     * The lookahead ring buffer of the tokens that were fetched but not taken yet.
+     */
+    @SuppressWarnings("unchecked")
+    private T[] buffer = (T[]) new Token[INITIAL_CAPACITY];
+
+    /**
+     * The position of the next token within the lookahead buffer.
+     */
+    private int head;
+
+    /**
+     * The amount of tokens that are currently in the lookahead buffer.
+     */
+    private int size;
+
+    /**
+     * The last token that was taken from the lexer.
+     */
+    private T previous;
+
+    /**
+     * The last token that was fetched from the implementation.
+     */
+    private T last;
+
+    /**
+     * Whether or not the implementation has no more tokens to fetch.
+     */
+    private boolean exhausted;
+
+    /**
+     * Fetches the next significant token from the implementation.
+     *
+     * @return the next {@link T} object or {@code null} if there are no tokens left.
      */
-    protected int index;
+    protected abstract T fetch();
 
     /**
      * Gets the {@link Token} object at the current pointer index and then increment the pointer index.
@@ -47,10 +81,15 @@ public abstract class LexerBase<K, T extends Token<K>> {
      * @return the {@link Token} object if it was present otherwise {@code null}.
      */
     public T take() {
-        if (index >= tokens.size()) {
+        if (!fill(0)) {
             return null;
         }
-        return tokens.get(index++);
+        var token = buffer[head];
+        buffer[head] = null;
+        head = (head + 1) & (buffer.length - 1);
+        size--;
+        previous = token;
+        return token;
     }
 
     /**
@@ -59,19 +98,16 @@ public abstract class LexerBase<K, T extends Token<K>> {
      * @return the {@link T} object if it was present otherwise {@code null}.
      */
     public T peek() {
-        if (index >= tokens.size()) {
-            return null;
-        }
-        return tokens.get(index);
+        return lookahead(0);
     }
 
     /**
      * Gets the previous {@link T token} to the current token.
      *
-     * @return the previous {@link T} object.
+     * @return the previous {@link T} object or {@code null} if no token was taken yet.
      */
     public T previous() {
-        return tokens.get(index - 1);
+        return previous;
     }
 
     /**
@@ -81,30 +117,85 @@ public abstract class LexerBase<K, T extends Token<K>> {
      * @return the {@link Token} if it was present otherwise {@code null}.
      */
     public T lookahead(int n) {
-        if (index + n >= tokens.size()) {
+        if (!fill(n)) {
             return null;
         }
-        return tokens.get(index + n);
+        return buffer[(head + n) & (buffer.length - 1)];
     }
 
     /**
-     * Gets the last {@link Token} in the tokens list.
+     * Gets the last {@link Token} in the tokens list. This will fetch all of the remaining tokens into the lookahead
+     * buffer, so it should be avoided on large sources.
      *
      * @return the last {@link Token}.
      */
     public T last() {
-        if (tokens.isEmpty()) {
-            return null;
+        while (fill(size)) {
+            // NOOP
         }
-        return tokens.get(tokens.size() - 1);
+        return last;
     }
 
     /**
-     * Gets the amount of the remaining tokens.
+     * Gets the amount of the remaining tokens in the lexer. This will fetch all of the remaining tokens into the
+     * lookahead buffer to count them, so it costs as much as tokenizing the rest of the source at once.
      *
      * @return the amount of the remaining tokens.
+     * @deprecated use {@link #hasRemaining()} to check whether or not there are any tokens left.
      */
+    @Deprecated
     public int remaining() {
-        return tokens.size() - index;
+        while (fill(size)) {
+            // NOOP
+        }
+        return size;
+    }
+
+    /**
+     * Checks whether or not there are any tokens left in the lexer.
+     *
+     * @return <code>true</code> if there are otherwise <code>false</code>.
+     */
+    public boolean hasRemaining() {
+        return fill(0);
+    }
+
+    /**
+     * Fetches tokens into the lookahead buffer until it holds the token at {@code n} steps from the current index.
+     *
+     * @param n the distance of the token from the current index.
+     * @return <code>true</code> if the token is in the buffer otherwise <code>false</code>.
+     */
+    private boolean fill(int n) {
+        while (size <= n) {
+            if (exhausted) {
+                return false;
+            }
+            var token = fetch();
+            if (token == null) {
+                exhausted = true;
+                return false;
+            }
+            if (size == buffer.length) {
+                grow();
+            }
+            buffer[(head + size) & (buffer.length - 1)] = token;
+            size++;
+            last = token;
+        }
+        return true;
+    }
+
+    /**
+     * Doubles the capacity of the lookahead buffer while keeping the order of the buffered tokens.
+     */
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        var grown = (T[]) new Token[buffer.length * 2];
+        for (var index = 0; index < size; index++) {
+            grown[index] = buffer[(head + index) & (buffer.length - 1)];
+        }
+        buffer = grown;
+        head = 0;
     }
 }
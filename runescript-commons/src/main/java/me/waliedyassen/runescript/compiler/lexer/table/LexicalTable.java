@@ -8,7 +8,10 @@
 package me.waliedyassen.runescript.compiler.lexer.table;
 
 import lombok.Getter;
+import lombok.var;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -16,6 +19,11 @@ import java.util.Objects;
 /**
  * Represents the symbol table for the lexical phase of the compilation process, it holds all the symbols that we need
  * during the tokenizing process, whether it is being a separator, a keyword or an operator etc..
+ * <p>
+ * The symbols are compiled into lookup structures as they are registered: the keywords into a trie which can be
+ * walked directly from a character buffer, the separators into an array indexed by the ASCII character and the
+ * operators into a small DFA. Once the table is {@link #freeze() frozen} it is immutable and safe to share between
+ * any amount of compilers and threads.
  *
  * @param <K>
  *         the lexical token kind type.
@@ -24,33 +32,81 @@ import java.util.Objects;
  */
 public final class LexicalTable<K> {
 
+    /**
+     * The amount of characters that are looked up directly through an array.
+     */
+    private static final int ASCII_SIZE = 128;
+
+    /**
+     * The state of the operators DFA which every operator match starts from.
+     */
+    public static final int OPERATOR_START = 0;
+
+    /**
+     * The state that the operators DFA goes into when there is no transition for a character.
+     */
+    public static final int OPERATOR_REJECT = -1;
+
     /**
      * The registered keywords.
      */
-    @Getter
     private final Map<String, K> keywords = new HashMap<>();
 
     /**
      * The registered separators.
      */
-    @Getter
     private final Map<Character, K> separators = new HashMap<>();
 
     /**
      * The registered operators.
      */
-    @Getter
     private final Map<String, K> operators = new HashMap<>();
 
+    /**
+     * The root node of the keywords trie.
+     */
+    private final KeywordNode<K> keywordRoot = new KeywordNode<>();
+
+    /**
+     * The registered separators indexed by their ASCII character.
+     */
+    private final Object[] asciiSeparators = new Object[ASCII_SIZE];
+
+    /**
+     * The transitions of each state in the operators DFA indexed by the ASCII character.
+     */
+    private int[][] operatorTransitions = new int[][]{createOperatorState()};
+
+    /**
+     * The token kind that each state in the operators DFA accepts, or {@code null} if the state does not accept.
+     */
+    private Object[] operatorAccepts = new Object[1];
+
+    /**
+     * The amount of states in the operators DFA.
+     */
+    private int operatorStates = 1;
+
     /**
      * The operator max size.
      */
     private int operatorSize;
 
     /**
-     * The operator starts.
+     * Whether or not the table is frozen and no longer accepts any registration.
      */
-    private String operatorStarts;
+    @Getter
+    private boolean frozen;
+
+    /**
+     * Freezes the table, after this call any attempt to register a new symbol will fail.
+     *
+     * @return this {@link LexicalTable} object instance.
+     */
+    public LexicalTable<K> freeze() {
+        frozen = true;
+        return this;
+    }
 
     /**
      * Registers a new keyword into the table.
@@ -66,11 +122,17 @@ public final class LexicalTable<K> {
     public void registerKeyword(String word, K kind) {
         Objects.requireNonNull(word, "word");
         Objects.requireNonNull(kind, "kind");
+        checkNotFrozen();
         word = word.toLowerCase();
         if (keywords.containsKey(word)) {
             throw new IllegalArgumentException("The specified keyword was already registered.");
         }
         keywords.put(word, kind);
+        var node = keywordRoot;
+        for (var index = 0; index < word.length(); index++) {
+            node = node.findOrCreate(word.charAt(index));
+        }
+        node.kind = kind;
     }
 
     /**
@@ -81,8 +143,38 @@ public final class LexicalTable<K> {
      *
      * @return the {@link K} of the keyword if it was present otherwise {@code null}.
      */
-    public K lookupKeyword(String word) {
-        return keywords.get(word);
+    public K lookupKeyword(CharSequence word) {
+        var node = keywordRoot;
+        for (var index = 0; index < word.length(); index++) {
+            node = node.find(word.charAt(index));
+            if (node == null) {
+                return null;
+            }
+        }
+        return node.kind;
+    }
+
+    /**
+     * Looks-up the {@link K} for the keyword within the specified characters buffer.
+     *
+     * @param buffer
+     *         the buffer which contains the keyword text.
+     * @param offset
+     *         the offset of the keyword text within the buffer.
+     * @param length
+     *         the length of the keyword text.
+     *
+     * @return the {@link K} of the keyword if it was present otherwise {@code null}.
+     */
+    public K lookupKeyword(char[] buffer, int offset, int length) {
+        var node = keywordRoot;
+        for (var index = offset; index < offset + length; index++) {
+            node = node.find(buffer[index]);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node.kind;
     }
 
     /**
@@ -93,8 +185,8 @@ public final class LexicalTable<K> {
      *
      * @return <code>true</code> if the specified <code>word</code> is a keyword otherwise {@code null}.
      */
-    public boolean isKeyword(String word) {
-        return keywords.containsKey(word);
+    public boolean isKeyword(CharSequence word) {
+        return lookupKeyword(word) != null;
     }
 
     /**
@@ -110,10 +202,14 @@ public final class LexicalTable<K> {
      */
     public void registerSeparator(char character, K kind) {
         Objects.requireNonNull(kind, "kind");
+        checkNotFrozen();
         if (separators.containsKey(character)) {
             throw new IllegalArgumentException("The specified separator was already registered.");
         }
         separators.put(character, kind);
+        if (character < ASCII_SIZE) {
+            asciiSeparators[character] = kind;
+        }
     }
 
     /**
@@ -124,7 +220,11 @@ public final class LexicalTable<K> {
      *
      * @return the {@link K} of the separator if it was present otherwise {@code null}.
      */
+    @SuppressWarnings("unchecked")
     public K lookupSeparator(char character) {
+        if (character < ASCII_SIZE) {
+            return (K) asciiSeparators[character];
+        }
         return separators.get(character);
     }
 
@@ -137,7 +237,7 @@ public final class LexicalTable<K> {
      * @return <code>true</code> if the specified <code>character</code> is a separator otherwise {@code null}.
      */
     public boolean isSeparator(char character) {
-        return separators.containsKey(character);
+        return lookupSeparator(character) != null;
     }
 
     /**
@@ -149,19 +249,33 @@ public final class LexicalTable<K> {
      *         the operator token kind.
      *
      * @throws IllegalArgumentException
-     *         if the operator was already registered.
+     *         if the operator was already registered or if it contained a non ASCII character.
      */
     public void registerOperator(String sequence, K kind) {
         Objects.requireNonNull(sequence, "sequence");
         Objects.requireNonNull(kind, "kind");
+        checkNotFrozen();
         if (sequence.length() < 1) {
             throw new IllegalArgumentException("The operator size must be greater than zero!");
         }
         if (operators.containsKey(sequence)) {
             throw new IllegalArgumentException("The specifie operator was already registered.");
         }
+        var state = OPERATOR_START;
+        for (var index = 0; index < sequence.length(); index++) {
+            var character = sequence.charAt(index);
+            if (character >= ASCII_SIZE) {
+                throw new IllegalArgumentException("The operator must only contain ASCII characters.");
+            }
+            var next = operatorTransitions[state][character];
+            if (next == OPERATOR_REJECT) {
+                next = addOperatorState();
+                operatorTransitions[state][character] = next;
+            }
+            state = next;
+        }
+        operatorAccepts[state] = kind;
         operators.put(sequence, kind);
-        operatorStarts += sequence.charAt(0);
         if (sequence.length() > operatorSize) {
             operatorSize = sequence.length();
         }
@@ -175,8 +289,12 @@ public final class LexicalTable<K> {
      *
      * @return the {@link K} of the operator if it was present otherwise {@code null}.
      */
-    public K lookupOperator(String sequence) {
-        return operators.get(sequence);
+    public K lookupOperator(CharSequence sequence) {
+        var state = OPERATOR_START;
+        for (var index = 0; index < sequence.length() && state != OPERATOR_REJECT; index++) {
+            state = nextOperatorState(state, sequence.charAt(index));
+        }
+        return lookupOperatorState(state);
     }
 
     /**
@@ -187,8 +305,8 @@ public final class LexicalTable<K> {
      *
      * @return <code>true</code> if the specified <code>sequence</code> is a operator otherwise {@code null}.
      */
-    public boolean isOperator(String sequence) {
-        return operators.containsKey(sequence);
+    public boolean isOperator(CharSequence sequence) {
+        return lookupOperator(sequence) != null;
     }
 
     /**
@@ -200,11 +318,67 @@ public final class LexicalTable<K> {
      * @return <code>true</code> if it was otherwise <code>false</code>.
      */
     public boolean isOperatorStart(char character) {
-        if (operatorStarts == null) {
-            // no operators were registered.
-            return false;
+        return nextOperatorState(OPERATOR_START, character) != OPERATOR_REJECT;
+    }
+
+    /**
+     * Moves the operators DFA from the specified {@code state} using the specified {@code character}.
+     *
+     * @param state
+     *         the current state of the DFA, starting from {@link #OPERATOR_START}.
+     * @param character
+     *         the next character of the operator.
+     *
+     * @return the next state of the DFA or {@link #OPERATOR_REJECT} if no operator continues with the character.
+     */
+    public int nextOperatorState(int state, char character) {
+        if (character >= ASCII_SIZE) {
+            return OPERATOR_REJECT;
+        }
+        return operatorTransitions[state][character];
+    }
+
+    /**
+     * Looks-up the operator token {@link K} which the specified state of the operators DFA accepts.
+     *
+     * @param state
+     *         the state of the DFA.
+     *
+     * @return the {@link K} of the operator if the state accepts otherwise {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public K lookupOperatorState(int state) {
+        if (state == OPERATOR_REJECT) {
+            return null;
         }
-        return operatorStarts.indexOf(character) != -1;
+        return (K) operatorAccepts[state];
+    }
+
+    /**
+     * Matches the longest operator which starts at the specified offset of the characters buffer.
+     *
+     * @param buffer
+     *         the characters buffer to match the operator from.
+     * @param offset
+     *         the offset of the first character of the operator.
+     * @param end
+     *         the offset to stop matching at (exclusive).
+     *
+     * @return the length of the longest matched operator or {@code 0} if there was none.
+     */
+    public int matchOperator(char[] buffer, int offset, int end) {
+        var state = OPERATOR_START;
+        var length = 0;
+        for (var index = offset; index < end; index++) {
+            state = nextOperatorState(state, buffer[index]);
+            if (state == OPERATOR_REJECT) {
+                break;
+            }
+            if (operatorAccepts[state] != null) {
+                length = index - offset + 1;
+            }
+        }
+        return length;
     }
 
     /**
@@ -216,4 +390,147 @@ public final class LexicalTable<K> {
         return operatorSize;
     }
 
+    /**
+     * Returns an unmodifiable view of the registered keywords.
+     *
+     * @return the registered keywords.
+     */
+    public Map<String, K> getKeywords() {
+        return Collections.unmodifiableMap(keywords);
+    }
+
+    /**
+     * Returns an unmodifiable view of the registered separators.
+     *
+     * @return the registered separators.
+     */
+    public Map<Character, K> getSeparators() {
+        return Collections.unmodifiableMap(separators);
+    }
+
+    /**
+     * Returns an unmodifiable view of the registered operators.
+     *
+     * @return the registered operators.
+     */
+    public Map<String, K> getOperators() {
+        return Collections.unmodifiableMap(operators);
+    }
+
+    /**
+     * Adds a new state to the operators DFA.
+     *
+     * @return the index of the new state.
+     */
+    private int addOperatorState() {
+        if (operatorStates == operatorTransitions.length) {
+            operatorTransitions = Arrays.copyOf(operatorTransitions, operatorStates * 2);
+            operatorAccepts = Arrays.copyOf(operatorAccepts, operatorStates * 2);
+        }
+        operatorTransitions[operatorStates] = createOperatorState();
+        return operatorStates++;
+    }
+
+    /**
+     * Checks whether or not the table is frozen, and throws an exception if it was.
+     *
+     * @throws IllegalStateException
+     *         if the table was frozen.
+     */
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("The lexical table is frozen and can no longer be modified.");
+        }
+    }
+
+    /**
+     * Creates the transitions array of a new operators DFA state.
+     *
+     * @return the created transitions array.
+     */
+    private static int[] createOperatorState() {
+        var transitions = new int[ASCII_SIZE];
+        Arrays.fill(transitions, OPERATOR_REJECT);
+        return transitions;
+    }
+
+    /**
+     * A single node within the keywords trie.
+     *
+     * @param <K>
+     *         the lexical token kind type.
+     *
+     * @author Walied K. Yassen
+     */
+    private static final class KeywordNode<K> {
+
+        /**
+         * The characters that lead to each of the child nodes.
+         */
+        private char[] characters = new char[0];
+
+        /**
+         * The child nodes, in the same order as the characters.
+         */
+        private KeywordNode<K>[] children = newArray(0);
+
+        /**
+         * The token kind of the keyword that ends at this node, or {@code null} if no keyword ends at this node.
+         */
+        private K kind;
+
+        /**
+         * Finds the child node which is lead to by the specified character.
+         *
+         * @param character
+         *         the character which leads to the child node.
+         *
+         * @return the child node or {@code null} if there was none.
+         */
+        KeywordNode<K> find(char character) {
+            var characters = this.characters;
+            for (var index = 0; index < characters.length; index++) {
+                if (characters[index] == character) {
+                    return children[index];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Finds the child node which is lead to by the specified character, or create it if it was not present.
+         *
+         * @param character
+         *         the character which leads to the child node.
+         *
+         * @return the found or created child node.
+         */
+        KeywordNode<K> findOrCreate(char character) {
+            var node = find(character);
+            if (node == null) {
+                node = new KeywordNode<>();
+                var length = characters.length;
+                characters = Arrays.copyOf(characters, length + 1);
+                children = Arrays.copyOf(children, length + 1);
+                characters[length] = character;
+                children[length] = node;
+            }
+            return node;
+        }
+
+        /**
+         * Creates a new generic array of {@link KeywordNode} objects.
+         *
+         * @param size
+         *         the size of the array.
+         * @param <K>
+         *         the lexical token kind type.
+         *
+         * @return the created array.
+         */
+        @SuppressWarnings("unchecked")
+        private static <K> KeywordNode<K>[] newArray(int size) {
+            return (KeywordNode<K>[]) new KeywordNode[size];
+        }
+    }
 }
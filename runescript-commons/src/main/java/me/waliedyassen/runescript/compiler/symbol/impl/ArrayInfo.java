@@ -11,6 +11,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import me.waliedyassen.runescript.compiler.symbol.Symbol;
 import me.waliedyassen.runescript.type.primitive.PrimitiveType;
+import me.waliedyassen.runescript.type.stack.StackType;
 
 /**
  * Represents a local array symbol information.
@@ -37,4 +38,13 @@ public final class ArrayInfo extends Symbol {
      */
     @Getter
     private final PrimitiveType type;
+
+    /**
+     * Returns the stack type of the array elements.
+     *
+     * @return the {@link StackType} of the array elements.
+     */
+    public StackType getStackType() {
+        return type.getStackType();
+    }
 }
@@ -368,7 +368,7 @@ public enum PrimitiveType implements Type {
         if (this == PrimitiveType.BOOLEAN) {
             return false;
         }
-        return stackType == StackType.INT;
+        return stackType != null;
     }
 
     /**
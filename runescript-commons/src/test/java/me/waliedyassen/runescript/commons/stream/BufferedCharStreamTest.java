@@ -13,6 +13,8 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -113,4 +115,62 @@ class BufferedCharStreamTest {
         stream.take();
         assertEquals(6, stream.position());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDecodeUtf8() {
+        var text = "abc \u00cf\u20ac\ud83d\ude00 def";
+        var stream = new BufferedCharStream(text.getBytes(StandardCharsets.UTF_8));
+        for (var ch : text.toCharArray()) {
+            assertEquals(ch, stream.take());
+        }
+        assertFalse(stream.hasRemaining());
+        assertEquals(CharStream.NULL, stream.take());
+    }
+
+    @Test
+    void testDecodeDirectBuffer() {
+        var bytes = "[proc,\u00cf]".getBytes(StandardCharsets.UTF_8);
+        var data = ByteBuffer.allocateDirect(bytes.length);
+        data.put(bytes).flip();
+        var stream = new BufferedCharStream(data);
+        assertEquals(0, data.position());
+        assertEquals('[', stream.take());
+        for (int index = 0; index < 5; index++) {
+            stream.take();
+        }
+        assertEquals('\u00cf', stream.take());
+        assertEquals(']', stream.take());
+        assertFalse(stream.hasRemaining());
+    }
+
+    @Test
+    void testLargeInputStream() throws IOException {
+        var bytes = new byte[100_000];
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = (byte) ('a' + index % 26);
+        }
+        var stream = new BufferedCharStream(new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+        });
+        for (int index = 0; index < bytes.length; index++) {
+            assertEquals((char) bytes[index], stream.take());
+        }
+        assertFalse(stream.hasRemaining());
+    }
+
+    @Test
+    void testRelease() {
+        var stream = new BufferedCharStream("a much longer source".getBytes(StandardCharsets.UTF_8));
+        stream.release();
+        assertFalse(stream.hasRemaining());
+        stream = new BufferedCharStream("short".getBytes(StandardCharsets.UTF_8));
+        for (var ch : "short".toCharArray()) {
+            assertEquals(ch, stream.take());
+        }
+        assertFalse(stream.hasRemaining());
+        assertEquals(CharStream.NULL, stream.peek());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package me.waliedyassen.runescript.compiler.lexer;
+
+import me.waliedyassen.runescript.commons.document.Range;
+import me.waliedyassen.runescript.compiler.lexer.token.Token;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexerBaseTest {
+
+    CountingLexer lexer;
+
+    @BeforeEach
+    void prepareLexer() {
+        lexer = new CountingLexer(100);
+    }
+
+    @Test
+    void testLazyFetching() {
+        assertEquals(0, lexer.peek().getKind());
+        assertEquals(1, lexer.fetched);
+        assertEquals(20, lexer.lookahead(20).getKind());
+        assertEquals(21, lexer.fetched);
+        assertEquals(0, lexer.take().getKind());
+        assertEquals(0, lexer.previous().getKind());
+    }
+
+    @Test
+    void testOrderAcrossGrowth() {
+        for (int index = 0; index < 100; index++) {
+            assertTrue(lexer.hasRemaining());
+            assertEquals(index + 10 < 100 ? index + 10 : null, lexer.lookahead(10) == null ? null : lexer.lookahead(10).getKind());
+            assertEquals(index, lexer.take().getKind());
+        }
+        assertFalse(lexer.hasRemaining());
+        assertNull(lexer.take());
+        assertNull(lexer.peek());
+    }
+
+    @Test
+    void testLast() {
+        lexer.take();
+        assertEquals(99, lexer.last().getKind());
+        assertEquals(1, lexer.take().getKind());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testRemaining() {
+        lexer.take();
+        assertEquals(99, lexer.remaining());
+        assertEquals(100, lexer.fetched);
+        assertEquals(1, lexer.take().getKind());
+        assertEquals(98, lexer.remaining());
+        while (lexer.hasRemaining()) {
+            lexer.take();
+        }
+        assertEquals(0, lexer.remaining());
+    }
+
+    static final class CountingLexer extends LexerBase<Integer, Token<Integer>> {
+
+        final int count;
+        int fetched;
+
+        CountingLexer(int count) {
+            super(new Range());
+            this.count = count;
+        }
+
+        @Override
+        protected Token<Integer> fetch() {
+            if (fetched == count) {
+                return null;
+            }
+            return new Token<>(fetched++, new Range(), "");
+        }
+    }
+}
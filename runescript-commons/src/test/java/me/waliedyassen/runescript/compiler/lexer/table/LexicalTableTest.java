@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package me.waliedyassen.runescript.compiler.lexer.table;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexicalTableTest {
+
+    LexicalTable<String> table;
+
+    @BeforeEach
+    void prepareTable() {
+        table = new LexicalTable<>();
+        table.registerKeyword("int", "type");
+        table.registerKeyword("def_int", "define");
+        table.registerKeyword("if", "if");
+        table.registerSeparator('(', "lparen");
+        table.registerOperator("<", "lt");
+        table.registerOperator("<=", "le");
+        table.registerOperator("!=", "ne");
+    }
+
+    @Test
+    void testKeywords() {
+        assertEquals("type", table.lookupKeyword("int"));
+        assertEquals("define", table.lookupKeyword(new StringBuilder("def_int")));
+        assertEquals("if", table.lookupKeyword("xifx".toCharArray(), 1, 2));
+        assertNull(table.lookupKeyword("in"));
+        assertNull(table.lookupKeyword("intx"));
+        assertNull(table.lookupKeyword("def"));
+    }
+
+    @Test
+    void testSeparators() {
+        assertEquals("lparen", table.lookupSeparator('('));
+        assertNull(table.lookupSeparator(')'));
+        assertNull(table.lookupSeparator('\u00cf'));
+    }
+
+    @Test
+    void testOperators() {
+        assertTrue(table.isOperatorStart('!'));
+        assertFalse(table.isOperator("!"));
+        assertEquals("le", table.lookupOperator("<="));
+        assertEquals(2, table.matchOperator("<=5".toCharArray(), 0, 3));
+        assertEquals(1, table.matchOperator("<5".toCharArray(), 0, 2));
+        assertEquals(0, table.matchOperator("!5".toCharArray(), 0, 2));
+        assertEquals(2, table.getOperatorSize());
+    }
+
+    @Test
+    void testFreeze() {
+        table.freeze();
+        assertThrows(IllegalStateException.class, () -> table.registerKeyword("else", "else"));
+        assertThrows(UnsupportedOperationException.class, () -> table.getKeywords().clear());
+    }
+}
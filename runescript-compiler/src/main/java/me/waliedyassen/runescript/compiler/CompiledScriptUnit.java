@@ -10,9 +10,13 @@ package me.waliedyassen.runescript.compiler;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import me.waliedyassen.runescript.compiler.dependency.Dependency;
 import me.waliedyassen.runescript.compiler.syntax.ScriptSyntax;
 import me.waliedyassen.runescript.compiler.codegen.script.BinaryScript;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Represents a single compiled unit of a script source file.
  *
@@ -32,4 +36,9 @@ public final class CompiledScriptUnit extends CompiledUnit<ScriptSyntax> {
      * The binary script of the compiled unit.
      */
     private BinaryScript binaryScript;
+
+    /**
+     * The symbols which the compiled unit depends on.
+     */
+    private final Set<Dependency> dependencies = new HashSet<>();
 }
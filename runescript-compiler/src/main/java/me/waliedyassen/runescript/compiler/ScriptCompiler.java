@@ -8,6 +8,7 @@
 package me.waliedyassen.runescript.compiler;
 
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.var;
 import me.waliedyassen.runescript.commons.stream.BufferedCharStream;
 import me.waliedyassen.runescript.compiler.codegen.CodeGenerator;
@@ -34,10 +35,12 @@ import me.waliedyassen.runescript.compiler.util.Operator;
 import me.waliedyassen.runescript.type.primitive.PrimitiveType;
 import me.waliedyassen.runescript.type.stack.StackType;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents the main class for the RuneScript language compiler module.
@@ -58,6 +61,13 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
     @Getter
     private final CodeWriter<?> codeWriter;
 
+    /**
+     * The lexical table which is shared between all of the compilers, it is frozen so it is safe to use from any
+     * thread.
+     */
+    @Getter
+    private static final LexicalTable<Kind> sharedLexicalTable = createLexicalTable().freeze();
+
     /**
      * The lexical table for our lexical analysis, it contains vario
      */
@@ -76,6 +86,13 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
     @Getter
     private final InstructionMap instructionMap;
 
+    /**
+     * The pool which the compilation phases are fanned out across, or {@code null} if the compilation should run on
+     * the calling thread.
+     */
+    @Getter
+    private final ForkJoinPool forkJoinPool;
+
     /**
      * The generated scripts optimizer.
      */
@@ -102,13 +119,15 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
      * @param instructionMap the instruction map to use for this compiler.
      * @param codeWriter     the code writer to use for the compiler.
      * @param allowOverride  whether or not the compiler should override the symbols.
+     * @param forkJoinPool   the pool to fan out the compilation phases across, or {@code null} for the calling thread.
      */
     private ScriptCompiler(IDManager idManager,
                            CompilerEnvironment environment,
                            InstructionMap instructionMap,
                            ScriptSymbolTable symbolTable,
                            CodeWriter<?> codeWriter,
-                           boolean allowOverride) {
+                           boolean allowOverride,
+                           ForkJoinPool forkJoinPool) {
         super(idManager);
         if (!instructionMap.isReady()) {
             throw new IllegalArgumentException("The provided InstructionMap is not ready, please register all of core opcodes before using it.");
@@ -118,7 +137,8 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
         this.symbolTable = symbolTable;
         this.codeWriter = codeWriter;
         this.allowOverride = allowOverride;
-        lexicalTable = createLexicalTable();
+        this.forkJoinPool = forkJoinPool;
+        lexicalTable = sharedLexicalTable;
         optimizer = new Optimizer(instructionMap);
         optimizer.register(new NaturalFlowOptimization());
         optimizer.register(new DeadBranchOptimization());
@@ -135,38 +155,68 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
      * @return a {@link List list} of the parsed {@link ScriptSyntax} objects.
      */
     private List<ScriptSyntax> parseSyntaxTree(ScriptSymbolTable symbolTable, ErrorReporter errorReporter, byte[] data, String extension) throws IOException {
-        var stream = new BufferedCharStream(new ByteArrayInputStream(data));
-        var tokenizer = new Tokenizer(errorReporter, lexicalTable, stream);
-        var lexer = new Lexer(tokenizer);
-        var parser = new SyntaxParser(environment, symbolTable, errorReporter, lexer, extension);
-        var scripts = new ArrayList<ScriptSyntax>();
-        while (lexer.remaining() > 0) {
-            scripts.add(parser.script());
+        var stream = new BufferedCharStream(data);
+        try {
+            var tokenizer = new Tokenizer(errorReporter, lexicalTable, stream);
+            var lexer = new Lexer(tokenizer);
+            var parser = new SyntaxParser(environment, symbolTable, errorReporter, lexer, extension);
+            var scripts = new ArrayList<ScriptSyntax>();
+            while (lexer.hasRemaining()) {
+                scripts.add(parser.script());
+            }
+            return scripts;
+        } finally {
+            stream.release();
         }
-        return scripts;
+    }
+
+    /**
+     * Lexes and parses the specified {@link SourceFile source file}, all of the state of the parsing is confined to the
+     * call so it can run concurrently with the parsing of the other source files.
+     *
+     * @param symbolTable the symbol table to use for parsing.
+     * @param sourceFile  the source file to parse.
+     * @return the {@link ParseResult} of the source file.
+     * @throws IOException if anything occurs while reading the source file.
+     */
+    private ParseResult parseSourceFile(ScriptSymbolTable symbolTable, SourceFile sourceFile) throws IOException {
+        var errorReporter = new ErrorReporter();
+        var result = new ParseResult(sourceFile);
+        try {
+            result.scripts.addAll(parseSyntaxTree(symbolTable, errorReporter, sourceFile.getContent(), sourceFile.getExtension()));
+        } catch (CompilerError error) {
+            result.errors.add(error);
+        }
+        result.errors.addAll(errorReporter.getErrors());
+        return result;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The compilation runs as a pipeline of phases, the source files are lexed and parsed in parallel, then the symbols
+     * of all the scripts are pre-defined on the calling thread, which acts as a barrier for the rest of the phases.
+     * After that the semantic checking and the code generation run in parallel again per source file, each task owns
+     * its own {@link SemanticChecker} and {@link CodeGenerator}, while the symbol table is only read from. The
+     * optimizations keep state while they are running, so the {@link #optimizer} runs on the calling thread once all of
+     * the code is generated.
      */
     @Override
     public Output<ScriptSyntax, CompiledScriptUnit> compile(Input input) throws IOException {
         var symbolTable = this.symbolTable.createSubTable();
         var output = new Output<ScriptSyntax, CompiledScriptUnit>();
+        var parseTasks = new ArrayList<Callable<ParseResult>>();
         for (var sourceFile : input.getSourceFiles()) {
-            var errorReporter = new ErrorReporter();
-            try {
-                var scripts = parseSyntaxTree(symbolTable, errorReporter, sourceFile.getContent(), sourceFile.getExtension());
-                for (var script : scripts) {
-                    var compiledUnit = new CompiledScriptUnit();
-                    compiledUnit.setSyntax(script);
-                    output.addUnit(sourceFile, compiledUnit);
-                }
-            } catch (CompilerError error) {
-                output.addError(sourceFile, error);
+            parseTasks.add(() -> parseSourceFile(symbolTable, sourceFile));
+        }
+        for (var result : invokeAll(parseTasks)) {
+            for (var script : result.scripts) {
+                var compiledUnit = new CompiledScriptUnit();
+                compiledUnit.setSyntax(script);
+                output.addUnit(result.sourceFile, compiledUnit);
             }
-            errorReporter.getErrors().forEach(error -> {
-                output.addError(sourceFile, error);
+            result.errors.forEach(error -> {
+                output.addError(result.sourceFile, error);
             });
         }
         var checker = new SemanticChecker(environment, symbolTable, allowOverride);
@@ -175,11 +225,16 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
             compiledFile.getErrors().addAll(checker.getErrors());
             checker.getErrors().clear();
         }
+        var checkTasks = new ArrayList<Callable<Void>>();
         for (var compiledFile : output.getFiles().values()) {
-            checker.execute(compiledFile.getUnits());
-            compiledFile.getErrors().addAll(checker.getErrors());
-            checker.getErrors().clear();
+            checkTasks.add(() -> {
+                var fileChecker = new SemanticChecker(environment, symbolTable, allowOverride);
+                fileChecker.execute(compiledFile.getUnits());
+                compiledFile.getErrors().addAll(fileChecker.getErrors());
+                return null;
+            });
         }
+        invokeAll(checkTasks);
 
         if (input.isRunIdGeneration()) {
             // We want to assign IDs for all of the nodes, including the erroneous ones
@@ -191,26 +246,75 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
             }
         }
         if (input.isRunCodeGeneration()) {
-            var codeGenerator = new CodeGenerator(environment, symbolTable, instructionMap, environment.getHookTriggerType());
+            var generateTasks = new ArrayList<Callable<Void>>();
+            for (var compiledFile : output.getFiles().values()) {
+                generateTasks.add(() -> {
+                    var codeGenerator = new CodeGenerator(environment, symbolTable, instructionMap, environment.getHookTriggerType());
+                    for (var unit : compiledFile.getUnits()) {
+                        unit.setBinaryScript(codeGenerator.visit(unit.getSyntax()));
+                    }
+                    return null;
+                });
+            }
+            invokeAll(generateTasks);
             for (var compiledFile : output.getFiles().values()) {
                 for (var unit : compiledFile.getUnits()) {
-                    var binaryScript = codeGenerator.visit(unit.getSyntax());
-                    optimizer.run(binaryScript);
-                    unit.setBinaryScript(binaryScript);
+                    optimizer.run(unit.getBinaryScript());
                 }
             }
         }
         return output;
     }
 
+    /**
+     * Runs all of the specified tasks on the {@link #forkJoinPool} and waits for all of them to complete, or runs them
+     * one after another on the calling thread if there is no pool.
+     *
+     * @param tasks the tasks which we want to run.
+     * @param <T>   the type of the result of the tasks.
+     * @return the results of the tasks, in the same order as the tasks.
+     * @throws IOException if any of the tasks failed with an {@link IOException}.
+     */
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) throws IOException {
+        var results = new ArrayList<T>(tasks.size());
+        try {
+            if (forkJoinPool == null || tasks.size() < 2) {
+                for (var task : tasks) {
+                    results.add(task.call());
+                }
+            } else {
+                for (var future : forkJoinPool.invokeAll(tasks)) {
+                    results.add(future.get());
+                }
+            }
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while compiling", e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return results;
+    }
+
     /**
      * Create a new {@link LexicalTable} object and then register all of the lexical symbols for our RuneScript language
-     * syntax.
+     * syntax. The compilers use the {@link #getSharedLexicalTable() shared table} instead of creating their own.
      *
      * @return the created {@link LexicalTable} object.
      */
     public static LexicalTable<Kind> createLexicalTable() {
-        // TODO: Cache LexicalTable
         var table = new LexicalTable<Kind>();
         // the keywords chunk.
         table.registerKeyword("true", Kind.BOOL);
@@ -272,6 +376,30 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
         return new CompilerBuilder();
     }
 
+    /**
+     * The result of lexing and parsing a single source file.
+     *
+     * @author Walied K. Yassen
+     */
+    @RequiredArgsConstructor
+    private static final class ParseResult {
+
+        /**
+         * The source file which was parsed.
+         */
+        private final SourceFile sourceFile;
+
+        /**
+         * The scripts that were parsed from the source file.
+         */
+        private final List<ScriptSyntax> scripts = new ArrayList<>();
+
+        /**
+         * The errors that were reported while parsing the source file.
+         */
+        private final List<CompilerError> errors = new ArrayList<>();
+    }
+
     /**
      * A builder class for the {@link ScriptCompiler} type.
      *
@@ -314,6 +442,11 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
          */
         private IDManager idManager;
 
+        /**
+         * The pool which the compilation phases are fanned out across.
+         */
+        private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+
         /**
          * Sets the environment object we are going to use for the compiler.
          *
@@ -383,6 +516,18 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
             return this;
         }
 
+        /**
+         * Sets the pool that we are going to fan out the compilation phases across, by default the common pool is
+         * used.
+         *
+         * @param forkJoinPool the pool to use or {@code null} if the compilation should run on the calling thread.
+         * @return this {@link CompilerBuilder} object instance.
+         */
+        public CompilerBuilder withForkJoinPool(ForkJoinPool forkJoinPool) {
+            this.forkJoinPool = forkJoinPool;
+            return this;
+        }
+
         /**
          * Sets the code writer that we are going to use for the compiler.
          *
@@ -416,7 +561,7 @@ public final class ScriptCompiler extends CompilerBase<ScriptSyntax, CompiledScr
             if (symbolTable == null) {
                 symbolTable = new ScriptSymbolTable(true);
             }
-            return new ScriptCompiler(idManager, environment, instructionMap, symbolTable, codeWriter, overrideSymbols);
+            return new ScriptCompiler(idManager, environment, instructionMap, symbolTable, codeWriter, overrideSymbols, forkJoinPool);
         }
     }
 }
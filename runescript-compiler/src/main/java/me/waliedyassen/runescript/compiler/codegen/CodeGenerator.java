@@ -287,7 +287,8 @@ public final class CodeGenerator implements SyntaxVisitor<Object> {
     @Override
     public Instruction visit(ArrayElementSyntax arrayExpression) {
         arrayExpression.getIndex().accept(this);
-        return instruction(PUSH_ARRAY_INT, arrayExpression.getArray().getIndex());
+        var array = arrayExpression.getArray();
+        return instruction(getPushArrayOpcode(array.getStackType()), array.getIndex());
     }
 
     /**
@@ -494,7 +495,8 @@ public final class CodeGenerator implements SyntaxVisitor<Object> {
             var variable = variableInitializer.getVariables()[index];
             if (variable instanceof ArrayVariableSyntax) {
                 var arrayVariable = (ArrayVariableSyntax) variable;
-                instruction(POP_ARRAY_INT, arrayVariable.getArrayInfo().getIndex());
+                var array = arrayVariable.getArrayInfo();
+                instruction(getPopArrayOpcode(array.getStackType()), array.getIndex());
             } else {
                 var scopedVariable = (ScopedVariableSyntax) variable;
                 Object operand;
@@ -1047,6 +1049,44 @@ public final class CodeGenerator implements SyntaxVisitor<Object> {
         }
     }
 
+    /**
+     * Returns the push core opcode for an array element with the specified {@link StackType stack type}.
+     *
+     * @param stackType the stack type of the array elements.
+     * @return the push {@link CoreOpcode opcode} enum constant.
+     */
+    private static CoreOpcode getPushArrayOpcode(StackType stackType) {
+        switch (stackType) {
+            case INT:
+                return CoreOpcode.PUSH_ARRAY_INT;
+            case STRING:
+                return CoreOpcode.PUSH_ARRAY_STRING;
+            case LONG:
+                return CoreOpcode.PUSH_ARRAY_LONG;
+            default:
+                throw new UnsupportedOperationException("Unsupported array stack type: " + stackType);
+        }
+    }
+
+    /**
+     * Returns the pop core opcode for an array element with the specified {@link StackType stack type}.
+     *
+     * @param stackType the stack type of the array elements.
+     * @return the pop {@link CoreOpcode opcode} enum constant.
+     */
+    private static CoreOpcode getPopArrayOpcode(StackType stackType) {
+        switch (stackType) {
+            case INT:
+                return CoreOpcode.POP_ARRAY_INT;
+            case STRING:
+                return CoreOpcode.POP_ARRAY_STRING;
+            case LONG:
+                return CoreOpcode.POP_ARRAY_LONG;
+            default:
+                throw new UnsupportedOperationException("Unsupported array stack type: " + stackType);
+        }
+    }
+
     /**
      * Gets the instruction {@link CoreOpcode} of the specified constant {@link Type}.
      *
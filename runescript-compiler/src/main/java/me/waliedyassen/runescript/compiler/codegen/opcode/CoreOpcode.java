@@ -252,7 +252,27 @@ public enum CoreOpcode {
     /**
      * The arithmetic modulo command instruction opcode.
      */
-    MOD;
+    MOD,
+
+    /**
+     * The push array string core instruction opcode.
+     */
+    PUSH_ARRAY_STRING,
+
+    /**
+     * The pop array string core instruction opcode.
+     */
+    POP_ARRAY_STRING,
+
+    /**
+     * The push array long core instruction opcode.
+     */
+    PUSH_ARRAY_LONG,
+
+    /**
+     * The pop array long core instruction opcode.
+     */
+    POP_ARRAY_LONG;
 
     /**
      * Checks whether or not this opcode requires a large operand (32-bit) and not a small operand (8-bit).
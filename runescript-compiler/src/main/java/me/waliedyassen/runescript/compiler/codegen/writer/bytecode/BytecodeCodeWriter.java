@@ -65,7 +65,7 @@ public final class BytecodeCodeWriter extends CodeWriter<BytecodeScript> {
         var numIntLocals = script.getVariables().getOrDefault(StackType.INT, EMPTY).size() + numIntParameters;
         var numStringLocals = script.getVariables().getOrDefault(StackType.STRING, EMPTY).size() + numStringParameters;
         var numLongLocals = script.getVariables().getOrDefault(StackType.LONG, EMPTY).size() + numLongParameters;
-        var switchTables = new LinkedList<Hashtable<Integer, Integer>>();
+        var switchTables = new LinkedList<BytecodeSwitchTable>();
         // create the codegen context.
         var context = new BytecodeGenContext(script, addressTable, localTable, switchTables);
         final var instructions = new ArrayList<BytecodeInstruction>();
@@ -98,7 +98,7 @@ public final class BytecodeCodeWriter extends CodeWriter<BytecodeScript> {
         if (operand instanceof Label) {
             return context.addressTable.get(operand) - address - 1;
         } else if (operand instanceof SwitchTable) {
-            var jumps = new Hashtable<Integer, Integer>();
+            var jumps = new TreeMap<Integer, Integer>();
             for (var $case : ((SwitchTable) operand).getCases()) {
                 var jump = context.addressTable.get($case.getLabel()) - address - 1;
                 for (var key : $case.getKeys()) {
@@ -106,7 +106,7 @@ public final class BytecodeCodeWriter extends CodeWriter<BytecodeScript> {
                 }
             }
             var index = context.switchTables.size();
-            context.switchTables.add(jumps);
+            context.switchTables.add(BytecodeSwitchTable.of(jumps));
             return index;
         } else if (operand instanceof ScriptInfo) {
             var info = (ScriptInfo) operand;
@@ -212,7 +212,7 @@ public final class BytecodeCodeWriter extends CodeWriter<BytecodeScript> {
          * A list of all the switch tables.
          */
         @Getter
-        private final LinkedList<Hashtable<Integer, Integer>> switchTables;
+        private final LinkedList<BytecodeSwitchTable> switchTables;
 
     }
 }
@@ -15,7 +15,6 @@ import me.waliedyassen.runescript.util.StreamUtil;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
-import java.util.Hashtable;
 import java.util.LinkedList;
 
 /**
@@ -78,7 +77,7 @@ public final class BytecodeScript {
      * The switch tables of the script.
      */
     @Getter
-    private final LinkedList<Hashtable<Integer, Integer>> switchTables;
+    private final LinkedList<BytecodeSwitchTable> switchTables;
 
     /**
      * Whether or not the script supports long primitive type.
@@ -131,9 +130,9 @@ public final class BytecodeScript {
             data.writeByte(switchTables.size());
             for (var table : switchTables) {
                 data.writeShort(table.size());
-                for (var entry : table.entrySet()) {
-                    data.writeInt(entry.getKey());
-                    data.writeInt(entry.getValue());
+                for (var index = 0; index < table.size(); index++) {
+                    data.writeInt(table.getKeys()[index]);
+                    data.writeInt(table.getJumps()[index]);
                 }
                 size += 2 + table.size() * 8;
             }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.writer.bytecode;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.var;
+
+import java.util.Map;
+
+/**
+ * Represents a byte code switch table, the keys are sorted in ascending order and each key has its jump at the same
+ * index in {@link #jumps}.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class BytecodeSwitchTable {
+
+    /**
+     * The sorted keys of the switch table.
+     */
+    @Getter
+    private final int[] keys;
+
+    /**
+     * The jump of each key of the switch table.
+     */
+    @Getter
+    private final int[] jumps;
+
+    /**
+     * Creates a new {@link BytecodeSwitchTable} from the specified sorted {@link Map} of keys and jumps.
+     *
+     * @param table the sorted map of the keys and their jumps.
+     * @return the created {@link BytecodeSwitchTable} object.
+     */
+    public static BytecodeSwitchTable of(Map<Integer, Integer> table) {
+        var keys = new int[table.size()];
+        var jumps = new int[table.size()];
+        var index = 0;
+        for (var entry : table.entrySet()) {
+            keys[index] = entry.getKey();
+            jumps[index] = entry.getValue();
+            index++;
+        }
+        return new BytecodeSwitchTable(keys, jumps);
+    }
+
+    /**
+     * Returns the amount of keys in the switch table.
+     *
+     * @return the amount of keys in the switch table.
+     */
+    public int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.dependency;
+
+import lombok.Data;
+
+/**
+ * Represents a single dependency edge from a compiled script to a symbol it references by name. The edges are recorded
+ * during the semantic checking regardless of whether the symbol could be resolved or not, so a script which references
+ * a missing symbol is still considered affected once that symbol is defined.
+ *
+ * @author Walied K. Yassen
+ */
+@Data
+public final class Dependency {
+
+    /**
+     * The kind of the symbol which is depended on.
+     */
+    private final DependencyKind kind;
+
+    /**
+     * The name of the symbol which is depended on, scripts are referenced by their full name, e.g. {@code [proc,name]}.
+     */
+    private final String name;
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.dependency;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.var;
+
+/**
+ * Represents the kind of symbol a {@link Dependency} points to.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public enum DependencyKind {
+
+    /**
+     * A script which is called or hooked by name, e.g. {@code ~proc} or {@code @label}.
+     */
+    SCRIPT(0),
+
+    /**
+     * A configuration which is referenced by name, including the global variables.
+     */
+    CONFIG(1),
+
+    /**
+     * A constant which is referenced by name, e.g. {@code ^max_level}.
+     */
+    CONSTANT(2),
+
+    /**
+     * A runtime constant which is referenced by name.
+     */
+    RUNTIME_CONSTANT(3),
+    ;
+
+    /**
+     * The unique id of the kind, used when writing the kind to a binary stream.
+     */
+    @Getter
+    private final int id;
+
+    /**
+     * Looks-up for the {@link DependencyKind} with the specified {@code id}.
+     *
+     * @param id the id of the dependency kind.
+     * @return the {@link DependencyKind} with the specified id.
+     * @throws IllegalArgumentException if there was no dependency kind with the specified id.
+     */
+    public static DependencyKind forId(int id) {
+        for (var kind : values()) {
+            if (kind.id == id) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("No dependency kind with the id: " + id);
+    }
+}
@@ -29,6 +29,11 @@ public final class Lexer extends LexerBase<Kind, SyntaxToken> {
     @Getter
     private final LexicalTable<Kind> lexicalTable;
 
+    /**
+     * The tokenizer which we will take all the {@link Token} objects from.
+     */
+    private final Tokenizer tokenizer;
+
     /**
      * Constructs a new {@link Lexer} type object instance.
      *
@@ -37,17 +42,24 @@ public final class Lexer extends LexerBase<Kind, SyntaxToken> {
     public Lexer(Tokenizer tokenizer) {
         super(tokenizer.range());
         this.lexicalTable = tokenizer.getTable();
-        tokens:
-        do {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SyntaxToken fetch() {
+        while (true) {
             var token = tokenizer.parse();
             switch (token.getKind()) {
                 case EOF:
-                    break tokens;
+                    return null;
                 case COMMENT:
-                    continue tokens;
+                    continue;
                 default:
-                    tokens.add(token);
+                    return token;
             }
-        } while (true);
+        }
     }
 }
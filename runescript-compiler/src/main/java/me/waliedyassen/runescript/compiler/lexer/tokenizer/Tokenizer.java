@@ -150,20 +150,27 @@ public final class Tokenizer extends TokenizerBase<Kind, SyntaxToken> {
                                 state.mode = Mode.ISTRING_LITERAL;
                                 continue;
                             } else if (table.isOperatorStart(current)) {
+                                // walk the operators DFA for as long as it accepts characters, and keep track of the
+                                // longest operator that we have matched so far.
+                                var operatorState = table.nextOperatorState(LexicalTable.OPERATOR_START, current);
+                                var operator = table.lookupOperatorState(operatorState);
+                                var matched = 1;
                                 builder.append(current);
-                                for (var index = 1; index < table.getOperatorSize(); index++) {
-                                    if (!stream.hasRemaining() || stream.peek() == '\r' && stream.peek() == '\n') {
+                                while (stream.hasRemaining()) {
+                                    operatorState = table.nextOperatorState(operatorState, stream.peek());
+                                    if (operatorState == LexicalTable.OPERATOR_REJECT) {
                                         break;
                                     }
                                     builder.append(stream.take());
-                                }
-                                while (builder.length() > 0) {
-                                    var sequence = builder.toString();
-                                    if (table.isOperator(sequence)) {
-                                        return createToken(table.lookupOperator(sequence), sequence);
+                                    if (table.lookupOperatorState(operatorState) != null) {
+                                        operator = table.lookupOperatorState(operatorState);
+                                        matched = builder.length();
                                     }
-                                    builder.setLength(builder.length() - 1);
-                                    stream.rollback(1);
+                                }
+                                stream.rollback(builder.length() - matched);
+                                builder.setLength(matched);
+                                if (operator != null) {
+                                    return createToken(operator, builder.toString());
                                 }
                             }
                             addLexicalError("Unexpected character: " + current);
@@ -176,8 +183,8 @@ public final class Tokenizer extends TokenizerBase<Kind, SyntaxToken> {
                         stream.mark();
                     } else {
                         stream.reset();
-                        var word = builder.toString();
-                        return createToken(table.isKeyword(word) ? table.lookupKeyword(word) : IDENTIFIER, builder.toString());
+                        var keyword = table.lookupKeyword(builder);
+                        return createToken(keyword != null ? keyword : IDENTIFIER, builder.toString());
                     }
                     break;
                 case STRING_LITERAL:
@@ -12,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.var;
 import me.waliedyassen.runescript.compiler.CompiledScriptUnit;
 import me.waliedyassen.runescript.compiler.CompilerError;
+import me.waliedyassen.runescript.compiler.dependency.Dependency;
+import me.waliedyassen.runescript.compiler.dependency.DependencyKind;
 import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
 import me.waliedyassen.runescript.compiler.semantics.typecheck.PreTypeChecking;
 import me.waliedyassen.runescript.compiler.semantics.typecheck.TypeChecking;
@@ -19,6 +21,7 @@ import me.waliedyassen.runescript.compiler.symbol.ScriptSymbolTable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents the semantic analysis checker. It checks the source code for any semantic errors.
@@ -52,6 +55,11 @@ public final class SemanticChecker {
     @Getter
     private final boolean allowOverriding;
 
+    /**
+     * The dependencies set of the script which is currently being checked.
+     */
+    private Set<Dependency> dependencies;
+
     /**
      * Executes the pre semantic checking for the specified {@link CompiledScriptUnit scripts}.
      *
@@ -61,8 +69,10 @@ public final class SemanticChecker {
     public void executePre(Iterable<CompiledScriptUnit> scripts) {
         var pre = new PreTypeChecking(this, symbolTable);
         for (var script : scripts) {
+            dependencies = script.getDependencies();
             script.getSyntax().accept(pre);
         }
+        dependencies = null;
     }
 
     /**
@@ -74,8 +84,25 @@ public final class SemanticChecker {
     public void execute(Iterable<CompiledScriptUnit> scripts) {
         var checker = new TypeChecking(this, symbolTable, environment.getHookTriggerType());
         for (var script : scripts) {
+            dependencies = script.getDependencies();
             script.getSyntax().accept(checker);
         }
+        dependencies = null;
+    }
+
+    /**
+     * Records a dependency on the symbol with the specified {@code kind} and {@code name} for the script which is
+     * currently being checked.
+     *
+     * @param kind
+     *         the kind of the symbol which is depended on.
+     * @param name
+     *         the name of the symbol which is depended on.
+     */
+    public void recordDependency(DependencyKind kind, String name) {
+        if (dependencies != null) {
+            dependencies.add(new Dependency(kind, name));
+        }
     }
 
     /**
@@ -10,6 +10,7 @@ package me.waliedyassen.runescript.compiler.semantics.typecheck;
 import lombok.RequiredArgsConstructor;
 import lombok.var;
 import me.waliedyassen.runescript.compiler.codegen.local.Local;
+import me.waliedyassen.runescript.compiler.dependency.DependencyKind;
 import me.waliedyassen.runescript.compiler.lexer.token.Kind;
 import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
 import me.waliedyassen.runescript.compiler.semantics.SemanticError;
@@ -240,6 +241,7 @@ public final class PreTypeChecking extends SyntaxTreeVisitor {
                 return local.getType();
             }
             case GLOBAL: {
+                checker.recordDependency(DependencyKind.CONFIG, name);
                 var config = symbolTable.lookupVariable(name);
                 if (config == null) {
                     reportError(new SemanticError(node, String.format("%s cannot be resolved to a global variable", name)));
@@ -9,6 +9,7 @@ package me.waliedyassen.runescript.compiler.semantics.typecheck;
 
 import lombok.RequiredArgsConstructor;
 import lombok.var;
+import me.waliedyassen.runescript.compiler.dependency.DependencyKind;
 import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
 import me.waliedyassen.runescript.compiler.semantics.SemanticError;
 import me.waliedyassen.runescript.compiler.symbol.ScriptSymbolTable;
@@ -208,6 +209,7 @@ public final class TypeChecking implements SyntaxVisitor<TypeCheckAction> {
         } else if (hook.getName() != null) {
             var fullName = String.format("[%s,%s]", hookTriggerType.getRepresentation(), hook.getName().getText());
             var parentInfo = symbolTable.lookupCommand(((CommandSyntax) hook.getParent()).getName().getText());
+            checker.recordDependency(DependencyKind.SCRIPT, fullName);
             var scriptInfo = symbolTable.lookupScript(fullName);
             if (scriptInfo == null) {
                 checker.reportError(new SemanticError(hook.getName(), String.format("Could not resolve %s script with the name '%s'", hookTriggerType.getRepresentation(), hook.getName().getText())));
@@ -244,6 +246,7 @@ public final class TypeChecking implements SyntaxVisitor<TypeCheckAction> {
     public TypeCheckAction visit(CallSyntax call) {
         final var triggerType = call.getTriggerType();
         var fullName = String.format("[%s,%s]", triggerType.getRepresentation(), call.getName().getText());
+        checker.recordDependency(DependencyKind.SCRIPT, fullName);
         var info = symbolTable.lookupScript(fullName);
         if (info == null) {
             checker.reportError(new SemanticError(call, String.format("Could not resolve %s script with the name '%s'", call.getTriggerType().getRepresentation(), call.getName().getText())));
@@ -295,14 +298,18 @@ public final class TypeChecking implements SyntaxVisitor<TypeCheckAction> {
         }
         var configInfo = symbolTable.lookupConfig(name.getText());
         if (configInfo != null) {
+            checker.recordDependency(DependencyKind.CONFIG, name.getText());
             dynamic.setType(configInfo.getType());
             return TypeCheckAction.CONTINUE;
         }
         var runtimeConstantInfo = symbolTable.lookupRuntimeConstant(name.getText());
         if (runtimeConstantInfo != null) {
+            checker.recordDependency(DependencyKind.RUNTIME_CONSTANT, name.getText());
             dynamic.setType(runtimeConstantInfo.getType());
             return TypeCheckAction.CONTINUE;
         }
+        // the symbol is most likely a configuration which was not defined yet.
+        checker.recordDependency(DependencyKind.CONFIG, name.getText());
         checker.reportError(new SemanticError(name, String.format("%s cannot be resolved to a symbol", name.getText())));
         return TypeCheckAction.SKIP;
     }
@@ -313,6 +320,7 @@ public final class TypeChecking implements SyntaxVisitor<TypeCheckAction> {
     @Override
     public TypeCheckAction visit(ConstantSyntax constant) {
         var name = constant.getName();
+        checker.recordDependency(DependencyKind.CONSTANT, name.getText());
         var info = symbolTable.lookupConstant(name.getText());
         if (info == null) {
             checker.reportError(new SemanticError(name, String.format("%s cannot be resolved to a constant", name.getText())));
@@ -393,6 +401,7 @@ public final class TypeChecking implements SyntaxVisitor<TypeCheckAction> {
             if (actual.length > 1 && actual[1] instanceof DynamicSyntax) {
                 // argument 1 is "param"
                 var literal = (DynamicSyntax) actual[1];
+                checker.recordDependency(DependencyKind.CONFIG, literal.getName().getText());
                 var configInfo = symbolTable.lookupConfig(literal.getName().getText());
                 if (configInfo != null && configInfo.getContentType() != null) {
                     return configInfo.getContentType();
@@ -455,8 +464,9 @@ public final class TypeChecking implements SyntaxVisitor<TypeCheckAction> {
      */
     @Override
     public TypeCheckAction visit(ArrayDeclarationSyntax arrayDeclaration) {
-        if (arrayDeclaration.getType().getStackType() != StackType.INT) {
-            checker.reportError(new SemanticError(arrayDeclaration, "Arrays can only have a type that is derived from the int type"));
+        var stackType = arrayDeclaration.getType().getStackType();
+        if (stackType != StackType.INT && stackType != StackType.STRING && stackType != StackType.LONG) {
+            checker.reportError(new SemanticError(arrayDeclaration, "Arrays can only have a type that is derived from the int, string or long types"));
         }
         if (arrayDeclaration.getSize().accept(this).isContinue()) {
             checkTypeMatching(arrayDeclaration.getSize(), PrimitiveType.INT, arrayDeclaration.getSize().getType());
@@ -180,6 +180,10 @@ public final class ScriptSymbolTable extends SymbolTable {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The sub-table is not synchronised, it can be looked-up from many threads at the same time as long as neither it
+     * nor its parent is being modified, which is how {@link me.waliedyassen.runescript.compiler.ScriptCompiler} uses
+     * it: the symbols are only defined before the parallel phases of the compilation start.
      */
     @Override
     public ScriptSymbolTable createSubTable() {
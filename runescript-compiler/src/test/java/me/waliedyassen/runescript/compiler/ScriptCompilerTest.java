@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler;
+
+import lombok.var;
+import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
+import me.waliedyassen.runescript.compiler.codegen.opcode.BasicOpcode;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeCodeWriter;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.idmapping.IDManager;
+import me.waliedyassen.runescript.compiler.lexer.token.Kind;
+import me.waliedyassen.runescript.compiler.symbol.ScriptSymbolTable;
+import me.waliedyassen.runescript.compiler.util.trigger.BasicTriggerType;
+import me.waliedyassen.runescript.type.Type;
+import me.waliedyassen.runescript.type.primitive.PrimitiveType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptCompilerTest {
+
+    static final int FILES = 24;
+
+    @Test
+    void testParallelMatchesSequential() throws IOException {
+        var sequential = compile(null);
+        var forkJoinPool = new ForkJoinPool(4);
+        try {
+            var parallel = compile(forkJoinPool);
+            assertEquals(sequential.keySet(), parallel.keySet());
+            for (var name : sequential.keySet()) {
+                assertEquals(sequential.get(name), parallel.get(name), name);
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+        assertEquals(FILES, sequential.size());
+        // Every fifth file has a semantic error and every seventh file has a syntax error.
+        for (var index = 0; index < FILES; index++) {
+            var erroneous = index % 5 == 4 || index % 7 == 6;
+            var description = sequential.get("test/file_" + index + ".rs2");
+            assertEquals(erroneous, description.stream().anyMatch(line -> line.startsWith("error")), "file_" + index);
+            if (!erroneous) {
+                assertEquals(2, description.size(), "file_" + index);
+            }
+        }
+    }
+
+    /**
+     * Compiles all of the test source files with a new compiler that uses the specified pool, and then describes the
+     * output of each source file as a list of its errors followed by the encoded bytecode of its scripts.
+     */
+    Map<String, List<String>> compile(ForkJoinPool forkJoinPool) throws IOException {
+        var environment = new CompilerEnvironment();
+        var hook = new BasicTriggerType("clientscript", null, null, true, null, false, null);
+        environment.registerTrigger(hook);
+        environment.setHookTriggerType(hook);
+        environment.registerTrigger(new BasicTriggerType("proc", Kind.TILDE, CoreOpcode.GOSUB_WITH_PARAMS, true, null, true, null));
+        var instructionMap = new InstructionMap();
+        for (var opcode : CoreOpcode.values()) {
+            instructionMap.registerCore(opcode, opcode.ordinal(), opcode.isLargeOperand());
+        }
+        var symbolTable = new ScriptSymbolTable(true);
+        symbolTable.defineCommand(new BasicOpcode(100, false), "tostring", PrimitiveType.STRING, new Type[]{PrimitiveType.INT}, false, null, false, null);
+        var idManager = new TestIdManager();
+        var compiler = ScriptCompiler.builder()
+                .withEnvironment(environment)
+                .withInstructionMap(instructionMap)
+                .withSymbolTable(symbolTable)
+                .withIdProvider(idManager)
+                .withSupportsLongPrimitiveType(true)
+                .withForkJoinPool(forkJoinPool)
+                .build();
+        var input = new Input();
+        input.setRunIdGeneration(true);
+        input.setRunCodeGeneration(true);
+        for (var index = 0; index < FILES; index++) {
+            input.addSourceFile(new SourceFile("test", "file_" + index, "rs2", source(index).getBytes(StandardCharsets.UTF_8)));
+        }
+        var output = compiler.compile(input);
+        var writer = new BytecodeCodeWriter(idManager, true);
+        var described = new HashMap<String, List<String>>();
+        for (var entry : output.getFiles().entrySet()) {
+            var description = new ArrayList<String>();
+            for (var error : entry.getValue().getErrors()) {
+                description.add("error " + error.getRange() + ": " + error.getMessage());
+            }
+            if (!entry.getValue().isErroneous()) {
+                for (var unit : entry.getValue().getUnits()) {
+                    description.add(Arrays.toString(writer.write(unit.getBinaryScript()).encode()));
+                }
+            }
+            described.put(entry.getKey(), description);
+        }
+        return described;
+    }
+
+    /**
+     * Returns the source code of the test source file with the specified index, each file calls into the file before
+     * it, so the files can only be compiled once all of their symbols were pre-defined.
+     */
+    static String source(int index) {
+        var builder = new StringBuilder();
+        builder.append("[proc,value_").append(index).append("](int $value)(int)\n");
+        builder.append("def_int $result = calc($value * ").append(index + 1).append(");\n");
+        // The files with a syntax error lose all of their scripts, so they are never called into.
+        if (index > 0 && (index - 1) % 7 != 6) {
+            builder.append("$result = calc($result + ~value_").append(index - 1).append("($value));\n");
+        }
+        builder.append("if ($result > 100) {\n    return(calc($result - 100));\n}\n");
+        builder.append("return($result);\n");
+        builder.append("[proc,text_").append(index).append("](int $value)(string)\n");
+        if (index % 5 == 4) {
+            builder.append("def_int $text = \"value\";\n");
+        }
+        builder.append("return(\"<tostring(~value_").append(index).append("($value))>\");\n");
+        if (index % 7 == 6) {
+            builder.append("[proc,broken_").append(index).append("](int $value\n");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * An {@link IDManager} which assigns the script ids sequentially and does not support any configs.
+     */
+    static final class TestIdManager implements IDManager {
+
+        final Map<String, Integer> scripts = new HashMap<>();
+
+        @Override
+        public int findOrCreateScript(String name, String extension) {
+            return scripts.computeIfAbsent(name, key -> scripts.size());
+        }
+
+        @Override
+        public int findOrCreateConfig(Type type, String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int findScript(String name, String extension) {
+            return scripts.get(name);
+        }
+
+        @Override
+        public int findConfig(Type type, String name) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -123,6 +123,20 @@ class CodeGeneratorTest {
         assertInstructionEquals(block.getInstructions().get(3), CoreOpcode.RETURN, 0);
     }
 
+    @Test
+    void testTypedArrays() {
+        var script = fromString("[proc,test] def_string $names(2); def_long $values(2); $names(0) = \"test\"; $values(1) = 1234L; writeconsole($names(0)); $values(0) = $values(1);")[0];
+        assertEquals(0, checker.getErrors().size());
+        var block = script.getBlockList().getBlock(new Label(0, "entry_0"));
+        assertInstructionEquals(block.getInstructions().get(1), CoreOpcode.DEFINE_ARRAY, (0 << 16) | PrimitiveType.STRING.getCode());
+        assertInstructionEquals(block.getInstructions().get(3), CoreOpcode.DEFINE_ARRAY, (1 << 16) | PrimitiveType.LONG.getCode());
+        assertInstructionEquals(block.getInstructions().get(6), CoreOpcode.POP_ARRAY_STRING, 0);
+        assertInstructionEquals(block.getInstructions().get(9), CoreOpcode.POP_ARRAY_LONG, 1);
+        assertInstructionEquals(block.getInstructions().get(11), CoreOpcode.PUSH_ARRAY_STRING, 0);
+        assertInstructionEquals(block.getInstructions().get(15), CoreOpcode.PUSH_ARRAY_LONG, 1);
+        assertInstructionEquals(block.getInstructions().get(16), CoreOpcode.POP_ARRAY_LONG, 1);
+    }
+
     @Test
     void testCall01() {
         var scripts = fromString("[proc,my_proc](int $parameter) @my_label(0); [label,my_label](int $parameter) ~my_proc(0);");
@@ -163,7 +177,7 @@ class CodeGeneratorTest {
                 var unit = new CompiledScriptUnit();
                 unit.setSyntax(parser.script());
                 scripts.add(unit);
-            } while (lexer.remaining() > 0);
+            } while (lexer.hasRemaining());
             checker.executePre(scripts);
             checker.execute(scripts);
             var parsed = new BinaryScript[scripts.size()];
@@ -186,7 +200,7 @@ class CodeGeneratorTest {
             var unit = new CompiledScriptUnit();
             unit.setSyntax(parser.script());
             scripts.add(unit);
-        } while (lexer.remaining() > 0);
+        } while (lexer.hasRemaining());
         checker.executePre(scripts);
         checker.execute(scripts);
         checker.getErrors().forEach(System.out::println);
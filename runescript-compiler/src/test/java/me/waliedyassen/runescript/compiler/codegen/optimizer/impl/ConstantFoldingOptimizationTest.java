@@ -86,7 +86,7 @@ class ConstantFoldingOptimizationTest {
             var unit = new CompiledScriptUnit();
             unit.setSyntax(parser.script());
             scripts.add(unit);
-        } while (lexer.remaining() > 0);
+        } while (lexer.hasRemaining());
         if (scripts.size() != 1) {
             throw new IllegalStateException();
         }
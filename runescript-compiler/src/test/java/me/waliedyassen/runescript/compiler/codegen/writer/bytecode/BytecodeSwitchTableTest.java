@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.codegen.writer.bytecode;
+
+import lombok.var;
+import org.junit.jupiter.api.Test;
+
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BytecodeSwitchTableTest {
+
+    @Test
+    void testOf() {
+        var map = new TreeMap<Integer, Integer>();
+        map.put(50, 3);
+        map.put(-1, 7);
+        map.put(4, 0);
+        var table = BytecodeSwitchTable.of(map);
+        assertEquals(3, table.size());
+        assertArrayEquals(new int[]{-1, 4, 50}, table.getKeys());
+        assertArrayEquals(new int[]{7, 0, 3}, table.getJumps());
+    }
+}
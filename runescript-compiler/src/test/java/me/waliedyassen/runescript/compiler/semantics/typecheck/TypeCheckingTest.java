@@ -14,6 +14,8 @@ import me.waliedyassen.runescript.compiler.CompiledScriptUnit;
 import me.waliedyassen.runescript.compiler.CompilerError;
 import me.waliedyassen.runescript.compiler.ScriptCompiler;
 import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.dependency.Dependency;
+import me.waliedyassen.runescript.compiler.dependency.DependencyKind;
 import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
 import me.waliedyassen.runescript.compiler.error.ThrowingErrorReporter;
 import me.waliedyassen.runescript.compiler.lexer.Lexer;
@@ -31,8 +33,10 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TypeCheckingTest {
 
@@ -145,6 +149,17 @@ class TypeCheckingTest {
         assertEquals(0, checker.getErrors().size());
     }
 
+    @Test
+    void testDependencies() {
+        var scripts = checkString("[proc,main] ~other; @sub; def_int $value = ^missing; [proc,other] [label,sub]");
+        var dependencies = scripts.get(0).getDependencies();
+        assertEquals(3, dependencies.size());
+        assertTrue(dependencies.contains(new Dependency(DependencyKind.SCRIPT, "[proc,other]")));
+        assertTrue(dependencies.contains(new Dependency(DependencyKind.SCRIPT, "[label,sub]")));
+        assertTrue(dependencies.contains(new Dependency(DependencyKind.CONSTANT, "missing")));
+        assertTrue(scripts.get(1).getDependencies().isEmpty());
+    }
+
     void checkResource(String name) throws IOException {
         checker.getSymbolTable().getScripts().clear();
         checker.getErrors().clear();
@@ -157,7 +172,7 @@ class TypeCheckingTest {
                 var unit = new CompiledScriptUnit();
                 unit.setSyntax(parser.script());
                 scripts.add(unit);
-            } while (lexer.remaining() > 0);
+            } while (lexer.hasRemaining());
             checker.executePre(scripts);
             checker.execute(scripts);
             for (CompilerError error : checker.getErrors()) {
@@ -166,7 +181,7 @@ class TypeCheckingTest {
         }
     }
 
-    void checkString(String text) {
+    List<CompiledScriptUnit> checkString(String text) {
         checker.getSymbolTable().getScripts().clear();
         checker.getErrors().clear();
         var tokenizer = new Tokenizer(new ThrowingErrorReporter(), ScriptCompiler.createLexicalTable(), new BufferedCharStream(text.toCharArray()));
@@ -177,12 +192,13 @@ class TypeCheckingTest {
             var unit = new CompiledScriptUnit();
             unit.setSyntax(parser.script());
             scripts.add(unit);
-        } while (lexer.remaining() > 0);
+        } while (lexer.hasRemaining());
         checker.executePre(scripts);
         checker.execute(scripts);
         for (CompilerError error : checker.getErrors()) {
             error.printStackTrace();
         }
+        return scripts;
     }
 
     @Data
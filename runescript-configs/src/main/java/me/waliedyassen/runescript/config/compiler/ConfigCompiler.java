@@ -29,7 +29,6 @@ import me.waliedyassen.runescript.config.syntax.SyntaxParser;
 import me.waliedyassen.runescript.type.primitive.PrimitiveType;
 import me.waliedyassen.runescript.util.CollectorsEx;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -51,11 +50,18 @@ public final class ConfigCompiler extends CompilerBase<ConfigSyntax, CompiledCon
     @Getter
     private final Map<String, ConfigBinding> bindings = new HashMap<>();
 
+    /**
+     * The lexical table which is shared between all of the configuration compilers, it is frozen so it is safe to use
+     * from any thread.
+     */
+    @Getter
+    private static final LexicalTable<Kind> sharedLexicalTable = createLexicalTable().freeze();
+
     /**
      * The lexical table of the configuration compiler.
      */
     @Getter
-    private final LexicalTable<Kind> lexicalTable = createLexicalTable();
+    private final LexicalTable<Kind> lexicalTable = sharedLexicalTable;
 
     /**
      * The symbol table of the configuration compiler.
@@ -94,7 +100,7 @@ public final class ConfigCompiler extends CompilerBase<ConfigSyntax, CompiledCon
             if (binding == null) {
                 throw new IllegalStateException("Missing configuration binding for file extension: " + sourceFile.getExtension());
             }
-            var stream = new BufferedCharStream(new ByteArrayInputStream(sourceFile.getContent()));
+            var stream = new BufferedCharStream(sourceFile.getContent());
             try {
                 var errorReporter = new ErrorReporter();
                 var tokenizer = new Tokenizer(errorReporter, lexicalTable, stream);
@@ -112,6 +118,8 @@ public final class ConfigCompiler extends CompilerBase<ConfigSyntax, CompiledCon
                 }
             } catch (CompilerError error) {
                 output.addError(sourceFile, error);
+            } finally {
+                stream.release();
             }
         }
         var mapped = output.getCompiledFiles().stream().collect(groupingBy(Function.identity(), CollectorsEx.flatMapping(file -> file.getUnits().stream().map(CompiledConfigUnit::getSyntax), toList())));
@@ -189,7 +197,7 @@ public final class ConfigCompiler extends CompilerBase<ConfigSyntax, CompiledCon
 
     /**
      * Create a new {@link LexicalTable} object and then register all of the lexical symbols for our configurations
-     * syntax.
+     * syntax. The compilers use the {@link #getSharedLexicalTable() shared table} instead of creating their own.
      *
      * @return the created {@link LexicalTable} object.
      */
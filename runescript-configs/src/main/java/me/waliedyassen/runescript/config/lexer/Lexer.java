@@ -20,6 +20,11 @@ import me.waliedyassen.runescript.config.lexer.token.SyntaxToken;
  */
 public final class Lexer extends LexerBase<Kind, SyntaxToken> {
 
+    /**
+     * The tokenizer which we will take all the {@link Token} objects from.
+     */
+    private final Tokenizer tokenizer;
+
     /**
      * Constructs a new {@link Lexer} type object instance.
      *
@@ -28,17 +33,24 @@ public final class Lexer extends LexerBase<Kind, SyntaxToken> {
      */
     public Lexer(Tokenizer tokenizer) {
         super(tokenizer.range());
-        tokens:
-        do {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SyntaxToken fetch() {
+        while (true) {
             var token = tokenizer.parse();
             switch (token.getKind()) {
                 case EOF:
-                    break tokens;
+                    return null;
                 case COMMENT:
-                    continue tokens;
+                    continue;
                 default:
-                    tokens.add(token);
+                    return token;
             }
-        } while (true);
+        }
     }
 }
@@ -135,8 +135,8 @@ public final class Tokenizer extends TokenizerBase<Kind, SyntaxToken> {
                         stream.mark();
                     } else {
                         stream.reset();
-                        var word = builder.toString();
-                        return createToken(table.isKeyword(word) ? table.lookupKeyword(word) : IDENTIFIER, builder.toString());
+                        var keyword = table.lookupKeyword(builder);
+                        return createToken(keyword != null ? keyword : IDENTIFIER, builder.toString());
                     }
                     break;
                 case STRING_LITERAL:
@@ -18,6 +18,7 @@ import me.waliedyassen.runescript.compiler.CompiledScriptUnit;
 import me.waliedyassen.runescript.compiler.Input;
 import me.waliedyassen.runescript.compiler.SourceFile;
 import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeCodeWriter;
+import me.waliedyassen.runescript.compiler.dependency.Dependency;
 import me.waliedyassen.runescript.config.compiler.CompiledConfigUnit;
 import me.waliedyassen.runescript.editor.file.FileTypeManager;
 import me.waliedyassen.runescript.editor.job.WorkExecutor;
@@ -25,6 +26,7 @@ import me.waliedyassen.runescript.editor.project.Project;
 import me.waliedyassen.runescript.editor.project.cache.unit.CacheUnit;
 import me.waliedyassen.runescript.editor.project.compile.CompileResult;
 import me.waliedyassen.runescript.editor.project.compile.ProjectCompiler;
+import me.waliedyassen.runescript.editor.project.dependency.DependencyGraph;
 import me.waliedyassen.runescript.editor.util.ex.PathEx;
 import me.waliedyassen.runescript.util.ChecksumUtil;
 
@@ -54,12 +56,23 @@ public final class Cache {
      */
     private static final CompileOptions DEFAULT_OPTIONS = new CompileOptions();
 
+    /**
+     * The magic number which is written at the start of the cache file, it is changed whenever the format of the cache
+     * file changes so the out of date cache files are discarded instead of being read incorrectly.
+     */
+    private static final int MAGIC = 0x52534302;
+
     /**
      * A map of all the cache units that are stored in this
      */
     @Getter
     private final Map<String, CacheUnit<?>> units = new HashMap<>();
 
+    /**
+     * The dependency graph between the cache units (by path) and the symbols they depend on.
+     */
+    private final DependencyGraph<String, Dependency> dependencyGraph = new DependencyGraph<>();
+
     /**
      * The project which this cache is for.
      */
@@ -87,6 +100,10 @@ public final class Cache {
      * @throws IOException if anything occurs while reading the data from the stream.
      */
     public void deserialize(DataInputStream stream) throws IOException {
+        if (stream.readInt() != MAGIC) {
+            log.info("Discarding the project cache because it was written in an outdated format");
+            return;
+        }
         var unitsCount = stream.readInt();
         for (int index = 0; index < unitsCount; index++) {
             var path = stream.readUTF();
@@ -95,6 +112,7 @@ public final class Cache {
             var cacheUnit = compiler.createUnit(path, null);
             cacheUnit.read(stream);
             units.put(cacheUnit.getNameWithPath(), cacheUnit);
+            dependencyGraph.update(cacheUnit.getNameWithPath(), cacheUnit.getDependencies());
         }
     }
 
@@ -105,6 +123,7 @@ public final class Cache {
      * @throws IOException if anything occurs while writing the data to the stream.
      */
     public void serialize(DataOutputStream stream) throws IOException {
+        stream.writeInt(MAGIC);
         stream.writeInt(units.size());
         for (var file : units.values()) {
             file.write(stream);
@@ -146,10 +165,19 @@ public final class Cache {
         }
         if (!deletions.isEmpty()) {
             log.info("Found {} deleted files", deletions.size());
+            var definitions = new HashMap<Dependency, Object>();
             for (var deletedUnit : deletions.values()) {
                 deletedUnit.undefineSymbols(project.getSymbolTable());
+                definitions.putAll(deletedUnit.getDefinitions());
                 units.remove(deletedUnit.getPath());
+                dependencyGraph.remove(deletedUnit.getPath());
             }
+            var changedPaths = changes.stream()
+                    .map(change -> PathEx.normalizeRelative(project.getBuildPath().getSourceDirectory(), change.getKey()))
+                    .collect(Collectors.toSet());
+            var dependents = dependencyGraph.findAffected(definitions, Collections.emptyMap());
+            dependents.removeAll(changedPaths);
+            changes.addAll(readUnits(dependents));
             dirtyCache = true;
         }
         if (!changes.isEmpty()) {
@@ -190,18 +218,43 @@ public final class Cache {
         return recompile(files, DEFAULT_OPTIONS);
     }
 
+    /**
+     * Re-compiles the specified list of files, and then re-checks all of the other files which depend on any of the
+     * symbols that were added, removed or had their signature changed by the compilation.
+     *
+     * @param files   the list of files that we want to recompile.
+     * @param options the options of the compilation.
+     * @return the result object of the compile call.
+     */
+    @SneakyThrows
+    private CompileResult recompile(List<Pair<Path, byte[]>> files, CompileOptions options) {
+        var dependents = new HashSet<String>();
+        var result = recompile(files, options, dependents);
+        if (!dependents.isEmpty()) {
+            log.info("Re-checking {} dependent files", dependents.size());
+            // the dependent files did not change themselves, so their own definitions remain the same, and there is
+            // no need to propagate any further than the direct dependents.
+            recompile(readUnits(dependents), DEFAULT_OPTIONS, new HashSet<>());
+        }
+        return result;
+    }
+
     /**
      * Re-compiles the specified list of files.
      *
-     * @param files the list of files that we want to recompile.
+     * @param files      the list of files that we want to recompile.
+     * @param options    the options of the compilation.
+     * @param dependents the set to collect the paths of the other files which have to be re-checked in.
      * @return the result object of the compile call.
      */
     @SneakyThrows
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private CompileResult recompile(List<Pair<Path, byte[]>> files, CompileOptions options) {
+    private CompileResult recompile(List<Pair<Path, byte[]>> files, CompileOptions options, Set<String> dependents) {
         var sourceDirectory = project.getBuildPath().getSourceDirectory();
         var inputs = new HashMap<ProjectCompiler<?, ?>, Input>();
         var result = new CompileResult();
+        var definitions = new HashMap<Dependency, Object>();
+        var recompiled = new ArrayList<CacheUnit<?>>(files.size());
         for (var pair : files) {
             var normalPath = pair.getKey();
             var normalizedPath = PathEx.normalizeRelative(sourceDirectory, normalPath);
@@ -212,9 +265,11 @@ public final class Cache {
             if (unit == null) {
                 unit = createCacheUnit(normalPath);
             } else {
+                definitions.putAll(unit.getDefinitions());
                 unit.undefineSymbols(project.getSymbolTable());
                 unit.clear();
             }
+            recompiled.add(unit);
             input.addSourceFile(SourceFile.of(normalPath, content));
         }
         if (!inputs.isEmpty()) {
@@ -239,6 +294,7 @@ public final class Cache {
                         unit.getErrors().add(new CachedError(error.getRange(), 1, error.getMessage()));
                     }
                     unit.defineSymbols(project.getSymbolTable());
+                    dependencyGraph.update(unit.getNameWithPath(), unit.getDependencies());
                     project.updateErrors(unit);
                     dirty = true;
                 }
@@ -247,9 +303,32 @@ public final class Cache {
                 markCacheDirty();
             }
         }
+        dependents.addAll(collectDependents(dependencyGraph, definitions, recompiled));
         return result;
     }
 
+    /**
+     * Collects the paths of all the cache units which have to be re-checked after the specified cache units were
+     * recompiled. Only the cache units which depend on a symbol that was added, removed or had its signature changed by
+     * the recompilation are collected, the recompiled cache units themselves are never collected.
+     *
+     * @param dependencyGraph the dependency graph which is already updated with the recompiled cache units.
+     * @param previous        the definitions of the recompiled cache units before they were recompiled.
+     * @param recompiled      the cache units that were recompiled.
+     * @return a set of the paths of the cache units to re-check.
+     */
+    static Set<String> collectDependents(DependencyGraph<String, Dependency> dependencyGraph, Map<Dependency, Object> previous, Collection<CacheUnit<?>> recompiled) {
+        var current = new HashMap<Dependency, Object>();
+        for (var unit : recompiled) {
+            current.putAll(unit.getDefinitions());
+        }
+        var dependents = dependencyGraph.findAffected(previous, current);
+        for (var unit : recompiled) {
+            dependents.remove(unit.getNameWithPath());
+        }
+        return dependents;
+    }
+
     /**
      * Attempts to pack all of the files that needs packing in the project.
      *
@@ -276,13 +355,8 @@ public final class Cache {
                 throw new IllegalArgumentException();
             }
         });
-        var units = this.units.values().stream().filter(unit -> forceAll || unit.getCrc() != unit.getPackCrc()).collect(Collectors.toList());
-        var files = new ArrayList<Pair<Path, byte[]>>();
-        for (var unit : units) {
-            var path = project.getBuildPath().getSourceDirectory().resolve(unit.getNameWithPath());
-            files.add(Pair.of(path, Files.readAllBytes(path)));
-        }
-        recompile(files, options);
+        var paths = this.units.values().stream().filter(unit -> forceAll || unit.getCrc() != unit.getPackCrc()).map(CacheUnit::getNameWithPath).collect(Collectors.toList());
+        recompile(readUnits(paths), options);
         for (var configUnit : configUnits) {
             var type = configUnit.getBinding().getGroup().getType();
             var name = configUnit.getBinaryConfig().getName();
@@ -300,6 +374,22 @@ public final class Cache {
         return true;
     }
 
+    /**
+     * Reads the content of the files of the cache units with the specified paths from the local disk.
+     *
+     * @param paths the paths of the cache units relative to the source directory.
+     * @return a list of the files paths and their content.
+     * @throws IOException if anything occurs while reading the files from the local disk.
+     */
+    private List<Pair<Path, byte[]>> readUnits(Collection<String> paths) throws IOException {
+        var files = new ArrayList<Pair<Path, byte[]>>(paths.size());
+        for (var unitPath : paths) {
+            var path = project.getBuildPath().getSourceDirectory().resolve(unitPath);
+            files.add(Pair.of(path, Files.readAllBytes(path)));
+        }
+        return files;
+    }
+
     /**
      * Creates a new {@link CacheUnit} object for the specified {@link Path relative path}.
      *
@@ -13,6 +13,8 @@ import lombok.var;
 import me.waliedyassen.runescript.commons.document.Range;
 import me.waliedyassen.runescript.compiler.CompiledFile;
 import me.waliedyassen.runescript.compiler.CompiledUnit;
+import me.waliedyassen.runescript.compiler.dependency.Dependency;
+import me.waliedyassen.runescript.compiler.dependency.DependencyKind;
 import me.waliedyassen.runescript.compiler.symbol.ScriptSymbolTable;
 import me.waliedyassen.runescript.editor.project.cache.CachedError;
 
@@ -20,7 +22,10 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A single unit that can be stored in the
@@ -36,6 +41,12 @@ public abstract class CacheUnit<U extends CompiledUnit<?>> {
     @Getter
     private final List<CachedError> errors = new ArrayList<>();
 
+    /**
+     * A set of all the symbols that this cache unit depends on.
+     */
+    @Getter
+    private final Set<Dependency> dependencies = new HashSet<>();
+
     /**
      * The path that leads to this cache unit (relative to the project directory).
      */
@@ -111,6 +122,16 @@ public abstract class CacheUnit<U extends CompiledUnit<?>> {
      */
     public abstract void defineSymbols(ScriptSymbolTable symbolTable);
 
+    /**
+     * Returns all of the symbols that are defined by this cache unit in the form of {@link Dependency} objects, so
+     * they can be matched against the dependencies of the other cache units. Each symbol is associated with its
+     * signature, the other cache units only need to be re-checked when the signature of a symbol they depend on
+     * changes, the signatures are compared using {@link Object#equals(Object)}.
+     *
+     * @return a map of the defined symbols and their signatures.
+     */
+    public abstract Map<Dependency, Object> getDefinitions();
+
     /**
      * Un-defines all of the symbols of this cache unit from the specified {@link ScriptSymbolTable table}.
      *
@@ -136,6 +157,11 @@ public abstract class CacheUnit<U extends CompiledUnit<?>> {
             stream.writeInt(error.getLine());
             stream.writeUTF(error.getMessage());
         }
+        stream.writeInt(dependencies.size());
+        for (var dependency : dependencies) {
+            stream.writeByte(dependency.getKind().getId());
+            stream.writeUTF(dependency.getName());
+        }
         writeImpl(stream);
     }
 
@@ -153,6 +179,10 @@ public abstract class CacheUnit<U extends CompiledUnit<?>> {
         for (var index = 0; index < errorsCount; index++) {
             errors.add(new CachedError(new Range(stream.readInt(), stream.readInt()), stream.readInt(), stream.readUTF()));
         }
+        var dependenciesCount = stream.readInt();
+        for (var index = 0; index < dependenciesCount; index++) {
+            dependencies.add(new Dependency(DependencyKind.forId(stream.readUnsignedByte()), stream.readUTF()));
+        }
         readImpl(stream);
     }
 
@@ -161,6 +191,7 @@ public abstract class CacheUnit<U extends CompiledUnit<?>> {
      */
     public void clear() {
         errors.clear();
+        dependencies.clear();
         clearImpl();
     }
 
@@ -12,6 +12,8 @@ import lombok.var;
 import me.waliedyassen.runescript.compiler.CompiledFile;
 import me.waliedyassen.runescript.compiler.Input;
 import me.waliedyassen.runescript.compiler.Output;
+import me.waliedyassen.runescript.compiler.dependency.Dependency;
+import me.waliedyassen.runescript.compiler.dependency.DependencyKind;
 import me.waliedyassen.runescript.compiler.symbol.ScriptSymbolTable;
 import me.waliedyassen.runescript.compiler.symbol.impl.ConfigInfo;
 import me.waliedyassen.runescript.config.compiler.CompiledConfigUnit;
@@ -25,7 +27,10 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A {@link ProjectCompiler} implementation that is responsible for compiling any type of configuration.
@@ -99,6 +104,18 @@ public final class ProjectConfigCompiler implements ProjectCompiler<ConfigSyntax
             }
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Map<Dependency, Object> getDefinitions() {
+            var definitions = new HashMap<Dependency, Object>();
+            for (var config : configs) {
+                definitions.put(new Dependency(DependencyKind.CONFIG, config.getName()), Arrays.asList(config.getType(), config.getContentType()));
+            }
+            return definitions;
+        }
+
         /**
          * {@inheritDoc}
          */
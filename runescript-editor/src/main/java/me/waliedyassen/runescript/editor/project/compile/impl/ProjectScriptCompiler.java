@@ -10,6 +10,8 @@ package me.waliedyassen.runescript.editor.project.compile.impl;
 import lombok.Getter;
 import lombok.var;
 import me.waliedyassen.runescript.compiler.*;
+import me.waliedyassen.runescript.compiler.dependency.Dependency;
+import me.waliedyassen.runescript.compiler.dependency.DependencyKind;
 import me.waliedyassen.runescript.compiler.symbol.ScriptSymbolTable;
 import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
 import me.waliedyassen.runescript.compiler.syntax.ParameterSyntax;
@@ -27,7 +29,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A {@link ProjectCompiler} implementation that is responsible for compiling either a client script
@@ -103,6 +107,20 @@ public final class ProjectScriptCompiler implements ProjectCompiler<ScriptSyntax
             }
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Map<Dependency, Object> getDefinitions() {
+            var definitions = new HashMap<Dependency, Object>();
+            for (var script : scripts) {
+                // The trigger and the name are already a part of the dependency.
+                var signature = Arrays.asList(script.getType(), Arrays.asList(script.getArguments()));
+                definitions.put(new Dependency(DependencyKind.SCRIPT, script.getFullName()), signature);
+            }
+            return definitions;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -129,6 +147,7 @@ public final class ProjectScriptCompiler implements ProjectCompiler<ScriptSyntax
                         Arrays.stream(scriptNode.getParameters()).map(ParameterSyntax::getType).toArray(Type[]::new),
                         null);
                 scripts.add(info);
+                getDependencies().addAll(compiledUnit.getDependencies());
             }
         }
 
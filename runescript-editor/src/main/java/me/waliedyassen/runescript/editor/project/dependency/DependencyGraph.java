@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.editor.project.dependency;
+
+import lombok.var;
+
+import java.util.*;
+
+/**
+ * A reverse dependency index which maps each symbol to the set of owners which depend on it.
+ * <p>
+ * Unlike the {@link DependencyTree}, the graph does not evaluate any order and therefore tolerates cycles, which are
+ * common between scripts, e.g. two procedures that call each other.
+ *
+ * @param <O> the type of the owners of the dependencies.
+ * @param <S> the type of the symbols that are depended on.
+ * @author Walied K. Yassen
+ */
+public final class DependencyGraph<O, S> {
+
+    /**
+     * A map of all the owners which depend on a symbol, associated by the symbol.
+     */
+    private final Map<S, Set<O>> dependents = new HashMap<>();
+
+    /**
+     * A map of all the symbols an owner depends on, associated by the owner.
+     */
+    private final Map<O, Set<S>> dependencies = new HashMap<>();
+
+    /**
+     * Replaces all of the dependencies of the specified {@code owner} with the specified {@code symbols}.
+     *
+     * @param owner   the owner of the dependencies.
+     * @param symbols the symbols which the owner depends on.
+     */
+    public void update(O owner, Collection<S> symbols) {
+        remove(owner);
+        if (symbols.isEmpty()) {
+            return;
+        }
+        dependencies.put(owner, new HashSet<>(symbols));
+        for (var symbol : symbols) {
+            dependents.computeIfAbsent(symbol, dummy -> new HashSet<>()).add(owner);
+        }
+    }
+
+    /**
+     * Removes all of the dependencies of the specified {@code owner}.
+     *
+     * @param owner the owner to remove the dependencies for.
+     */
+    public void remove(O owner) {
+        var symbols = dependencies.remove(owner);
+        if (symbols == null) {
+            return;
+        }
+        for (var symbol : symbols) {
+            var owners = dependents.get(symbol);
+            owners.remove(owner);
+            if (owners.isEmpty()) {
+                dependents.remove(symbol);
+            }
+        }
+    }
+
+    /**
+     * Collects all of the owners which directly depend on any of the specified {@code symbols}.
+     *
+     * @param symbols the symbols to collect the dependent owners for.
+     * @return a set of the dependent owners.
+     */
+    public Set<O> findDependents(Collection<S> symbols) {
+        var owners = new HashSet<O>();
+        for (var symbol : symbols) {
+            var dependent = dependents.get(symbol);
+            if (dependent != null) {
+                owners.addAll(dependent);
+            }
+        }
+        return owners;
+    }
+
+    /**
+     * Collects all of the owners which directly depend on any of the symbols whose signature differs between the
+     * specified {@code previous} and {@code current} definitions. A symbol which is only present in one of the
+     * definitions was either added or removed, and is considered changed as well.
+     *
+     * @param previous the previous definitions, associated with their signatures.
+     * @param current  the current definitions, associated with their signatures.
+     * @return a set of the affected owners.
+     */
+    public Set<O> findAffected(Map<S, ?> previous, Map<S, ?> current) {
+        var changed = new HashSet<S>();
+        for (var entry : previous.entrySet()) {
+            var symbol = entry.getKey();
+            if (!current.containsKey(symbol) || !Objects.equals(entry.getValue(), current.get(symbol))) {
+                changed.add(symbol);
+            }
+        }
+        for (var symbol : current.keySet()) {
+            if (!previous.containsKey(symbol)) {
+                changed.add(symbol);
+            }
+        }
+        return findDependents(changed);
+    }
+
+    /**
+     * Removes all of the owners and symbols from the graph.
+     */
+    public void clear() {
+        dependents.clear();
+        dependencies.clear();
+    }
+}
@@ -105,9 +105,9 @@ public final class CodeEditor extends FileEditor {
     static {
         // TODO: This vary from project to another, it should not be static
         var symbolTable = Api.getApi().getScriptCompiler().getSymbolTable();
-        TokenMakerFactoryImpl.register(SYNTAX_STYLE_RUNESCRIPT, () -> new CodeTokenMaker(ScriptCompiler.createLexicalTable(), symbolTable, false));
+        TokenMakerFactoryImpl.register(SYNTAX_STYLE_RUNESCRIPT, () -> new CodeTokenMaker(ScriptCompiler.getSharedLexicalTable(), symbolTable, false));
         FoldParserManager.get().addFoldParserMapping(SYNTAX_STYLE_RUNESCRIPT, new CodeFolder(false));
-        TokenMakerFactoryImpl.register(SYNTAX_STYLE_RUNECONFIG, () -> new CodeTokenMaker(ConfigCompiler.createLexicalTable(), symbolTable, true));
+        TokenMakerFactoryImpl.register(SYNTAX_STYLE_RUNECONFIG, () -> new CodeTokenMaker(ConfigCompiler.getSharedLexicalTable(), symbolTable, true));
         FoldParserManager.get().addFoldParserMapping(SYNTAX_STYLE_RUNECONFIG, new CodeFolder(true));
     }
 }
@@ -109,16 +109,7 @@ public final class CodeTokenMaker extends AbstractTokenMaker {
                         addToken(text, pos, pos, SEPARATOR);
                     } else {
                         if (lexicalTable.isOperatorStart(ch)) {
-                            var size = 1;
-                            while (pos + size < end) {
-                                var opText = new String(chs, pos, size + 1);
-                                if (lexicalTable.isOperator(opText)) {
-                                    size++;
-                                } else {
-                                    break;
-                                }
-                            }
-                            size--;
+                            var size = Math.max(lexicalTable.matchOperator(chs, pos, end), 1) - 1;
                             addToken(text, pos, pos + size, OPERATOR);
                             pos += size;
                         } else {
@@ -199,7 +190,7 @@ public final class CodeTokenMaker extends AbstractTokenMaker {
                         if (!configuration && ((ScriptSymbolTable) symbolTable).lookupCommand(identifierText) != null) {
                             changeTokenType(COMMAND);
                         } else {
-                            var keywordKind = lexicalTable.getKeywords().get(identifierText);
+                            var keywordKind = lexicalTable.lookupKeyword(chs, currentToken.start, identifierText.length());
                             if (keywordKind != null) {
                                 if (keywordKind == Kind.TYPE || keywordKind == Kind.DEFINE) {
                                     changeTokenType(TYPE_NAME);
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.editor.project.cache;
+
+import lombok.var;
+import me.waliedyassen.runescript.compiler.Input;
+import me.waliedyassen.runescript.compiler.ScriptCompiler;
+import me.waliedyassen.runescript.compiler.SourceFile;
+import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.dependency.Dependency;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.idmapping.IDManager;
+import me.waliedyassen.runescript.compiler.lexer.token.Kind;
+import me.waliedyassen.runescript.compiler.symbol.ScriptSymbolTable;
+import me.waliedyassen.runescript.compiler.util.trigger.BasicTriggerType;
+import me.waliedyassen.runescript.editor.project.cache.unit.CacheUnit;
+import me.waliedyassen.runescript.editor.project.compile.ProjectCompiler;
+import me.waliedyassen.runescript.editor.project.compile.impl.ProjectScriptCompiler;
+import me.waliedyassen.runescript.editor.project.dependency.DependencyGraph;
+import me.waliedyassen.runescript.type.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheTest {
+
+    ScriptSymbolTable symbolTable;
+    ProjectCompiler<?, ?> compiler;
+    DependencyGraph<String, Dependency> dependencyGraph;
+    Map<String, CacheUnit<?>> units;
+
+    @BeforeEach
+    void setupCompiler() {
+        var environment = new CompilerEnvironment();
+        var hook = new BasicTriggerType("clientscript", null, null, true, null, false, null);
+        environment.registerTrigger(hook);
+        environment.setHookTriggerType(hook);
+        environment.registerTrigger(new BasicTriggerType("proc", Kind.TILDE, CoreOpcode.GOSUB_WITH_PARAMS, true, null, true, null));
+        var instructionMap = new InstructionMap();
+        for (var opcode : CoreOpcode.values()) {
+            instructionMap.registerCore(opcode, opcode.ordinal(), opcode.isLargeOperand());
+        }
+        symbolTable = new ScriptSymbolTable(true);
+        compiler = new ProjectScriptCompiler(ScriptCompiler.builder()
+                .withEnvironment(environment)
+                .withInstructionMap(instructionMap)
+                .withSymbolTable(symbolTable)
+                .withIdProvider(new UnusedIdManager())
+                .withForkJoinPool(null)
+                .build());
+        dependencyGraph = new DependencyGraph<>();
+        units = new HashMap<>();
+        assertTrue(recompile("a", "[proc,a](int $value)(int) return(calc($value + 1));").isEmpty());
+        assertTrue(recompile("b", "[proc,b](int $value)(int) return(~a($value));").isEmpty());
+        assertTrue(recompile("c", "[proc,c](int $value)(int) return(~b($value));").isEmpty());
+    }
+
+    @Test
+    void testBodyChange() {
+        assertTrue(recompile("a", "[proc,a](int $value)(int) return(calc($value + 2));").isEmpty());
+        // Renaming a parameter does not change the signature either.
+        assertTrue(recompile("a", "[proc,a](int $other)(int) return($other);").isEmpty());
+    }
+
+    @Test
+    void testSignatureChange() {
+        // Only the direct dependents are re-checked, "c" depends on "b" which did not change.
+        assertEquals(set("b"), recompile("a", "[proc,a](int $value, int $other)(int) return($value);"));
+        assertEquals(set("b"), recompile("a", "[proc,a](int $value, int $other)(string) return(\"value\");"));
+        assertEquals(set("b"), recompile("a", "[proc,a](string $value)(int) return(0);"));
+    }
+
+    @Test
+    void testAddAndRemove() {
+        assertEquals(set("b"), recompile("a", "[proc,other](int $value)(int) return($value);"));
+        assertEquals(set("b"), recompile("a", "[proc,a](int $value)(int) return($value); [proc,other](int $value)(int) return($value);"));
+        // Adding a script which nothing depends on does not re-check anything.
+        assertTrue(recompile("d", "[proc,d] return;").isEmpty());
+    }
+
+    @Test
+    void testUnresolved() {
+        // "d" references a missing script, it has to be re-checked once the script is defined.
+        recompile("d", "[proc,d](int $value)(int) return(~missing($value));");
+        assertFalse(units.get("d").getErrors().isEmpty());
+        assertEquals(set("d"), recompile("e", "[proc,missing](int $value)(int) return($value);"));
+    }
+
+    @Test
+    void testCycle() {
+        // "a" now calls "c", which calls "b", which calls "a" again.
+        assertTrue(recompile("a", "[proc,a](int $value)(int) return(~c($value));").isEmpty());
+        assertTrue(recompile("c", "[proc,c](int $value)(int) return(calc(~b($value) + 1));").isEmpty());
+        assertEquals(set("a"), recompile("c", "[proc,c](int $value) ~b($value);"));
+        // Re-checking "a" reports the call that no longer returns a value, without propagating any further.
+        assertTrue(recompile("a", "[proc,a](int $value)(int) return(~c($value));").isEmpty());
+        assertFalse(units.get("a").getErrors().isEmpty());
+    }
+
+    @Test
+    void testSerializedDefinitions() throws IOException {
+        var unit = units.get("a");
+        var bytes = new ByteArrayOutputStream();
+        try (var stream = new DataOutputStream(bytes)) {
+            unit.write(stream);
+        }
+        try (var stream = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            var read = compiler.createUnit(stream.readUTF(), null);
+            read.read(stream);
+            assertEquals(unit.getDefinitions(), read.getDefinitions());
+            assertEquals(unit.getDependencies(), read.getDependencies());
+        }
+    }
+
+    /**
+     * Recompiles the file with the specified {@code name} the same way the {@link Cache} does, and returns the names of
+     * the other files which have to be re-checked.
+     */
+    Set<String> recompile(String name, String source) {
+        var unit = units.computeIfAbsent(name, key -> compiler.createUnit(key, key + ".rs2"));
+        var previous = unit.getDefinitions();
+        unit.undefineSymbols(symbolTable);
+        unit.clear();
+        var input = new Input();
+        input.addSourceFile(new SourceFile("", name, "rs2", source.getBytes(StandardCharsets.UTF_8)));
+        try {
+            for (var compiledFile : compiler.compile(input).getCompiledFiles()) {
+                ((CacheUnit) unit).update(compiledFile);
+                for (var error : compiledFile.getErrors()) {
+                    unit.getErrors().add(new CachedError(error.getRange(), 1, error.getMessage()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        unit.defineSymbols(symbolTable);
+        dependencyGraph.update(unit.getNameWithPath(), unit.getDependencies());
+        return Cache.collectDependents(dependencyGraph, previous, Collections.singletonList(unit));
+    }
+
+    static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    /**
+     * An {@link IDManager} for compilations which never run the id generation.
+     */
+    static final class UnusedIdManager implements IDManager {
+
+        @Override
+        public int findOrCreateScript(String name, String extension) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int findOrCreateConfig(Type type, String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int findScript(String name, String extension) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int findConfig(Type type, String name) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
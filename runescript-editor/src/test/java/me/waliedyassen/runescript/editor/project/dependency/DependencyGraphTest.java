@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.editor.project.dependency;
+
+import lombok.var;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+
+    DependencyGraph<String, String> graph;
+
+    @BeforeEach
+    void setupGraph() {
+        graph = new DependencyGraph<>();
+        graph.update("first", Arrays.asList("a", "b"));
+        graph.update("second", Collections.singletonList("b"));
+        graph.update("third", Collections.singletonList("c"));
+    }
+
+    @Test
+    void testFindDependents() {
+        assertEquals(set("first"), graph.findDependents(Collections.singletonList("a")));
+        assertEquals(set("first", "second"), graph.findDependents(Collections.singletonList("b")));
+        assertEquals(set("first", "second", "third"), graph.findDependents(Arrays.asList("a", "b", "c")));
+        assertTrue(graph.findDependents(Collections.singletonList("d")).isEmpty());
+    }
+
+    @Test
+    void testUpdate() {
+        graph.update("first", Collections.singletonList("c"));
+        assertTrue(graph.findDependents(Collections.singletonList("a")).isEmpty());
+        assertEquals(set("second"), graph.findDependents(Collections.singletonList("b")));
+        assertEquals(set("first", "third"), graph.findDependents(Collections.singletonList("c")));
+        graph.update("first", Collections.emptyList());
+        assertEquals(set("third"), graph.findDependents(Collections.singletonList("c")));
+    }
+
+    @Test
+    void testRemove() {
+        graph.remove("second");
+        assertEquals(set("first"), graph.findDependents(Collections.singletonList("b")));
+        graph.remove("second");
+        graph.clear();
+        assertTrue(graph.findDependents(Arrays.asList("a", "b", "c")).isEmpty());
+    }
+
+    @Test
+    void testCycle() {
+        // The owners are symbols themselves here, like two procedures that call each other.
+        graph.update("a", Collections.singletonList("b"));
+        graph.update("b", Collections.singletonList("a"));
+        assertEquals(set("first", "b"), graph.findDependents(Collections.singletonList("a")));
+        assertEquals(set("first", "second", "a"), graph.findDependents(Collections.singletonList("b")));
+    }
+
+    @Test
+    void testFindAffected() {
+        var previous = map("a", 1, "b", 2);
+        // Nothing changed, nothing is affected.
+        assertTrue(graph.findAffected(previous, map("a", 1, "b", 2)).isEmpty());
+        // Only the signature of "b" changed.
+        assertEquals(set("first", "second"), graph.findAffected(previous, map("a", 1, "b", 3)));
+        // "a" was removed.
+        assertEquals(set("first"), graph.findAffected(previous, map("b", 2)));
+        // "c" was added.
+        assertEquals(set("third"), graph.findAffected(previous, map("a", 1, "b", 2, "c", 4)));
+        // A symbol without a signature is still compared.
+        assertEquals(set("third"), graph.findAffected(map("c", null), map("c", 1)));
+        assertTrue(graph.findAffected(map("c", null), map("c", null)).isEmpty());
+    }
+
+    static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    static Map<String, Object> map(Object... entries) {
+        var map = new HashMap<String, Object>();
+        for (var index = 0; index < entries.length; index += 2) {
+            map.put((String) entries[index], entries[index + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime;
+
+import lombok.Getter;
+import lombok.var;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a size-classed pool of int, string and long array storage which is shared between all of the {@link
+ * ScriptRuntime} objects. The storage is handed out in power of two size classes starting from {@link #MIN_CAPACITY}
+ * up to {@link ScriptRuntime#MAX_ARRAY_ELEMENTS}, each size class keeps at most {@link #MAX_POOLED} free arrays per
+ * element type.
+ * <p>
+ * A runtime only takes storage from the pool when a script defines an array, and it gives it back when it is reset,
+ * which the {@link ScriptRuntimePool} does whenever the runtime is pushed back into it.
+ * The per-runtime footprint went from 5 * 5000 * 4 = 100,000 bytes of eagerly allocated storage down to the arrays
+ * that are actually in use, e.g. a runtime which defines a single 10 element array now holds 32 * 4 = 128 bytes
+ * while it is running and nothing at all while it is in the {@link ScriptRuntimePool}.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ScriptArrayPool {
+
+    /**
+     * The capacity of the smallest size class.
+     */
+    public static final int MIN_CAPACITY = 32;
+
+    /**
+     * The maximum amount of free arrays we keep per size class.
+     */
+    public static final int MAX_POOLED = 256;
+
+    /**
+     * The shared array pool instance.
+     */
+    @Getter
+    private static final ScriptArrayPool shared = new ScriptArrayPool();
+
+    /**
+     * The free int arrays of each size class.
+     */
+    private final SizeClass[] intClasses = createClasses();
+
+    /**
+     * The free string arrays of each size class.
+     */
+    private final SizeClass[] stringClasses = createClasses();
+
+    /**
+     * The free long arrays of each size class.
+     */
+    private final SizeClass[] longClasses = createClasses();
+
+    /**
+     * Constructs a new {@link ScriptArrayPool} type object instance. The runtimes always use the {@link #getShared()
+     * shared} instance.
+     */
+    ScriptArrayPool() {
+        // NOOP
+    }
+
+    /**
+     * Acquires an int array which can hold at least the specified amount of elements, the content of the array is
+     * unspecified.
+     *
+     * @param size the amount of elements the array must be able to hold.
+     * @return the int array.
+     */
+    public int[] acquireInt(int size) {
+        var sizeClass = intClasses[classOf(size)];
+        var array = (int[]) poll(sizeClass);
+        return array != null ? array : new int[sizeClass.capacity];
+    }
+
+    /**
+     * Releases the specified int array back into the pool, if the size class of the array is full, the array is left
+     * for the garbage collector.
+     *
+     * @param array the int array to release.
+     */
+    public void releaseInt(int[] array) {
+        release(intClasses[classOf(array.length)], array);
+    }
+
+    /**
+     * Acquires a string array which can hold at least the specified amount of elements, the content of the array is
+     * unspecified.
+     *
+     * @param size the amount of elements the array must be able to hold.
+     * @return the string array.
+     */
+    public String[] acquireString(int size) {
+        var sizeClass = stringClasses[classOf(size)];
+        var array = (String[]) poll(sizeClass);
+        return array != null ? array : new String[sizeClass.capacity];
+    }
+
+    /**
+     * Releases the specified string array back into the pool, the array is cleared so it does not keep any of its
+     * strings alive while it is in the pool.
+     *
+     * @param array the string array to release.
+     */
+    public void releaseString(String[] array) {
+        Arrays.fill(array, null);
+        release(stringClasses[classOf(array.length)], array);
+    }
+
+    /**
+     * Acquires a long array which can hold at least the specified amount of elements, the content of the array is
+     * unspecified.
+     *
+     * @param size the amount of elements the array must be able to hold.
+     * @return the long array.
+     */
+    public long[] acquireLong(int size) {
+        var sizeClass = longClasses[classOf(size)];
+        var array = (long[]) poll(sizeClass);
+        return array != null ? array : new long[sizeClass.capacity];
+    }
+
+    /**
+     * Releases the specified long array back into the pool, if the size class of the array is full, the array is left
+     * for the garbage collector.
+     *
+     * @param array the long array to release.
+     */
+    public void releaseLong(long[] array) {
+        release(longClasses[classOf(array.length)], array);
+    }
+
+    /**
+     * Polls a free array from the specified {@link SizeClass}.
+     *
+     * @param sizeClass the size class to poll the array from.
+     * @return the free array or {@code null} if the size class had no free arrays.
+     */
+    private static Object poll(SizeClass sizeClass) {
+        var array = sizeClass.free.poll();
+        if (array != null) {
+            sizeClass.size.decrementAndGet();
+        }
+        return array;
+    }
+
+    /**
+     * Releases the specified array into the specified {@link SizeClass}.
+     *
+     * @param sizeClass the size class to release the array into.
+     * @param array     the array to release.
+     */
+    private static void release(SizeClass sizeClass, Object array) {
+        if (sizeClass.size.incrementAndGet() > MAX_POOLED) {
+            sizeClass.size.decrementAndGet();
+            return;
+        }
+        sizeClass.free.offer(array);
+    }
+
+    /**
+     * Creates the size classes for a single element type.
+     *
+     * @return the created size classes.
+     */
+    private static SizeClass[] createClasses() {
+        var count = classOf(ScriptRuntime.MAX_ARRAY_ELEMENTS) + 1;
+        var classes = new SizeClass[count];
+        for (var index = 0; index < count; index++) {
+            classes[index] = new SizeClass(Math.min(MIN_CAPACITY << index, ScriptRuntime.MAX_ARRAY_ELEMENTS));
+        }
+        return classes;
+    }
+
+    /**
+     * Returns the size class index for the specified amount of elements.
+     *
+     * @param size the amount of elements.
+     * @return the size class index.
+     */
+    private static int classOf(int size) {
+        if (size <= MIN_CAPACITY) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - Integer.numberOfTrailingZeros(MIN_CAPACITY);
+    }
+
+    /**
+     * A single size class of the pool.
+     *
+     * @author Walied K. Yassen
+     */
+    private static final class SizeClass {
+
+        /**
+         * The free arrays of the size class.
+         */
+        private final ConcurrentLinkedQueue<Object> free = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The amount of free arrays in the size class.
+         */
+        private final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * The capacity of each array in the size class.
+         */
+        private final int capacity;
+
+        /**
+         * Constructs a new {@link SizeClass} type object instance.
+         *
+         * @param capacity the capacity of each array in the size class.
+         */
+        private SizeClass(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+}
@@ -9,11 +9,8 @@
 package me.waliedyassen.runescript.runtime;
 
 import lombok.Getter;
-import me.waliedyassen.runescript.runtime.ScriptRuntime;
 import me.waliedyassen.runescript.runtime.script.Script;
 
-import java.util.Arrays;
-
 /**
  * @author Walied K. Yassen
  */
@@ -33,22 +30,22 @@ public final class ScriptFrame {
     private int address;
 
     /**
-     * The integer local fields of the script frame.
+     * The index of the first int local of the script frame within the runtime locals.
      */
     @Getter
-    private final int[] intLocals = new int[ScriptRuntime.MAX_LOCALS];
+    private int intLocalsBase;
 
     /**
-     * The string local fields of the script frame.
+     * The index of the first string local of the script frame within the runtime locals.
      */
     @Getter
-    private final String[] stringLocals = new String[ScriptRuntime.MAX_LOCALS];
+    private int stringLocalsBase;
 
     /**
-     * The long local fields of the script frame.
+     * The index of the first long local of the script frame within the runtime locals.
      */
     @Getter
-    private final long[] longLocals = new long[ScriptRuntime.MAX_LOCALS];
+    private int longLocalsBase;
 
     /**
      * Sets the content of the script frame based on the specified {@link ScriptRuntime}.
@@ -56,10 +53,10 @@ public final class ScriptFrame {
      * @param runtime the runtime which we want to populate the data from.
      */
     public void set(ScriptRuntime runtime) {
-        System.arraycopy(runtime.getIntLocals(), 0, intLocals, 0, ScriptRuntime.MAX_LOCALS);
-        System.arraycopy(runtime.getStringLocals(), 0, stringLocals, 0, ScriptRuntime.MAX_LOCALS);
-        System.arraycopy(runtime.getLongLocals(), 0, longLocals, 0, ScriptRuntime.MAX_LOCALS);
         script = runtime.getScript();
         address = runtime.getAddress();
+        intLocalsBase = runtime.getIntLocalsBase();
+        stringLocalsBase = runtime.getStringLocalsBase();
+        longLocalsBase = runtime.getLongLocalsBase();
     }
 }
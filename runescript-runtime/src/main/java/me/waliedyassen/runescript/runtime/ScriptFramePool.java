@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime;
+
+import lombok.Getter;
+import lombok.var;
+
+import java.util.Arrays;
+
+/**
+ * Represents a bounded pool for {@link ScriptFrame} objects. Each {@link ScriptRuntime} owns its own pool, which means
+ * the pool is confined to whichever thread is currently executing the runtime and requires no synchronisation.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ScriptFramePool {
+
+    /**
+     * The objects that are ready to be used.
+     */
+    private final ScriptFrame[] frames;
+
+    /**
+     * The amount of objects that are currently in the pool.
+     */
+    @Getter
+    private int size;
+
+    /**
+     * The amount of times a {@link #pop()} was served from the pool.
+     */
+    @Getter
+    private long hits;
+
+    /**
+     * The amount of times a {@link #pop()} had to create a new object.
+     */
+    @Getter
+    private long misses;
+
+    /**
+     * Constructs a new {@link ScriptFramePool} type object instance.
+     *
+     * @param capacity the maximum amount of objects that can be pushed onto the pool.
+     */
+    public ScriptFramePool(int capacity) {
+        frames = new ScriptFrame[capacity];
+    }
+
+    /**
+     * Pushes the specified {@link ScriptFrame} object back into the pool, if the pool is full nothing will happen.
+     *
+     * @param frame the frame object to  push back into the pool.
+     */
+    public void push(ScriptFrame frame) {
+        if (size == frames.length) {
+            return;
+        }
+        frames[size++] = frame;
+    }
+
+    /**
+     * Pops a {@link ScriptFrame} object from the pool or create new one if the pool had no objects available.
+     *
+     * @return the {@link ScriptFrame} object.
+     */
+    public ScriptFrame pop() {
+        if (size == 0) {
+            misses++;
+            return new ScriptFrame();
+        }
+        hits++;
+        var frame = frames[--size];
+        frames[size] = null;
+        return frame;
+    }
+
+    /**
+     * Removes all of the objects that are currently in the pool.
+     */
+    public void clear() {
+        Arrays.fill(frames, 0, size, null);
+        size = 0;
+    }
+}
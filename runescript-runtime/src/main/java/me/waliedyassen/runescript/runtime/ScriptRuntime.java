@@ -10,8 +10,11 @@ package me.waliedyassen.runescript.runtime;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import lombok.var;
+import me.waliedyassen.runescript.runtime.executor.ExecutionException;
 import me.waliedyassen.runescript.runtime.script.Script;
 
+import java.util.Arrays;
 import java.util.Stack;
 
 /**
@@ -32,46 +35,105 @@ public abstract class ScriptRuntime implements AutoCloseable {
      */
     public static final int MAX_ARRAYS = 5;
 
+    /**
+     * The maximum amount of script frames we can have per runtime.
+     */
+    public static final int MAX_FRAMES = 100;
+
     /**
      * The maximum amount of elements we can have per array per runtime.
      */
     public static final int MAX_ARRAY_ELEMENTS = 5000;
 
+    /**
+     * The maximum amount of values we can have per operand stack per runtime.
+     */
+    public static final int MAX_STACK_SIZE = 1000;
+
+    /**
+     * The initial amount of values each operand stack can hold before it has to grow.
+     */
+    public static final int INITIAL_STACK_SIZE = 16;
+
+    /**
+     * The maximum capacity the reusable string builder of the runtime is allowed to keep between two uses.
+     */
+    public static final int MAX_STRING_BUILDER_CAPACITY = 1024;
+
     /**
      * The integer stack of the runtime.
      */
     @Getter
-    private final Stack<Integer> intStack = new Stack<>();
+    private int[] intStack = new int[INITIAL_STACK_SIZE];
 
     /**
      * The string stack of the runtime.
      */
     @Getter
-    private final Stack<String> stringStack = new Stack<>();
+    private String[] stringStack = new String[INITIAL_STACK_SIZE];
 
     /**
      * The long stack of the runtime.
      */
     @Getter
-    private final Stack<Long> longStack = new Stack<>();
+    private long[] longStack = new long[INITIAL_STACK_SIZE];
+
+    /**
+     * The amount of values that are currently on the integer stack.
+     */
+    @Getter
+    private int intStackSize;
+
+    /**
+     * The amount of values that are currently on the string stack.
+     */
+    @Getter
+    private int stringStackSize;
 
     /**
-     * An array holding of all the long int fields values.
+     * The amount of values that are currently on the long stack.
      */
     @Getter
-    private final int[] intLocals = new int[MAX_LOCALS];
+    private int longStackSize;
 
     /**
-     * An array holding of all the long string fields values.
+     * An array holding of all the int local fields values of every frame in the call stack, each frame owns a window
+     * that starts at {@link #intLocalsBase}.
      */
     @Getter
-    private final String[] stringLocals = new String[MAX_LOCALS];
+    private int[] intLocals = new int[MAX_LOCALS];
 
     /**
-     * An array holding of all the long local fields values.
+     * An array holding of all the string local fields values of every frame in the call stack, each frame owns a window
+     * that starts at {@link #stringLocalsBase}.
      */
     @Getter
-    private final long[] longLocals = new long[MAX_LOCALS];
+    private String[] stringLocals = new String[MAX_LOCALS];
+
+    /**
+     * An array holding of all the long local fields values of every frame in the call stack, each frame owns a window
+     * that starts at {@link #longLocalsBase}.
+     */
+    @Getter
+    private long[] longLocals = new long[MAX_LOCALS];
+
+    /**
+     * The index of the first int local of the current frame within {@link #intLocals}.
+     */
+    @Getter
+    private int intLocalsBase;
+
+    /**
+     * The index of the first string local of the current frame within {@link #stringLocals}.
+     */
+    @Getter
+    private int stringLocalsBase;
+
+    /**
+     * The index of the first long local of the current frame within {@link #longLocals}.
+     */
+    @Getter
+    private int longLocalsBase;
 
     /**
      * An array of all the array sizes in the runtime.
@@ -80,10 +142,22 @@ public abstract class ScriptRuntime implements AutoCloseable {
     private final int[] arraySize = new int[MAX_ARRAYS];
 
     /**
-     * An array of all the array elements in the runtime.
+     * An array of all the array elements in the runtime, each array is only allocated once it is defined.
+     */
+    @Getter
+    private final int[][] arrayElements = new int[MAX_ARRAYS][];
+
+    /**
+     * An array of all the string array elements in the runtime, each array is only allocated once it is defined.
      */
     @Getter
-    private final int[][] arrayElements = new int[MAX_ARRAYS][MAX_ARRAY_ELEMENTS];
+    private final String[][] stringArrayElements = new String[MAX_ARRAYS][];
+
+    /**
+     * An array of all the long array elements in the runtime, each array is only allocated once it is defined.
+     */
+    @Getter
+    private final long[][] longArrayElements = new long[MAX_ARRAYS][];
 
     /**
      * The execution call frame of the runtime.
@@ -91,6 +165,23 @@ public abstract class ScriptRuntime implements AutoCloseable {
     @Getter
     private final Stack<ScriptFrame> frames = new Stack<>();
 
+    /**
+     * The pool of {@link ScriptFrame} objects that are owned by this runtime.
+     */
+    @Getter
+    private final ScriptFramePool framePool = new ScriptFramePool(MAX_FRAMES);
+
+    /**
+     * The cache of the short strings that are built by this runtime.
+     */
+    @Getter
+    private final ScriptStringCache stringCache = new ScriptStringCache();
+
+    /**
+     * The string builder that is reused for every string built by this runtime.
+     */
+    private StringBuilder stringBuilder = new StringBuilder(MAX_STRING_BUILDER_CAPACITY);
+
     /**
      * The owner {@link ScriptRuntimePool} of this object.
      */
@@ -102,16 +193,21 @@ public abstract class ScriptRuntime implements AutoCloseable {
      * The script which we are currently executing.
      */
     @Getter
-    @Setter
     private Script script;
 
     /**
      * The current execution address.
      */
     @Getter
-    @Setter
     private int address;
 
+    /**
+     * Whether or not the current instruction has transferred the control of the execution, which is when the script,
+     * the execution address or the abort state were changed by the instruction.
+     */
+    @Getter
+    private boolean transfer;
+
     /**
      * Whether or not we should abort the execution after the current instruction.
      */
@@ -119,6 +215,32 @@ public abstract class ScriptRuntime implements AutoCloseable {
     @Setter
     private boolean abort;
 
+    /**
+     * Whether or not the execution was aborted because the instruction budget of the execution ran out.
+     */
+    @Getter
+    @Setter
+    private boolean preempted;
+
+    /**
+     * Whether or not the execution was suspended by the script, waiting to be resumed by a {@link
+     * me.waliedyassen.runescript.runtime.executor.ScriptScheduler}.
+     */
+    @Getter
+    private boolean suspended;
+
+    /**
+     * The reason the execution was suspended for, or {@code null} if the execution was suspended for a delay.
+     */
+    @Getter
+    private Object suspendReason;
+
+    /**
+     * The amount of ticks the execution was suspended for, only used when there is no {@link #suspendReason}.
+     */
+    @Getter
+    private int suspendDelay;
+
     /**
      * Sets the current execution frame of the runtime from the specified {@link ScriptFrame frame}.
      *
@@ -126,23 +248,406 @@ public abstract class ScriptRuntime implements AutoCloseable {
      *         the frame which we want to set the execution frame based on.
      */
     public void set(ScriptFrame frame) {
+        // Release the string locals of the frame we are leaving so they can be collected.
+        Arrays.fill(stringLocals, stringLocalsBase, stringLocalsBase + stringWindowSize(), null);
         script = frame.getScript();
         address = frame.getAddress();
-        System.arraycopy(frame.getIntLocals(), 0, intLocals, 0, MAX_LOCALS);
-        System.arraycopy(frame.getStringLocals(), 0, stringLocals, 0, MAX_LOCALS);
-        System.arraycopy(frame.getLongLocals(), 0, longLocals, 0, MAX_LOCALS);
+        transfer = true;
+        intLocalsBase = frame.getIntLocalsBase();
+        stringLocalsBase = frame.getStringLocalsBase();
+        longLocalsBase = frame.getLongLocalsBase();
+    }
+
+    /**
+     * Saves the current execution frame of the runtime and then opens a new locals window for the specified {@link
+     * Script callee} right after the locals of the current script.
+     *
+     * @param callee
+     *         the script which we are calling.
+     */
+    public void pushFrame(Script callee) {
+        var frame = framePool.pop();
+        frame.set(this);
+        frames.push(frame);
+        intLocalsBase += intWindowSize();
+        stringLocalsBase += stringWindowSize();
+        longLocalsBase += longWindowSize();
+        script = callee;
+        transfer = true;
+    }
+
+    /**
+     * Restores the last saved execution frame of the runtime.
+     */
+    public void popFrame() {
+        var frame = frames.pop();
+        set(frame);
+        framePool.push(frame);
+    }
+
+    /**
+     * Discards all of the saved execution frames of the runtime and moves the locals window back to the start, the
+     * string locals of all the discarded frames are released so they can be collected.
+     */
+    public void clearFrames() {
+        while (!frames.isEmpty()) {
+            framePool.push(frames.pop());
+        }
+        if (script != null) {
+            Arrays.fill(stringLocals, 0, Math.min(stringLocalsBase + stringWindowSize(), stringLocals.length), null);
+        }
+        intLocalsBase = 0;
+        stringLocalsBase = 0;
+        longLocalsBase = 0;
+    }
+
+    /**
+     * Pops the arguments of the current script from the operand stacks into the first locals of the current frame and
+     * clears the remaining locals that are declared by the script.
+     */
+    public void popArguments() {
+        ensureLocalsCapacity();
+        var numIntArguments = script.getNumIntArguments();
+        for (var index = numIntArguments - 1; index >= 0; index--) {
+            intLocals[intLocalsBase + index] = popInt();
+        }
+        if (numIntArguments < script.getNumIntLocals()) {
+            Arrays.fill(intLocals, intLocalsBase + numIntArguments, intLocalsBase + script.getNumIntLocals(), 0);
+        }
+        var numStringArguments = script.getNumStringArguments();
+        for (var index = numStringArguments - 1; index >= 0; index--) {
+            stringLocals[stringLocalsBase + index] = popString();
+        }
+        if (numStringArguments < script.getNumStringLocals()) {
+            Arrays.fill(stringLocals, stringLocalsBase + numStringArguments, stringLocalsBase + script.getNumStringLocals(), null);
+        }
+        var numLongArguments = script.getNumLongArguments();
+        for (var index = numLongArguments - 1; index >= 0; index--) {
+            longLocals[longLocalsBase + index] = popLong();
+        }
+        if (numLongArguments < script.getNumLongLocals()) {
+            Arrays.fill(longLocals, longLocalsBase + numLongArguments, longLocalsBase + script.getNumLongLocals(), 0);
+        }
+    }
+
+    /**
+     * Ensures that the locals storage of the runtime is large enough to hold the locals window of the current frame.
+     */
+    private void ensureLocalsCapacity() {
+        var intLimit = intLocalsBase + intWindowSize();
+        if (intLocals.length < intLimit) {
+            intLocals = Arrays.copyOf(intLocals, Math.max(intLimit, intLocals.length * 2));
+        }
+        var stringLimit = stringLocalsBase + stringWindowSize();
+        if (stringLocals.length < stringLimit) {
+            stringLocals = Arrays.copyOf(stringLocals, Math.max(stringLimit, stringLocals.length * 2));
+        }
+        var longLimit = longLocalsBase + longWindowSize();
+        if (longLocals.length < longLimit) {
+            longLocals = Arrays.copyOf(longLocals, Math.max(longLimit, longLocals.length * 2));
+        }
+    }
+
+    /**
+     * Returns the size of the int locals window of the current script, the window has to fit both the locals and the
+     * arguments of the script.
+     *
+     * @return the size of the int locals window.
+     */
+    private int intWindowSize() {
+        return Math.max(script.getNumIntLocals(), script.getNumIntArguments());
+    }
+
+    /**
+     * Returns the size of the string locals window of the current script, the window has to fit both the locals and the
+     * arguments of the script.
+     *
+     * @return the size of the string locals window.
+     */
+    private int stringWindowSize() {
+        return Math.max(script.getNumStringLocals(), script.getNumStringArguments());
+    }
+
+    /**
+     * Returns the size of the long locals window of the current script, the window has to fit both the locals and the
+     * arguments of the script.
+     *
+     * @return the size of the long locals window.
+     */
+    private int longWindowSize() {
+        return Math.max(script.getNumLongLocals(), script.getNumLongArguments());
+    }
+
+    /**
+     * Returns the value of the int local with the specified {@code index} in the current frame.
+     *
+     * @param index
+     *         the index of the local within the current frame.
+     *
+     * @return the value of the local.
+     */
+    public int getIntLocal(int index) {
+        return intLocals[intLocalsBase + index];
+    }
+
+    /**
+     * Sets the value of the int local with the specified {@code index} in the current frame.
+     *
+     * @param index
+     *         the index of the local within the current frame.
+     * @param value
+     *         the new value of the local.
+     */
+    public void setIntLocal(int index, int value) {
+        intLocals[intLocalsBase + index] = value;
+    }
+
+    /**
+     * Returns the value of the string local with the specified {@code index} in the current frame.
+     *
+     * @param index
+     *         the index of the local within the current frame.
+     *
+     * @return the value of the local.
+     */
+    public String getStringLocal(int index) {
+        return stringLocals[stringLocalsBase + index];
+    }
+
+    /**
+     * Sets the value of the string local with the specified {@code index} in the current frame.
+     *
+     * @param index
+     *         the index of the local within the current frame.
+     * @param value
+     *         the new value of the local.
+     */
+    public void setStringLocal(int index, String value) {
+        stringLocals[stringLocalsBase + index] = value;
+    }
+
+    /**
+     * Returns the value of the long local with the specified {@code index} in the current frame.
+     *
+     * @param index
+     *         the index of the local within the current frame.
+     *
+     * @return the value of the local.
+     */
+    public long getLongLocal(int index) {
+        return longLocals[longLocalsBase + index];
+    }
+
+    /**
+     * Sets the value of the long local with the specified {@code index} in the current frame.
+     *
+     * @param index
+     *         the index of the local within the current frame.
+     * @param value
+     *         the new value of the local.
+     */
+    public void setLongLocal(int index, long value) {
+        longLocals[longLocalsBase + index] = value;
     }
 
     /**
      * Resets the state of the runtime.
      */
     public void reset() {
-        intStack.clear();
-        stringStack.clear();
-        longStack.clear();
-        frames.clear();
+        recycle();
+        releaseArrays();
+    }
+
+    /**
+     * Resets the execution state of the runtime while keeping all of its storage, including the storage of the defined
+     * arrays, so the runtime can be reused right away for another execution.
+     */
+    public void recycle() {
+        clearStacks();
+        clearFrames();
+        Arrays.fill(arraySize, 0);
         address = 0;
         abort = false;
+        preempted = false;
+        transfer = false;
+        clearSuspension();
+    }
+
+    /**
+     * Defines the int array with the specified {@code id}, taking its storage from the shared {@link ScriptArrayPool}.
+     * If the array was already defined as an int array, its previous storage is reused when it is large enough.
+     *
+     * @param id   the id of the array to define.
+     * @param size the amount of elements in the array.
+     * @return the storage of the array, which is at least {@code size} elements long.
+     */
+    public int[] defineArray(int id, int size) {
+        var elements = arrayElements[id];
+        if (elements == null || elements.length < size) {
+            releaseArray(id);
+            elements = ScriptArrayPool.getShared().acquireInt(size);
+            arrayElements[id] = elements;
+        }
+        arraySize[id] = size;
+        return elements;
+    }
+
+    /**
+     * Defines the string array with the specified {@code id}, taking its storage from the shared {@link
+     * ScriptArrayPool}. If the array was already defined as a string array, its previous storage is reused when it is
+     * large enough.
+     *
+     * @param id   the id of the array to define.
+     * @param size the amount of elements in the array.
+     * @return the storage of the array, which is at least {@code size} elements long.
+     */
+    public String[] defineStringArray(int id, int size) {
+        var elements = stringArrayElements[id];
+        if (elements == null || elements.length < size) {
+            releaseArray(id);
+            elements = ScriptArrayPool.getShared().acquireString(size);
+            stringArrayElements[id] = elements;
+        }
+        arraySize[id] = size;
+        return elements;
+    }
+
+    /**
+     * Defines the long array with the specified {@code id}, taking its storage from the shared {@link
+     * ScriptArrayPool}. If the array was already defined as a long array, its previous storage is reused when it is
+     * large enough.
+     *
+     * @param id   the id of the array to define.
+     * @param size the amount of elements in the array.
+     * @return the storage of the array, which is at least {@code size} elements long.
+     */
+    public long[] defineLongArray(int id, int size) {
+        var elements = longArrayElements[id];
+        if (elements == null || elements.length < size) {
+            releaseArray(id);
+            elements = ScriptArrayPool.getShared().acquireLong(size);
+            longArrayElements[id] = elements;
+        }
+        arraySize[id] = size;
+        return elements;
+    }
+
+    /**
+     * Checks whether or not the array with the specified {@code id} has storage of any type.
+     *
+     * @param id the id of the array to check.
+     * @return {@code true} if it has otherwise {@code false}.
+     */
+    public boolean hasArrayStorage(int id) {
+        return arrayElements[id] != null || stringArrayElements[id] != null || longArrayElements[id] != null;
+    }
+
+    /**
+     * Releases the storage of the array with the specified {@code id} back into the shared {@link ScriptArrayPool},
+     * whichever type it was defined with.
+     *
+     * @param id the id of the array to release.
+     */
+    private void releaseArray(int id) {
+        var pool = ScriptArrayPool.getShared();
+        if (arrayElements[id] != null) {
+            pool.releaseInt(arrayElements[id]);
+            arrayElements[id] = null;
+        }
+        if (stringArrayElements[id] != null) {
+            pool.releaseString(stringArrayElements[id]);
+            stringArrayElements[id] = null;
+        }
+        if (longArrayElements[id] != null) {
+            pool.releaseLong(longArrayElements[id]);
+            longArrayElements[id] = null;
+        }
+        arraySize[id] = 0;
+    }
+
+    /**
+     * Releases the storage of all the defined arrays back into the shared {@link ScriptArrayPool}.
+     */
+    private void releaseArrays() {
+        for (var id = 0; id < MAX_ARRAYS; id++) {
+            releaseArray(id);
+        }
+    }
+
+    /**
+     * Returns the reusable {@link StringBuilder} of the runtime after clearing it. The builder is only valid until the
+     * next call to this method, and it is replaced if a previous use has grown it too far.
+     *
+     * @return the cleared {@link StringBuilder} object.
+     */
+    public StringBuilder borrowStringBuilder() {
+        if (stringBuilder == null || stringBuilder.capacity() > MAX_STRING_BUILDER_CAPACITY) {
+            stringBuilder = new StringBuilder(MAX_STRING_BUILDER_CAPACITY);
+        } else {
+            stringBuilder.setLength(0);
+        }
+        return stringBuilder;
+    }
+
+    /**
+     * Suspends the execution of the runtime until it is signalled with the specified {@code reason} through a {@link
+     * me.waliedyassen.runescript.runtime.executor.ScriptScheduler}.
+     *
+     * @param reason the reason to suspend the execution for, e.g. the dialog we are waiting on.
+     */
+    public void suspend(Object reason) {
+        if (reason == null) {
+            throw new IllegalArgumentException("The suspend reason cannot be null");
+        }
+        abort();
+        suspended = true;
+        suspendReason = reason;
+        suspendDelay = 0;
+    }
+
+    /**
+     * Suspends the execution of the runtime for the specified amount of {@link
+     * me.waliedyassen.runescript.runtime.executor.ScriptScheduler} ticks.
+     *
+     * @param delay the amount of ticks to suspend the execution for.
+     */
+    public void sleep(int delay) {
+        if (delay < 0) {
+            throw new ExecutionException("The sleep delay cannot be negative: " + delay);
+        }
+        abort();
+        suspended = true;
+        suspendReason = null;
+        suspendDelay = delay;
+    }
+
+    /**
+     * Clears the suspension state of the runtime.
+     */
+    public void clearSuspension() {
+        suspended = false;
+        suspendReason = null;
+        suspendDelay = 0;
+    }
+
+    /**
+     * Shrinks all of the storage of the runtime down to what is currently in use, this is done when the runtime is
+     * parked so that many parked runtimes can be kept around cheaply. The storage grows back on demand once the
+     * runtime is resumed.
+     */
+    public void compact() {
+        intStack = Arrays.copyOf(intStack, intStackSize);
+        stringStack = Arrays.copyOf(stringStack, stringStackSize);
+        longStack = Arrays.copyOf(longStack, longStackSize);
+        if (script != null) {
+            intLocals = Arrays.copyOf(intLocals, intLocalsBase + intWindowSize());
+            stringLocals = Arrays.copyOf(stringLocals, stringLocalsBase + stringWindowSize());
+            longLocals = Arrays.copyOf(longLocals, longLocalsBase + longWindowSize());
+        }
+        frames.trimToSize();
+        framePool.clear();
+        stringCache.clear();
+        stringBuilder = null;
     }
 
     /**
@@ -153,6 +658,88 @@ public abstract class ScriptRuntime implements AutoCloseable {
             throw new IllegalStateException("An abort was already requested");
         }
         abort = true;
+        transfer = true;
+    }
+
+    /**
+     * Preempts the execution of the runtime, the execution is aborted before the instruction at the current address is
+     * executed and will continue from it when it is resumed.
+     */
+    public void preempt() {
+        abort = true;
+        preempted = true;
+    }
+
+    /**
+     * Sets the script which we are currently executing and signals a control transfer.
+     *
+     * @param script
+     *         the script which we want to execute.
+     */
+    public void setScript(Script script) {
+        this.script = script;
+        transfer = true;
+        ensureLocalsCapacity();
+    }
+
+    /**
+     * Sets the current execution address and signals a control transfer.
+     *
+     * @param address
+     *         the new execution address.
+     */
+    public void setAddress(int address) {
+        this.address = address;
+        transfer = true;
+    }
+
+    /**
+     * Moves the current execution address to the specified {@code address} without signalling a control transfer. This
+     * is used by the executor to keep the address of the runtime in sync with the instruction it is executing.
+     *
+     * @param address
+     *         the address of the instruction which is being executed.
+     */
+    public void moveTo(int address) {
+        this.address = address;
+    }
+
+    /**
+     * Checks whether or not a control transfer was signalled since the last call, and clears the signal.
+     *
+     * @return {@code true} if a control transfer was signalled otherwise {@code false}.
+     */
+    public boolean consumeTransfer() {
+        if (!transfer) {
+            return false;
+        }
+        transfer = false;
+        return true;
+    }
+
+    /**
+     * Clears all of the operand stacks of the runtime.
+     */
+    public void clearStacks() {
+        Arrays.fill(stringStack, 0, stringStackSize, null);
+        intStackSize = 0;
+        stringStackSize = 0;
+        longStackSize = 0;
+    }
+
+    /**
+     * Returns the new capacity of an operand stack that has ran out of space.
+     *
+     * @param size the amount of values that are currently on the stack.
+     * @param name the name of the stack, used for the error message.
+     * @return the new capacity of the stack.
+     * @throws ExecutionException if the stack cannot grow any further.
+     */
+    private static int growStack(int size, String name) {
+        if (size >= MAX_STACK_SIZE) {
+            throw new ExecutionException("The " + name + " stack has overflown");
+        }
+        return Math.min(MAX_STACK_SIZE, Math.max(INITIAL_STACK_SIZE, size * 2));
     }
 
     /**
@@ -162,7 +749,10 @@ public abstract class ScriptRuntime implements AutoCloseable {
      *         the int value to push to the int stack.
      */
     public void pushInt(int value) {
-        intStack.push(value);
+        if (intStackSize == intStack.length) {
+            intStack = Arrays.copyOf(intStack, growStack(intStackSize, "int"));
+        }
+        intStack[intStackSize++] = value;
     }
 
     /**
@@ -171,7 +761,22 @@ public abstract class ScriptRuntime implements AutoCloseable {
      * @return the popped {@code int} value.
      */
     public int popInt() {
-        return intStack.pop();
+        if (intStackSize == 0) {
+            throw new ExecutionException("The int stack has underflown");
+        }
+        return intStack[--intStackSize];
+    }
+
+    /**
+     * Returns the {@code int} value that is at the top of the int stack without popping it.
+     *
+     * @return the {@code int} value at the top of the stack.
+     */
+    public int peekInt() {
+        if (intStackSize == 0) {
+            throw new ExecutionException("The int stack has underflown");
+        }
+        return intStack[intStackSize - 1];
     }
 
     /**
@@ -181,7 +786,10 @@ public abstract class ScriptRuntime implements AutoCloseable {
      *         the string value to push to the string stack.
      */
     public void pushString(String value) {
-        stringStack.push(value);
+        if (stringStackSize == stringStack.length) {
+            stringStack = Arrays.copyOf(stringStack, growStack(stringStackSize, "string"));
+        }
+        stringStack[stringStackSize++] = value;
     }
 
     /**
@@ -190,7 +798,39 @@ public abstract class ScriptRuntime implements AutoCloseable {
      * @return the popped {@link String} value.
      */
     public String popString() {
-        return stringStack.pop();
+        if (stringStackSize == 0) {
+            throw new ExecutionException("The string stack has underflown");
+        }
+        var value = stringStack[--stringStackSize];
+        stringStack[stringStackSize] = null;
+        return value;
+    }
+
+    /**
+     * Returns the {@link String} value that is at the top of the string stack without popping it.
+     *
+     * @return the {@link String} value at the top of the stack.
+     */
+    public String peekString() {
+        if (stringStackSize == 0) {
+            throw new ExecutionException("The string stack has underflown");
+        }
+        return stringStack[stringStackSize - 1];
+    }
+
+    /**
+     * Discards the specified {@code count} of values from the top of the string stack.
+     *
+     * @param count
+     *         the amount of values to discard from the string stack.
+     */
+    public void discardStrings(int count) {
+        if (count > stringStackSize) {
+            throw new ExecutionException("The string stack has underflown");
+        }
+        var size = stringStackSize - count;
+        Arrays.fill(stringStack, size, stringStackSize, null);
+        stringStackSize = size;
     }
 
     /**
@@ -200,16 +840,34 @@ public abstract class ScriptRuntime implements AutoCloseable {
      *         the long value to push to the long stack.
      */
     public void pushLong(long value) {
-        longStack.push(value);
+        if (longStackSize == longStack.length) {
+            longStack = Arrays.copyOf(longStack, growStack(longStackSize, "long"));
+        }
+        longStack[longStackSize++] = value;
     }
 
     /**
-     * Pops an {@link String} value from the top of the long stack.
+     * Pops an {@code long} value from the top of the long stack.
      *
-     * @return the popped {@link String} value.
+     * @return the popped {@code long} value.
      */
     public long popLong() {
-        return longStack.pop();
+        if (longStackSize == 0) {
+            throw new ExecutionException("The long stack has underflown");
+        }
+        return longStack[--longStackSize];
+    }
+
+    /**
+     * Returns the {@code long} value that is at the top of the long stack without popping it.
+     *
+     * @return the {@code long} value at the top of the stack.
+     */
+    public long peekLong() {
+        if (longStackSize == 0) {
+            throw new ExecutionException("The long stack has underflown");
+        }
+        return longStack[longStackSize - 1];
     }
 
     /**
@@ -227,7 +885,17 @@ public abstract class ScriptRuntime implements AutoCloseable {
      * @return the {@code int} value of the operand.
      */
     public int intOperand() {
-        return (int) script.getOperands()[address];
+        return intOperand(address);
+    }
+
+    /**
+     * Returns the {@code int} value operand of the instruction at the specified {@code address}.
+     *
+     * @param address the address of the instruction.
+     * @return the {@code int} value of the operand.
+     */
+    public int intOperand(int address) {
+        return script.getIntOperands()[address];
     }
 
     /**
@@ -236,7 +904,17 @@ public abstract class ScriptRuntime implements AutoCloseable {
      * @return the {@link String} value of the operand.
      */
     public String stringOperand() {
-        return (String) script.getOperands()[address];
+        return stringOperand(address);
+    }
+
+    /**
+     * Returns the {@link String} value operand of the instruction at the specified {@code address}.
+     *
+     * @param address the address of the instruction.
+     * @return the {@link String} value of the operand.
+     */
+    public String stringOperand(int address) {
+        return script.getStringOperands()[address];
     }
 
     /**
@@ -245,6 +923,16 @@ public abstract class ScriptRuntime implements AutoCloseable {
      * @return the {@code long} value of the operand.
      */
     public long longOperand() {
-        return (long) script.getOperands()[address];
+        return longOperand(address);
+    }
+
+    /**
+     * Returns the {@code long} value operand of the instruction at the specified {@code address}.
+     *
+     * @param address the address of the instruction.
+     * @return the {@code long} value of the operand.
+     */
+    public long longOperand(int address) {
+        return script.getLongOperands()[address];
     }
 }
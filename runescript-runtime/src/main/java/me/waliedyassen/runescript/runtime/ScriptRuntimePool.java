@@ -13,11 +13,16 @@ import lombok.var;
 import me.waliedyassen.runescript.runtime.cache.ScriptCache;
 import me.waliedyassen.runescript.runtime.script.Script;
 
-import java.util.Stack;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
  * Represents a pool of {@link ScriptRuntime} objects with a limited size.
+ * <p>
+ * The pool is safe to use from multiple threads, the free runtimes are shared between all the threads through a
+ * lock-free queue which never holds more than {@link #limit} runtimes.
  *
  * @author Walied K. Yassen
  */
@@ -25,9 +30,34 @@ import java.util.function.Function;
 public final class ScriptRuntimePool<R extends ScriptRuntime> {
 
     /**
-     * A stack of the {@link ScriptRuntime} objects that are ready to be used.
+     * The {@link ScriptRuntime} objects that are ready to be used and are shared between all the threads.
      */
-    private final Stack<R> runtimes = new Stack<>();
+    private final ConcurrentLinkedQueue<R> runtimes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The amount of {@link ScriptRuntime} objects that are currently stored in the shared queue.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * The amount of {@link ScriptRuntime} objects that were created by the pool.
+     */
+    private final LongAdder created = new LongAdder();
+
+    /**
+     * The amount of {@link ScriptRuntime} objects that were reused from the pool.
+     */
+    private final LongAdder reused = new LongAdder();
+
+    /**
+     * The amount of {@link ScriptRuntime} objects that were discarded because the pool was full.
+     */
+    private final LongAdder discarded = new LongAdder();
+
+    /**
+     * The amount of {@link ScriptRuntime} objects that were popped and not pushed back yet.
+     */
+    private final LongAdder inFlight = new LongAdder();
 
     /**
      * The supplier of the script runtime.
@@ -41,35 +71,82 @@ public final class ScriptRuntimePool<R extends ScriptRuntime> {
     private final ScriptCache cache;
 
     /**
-     * The maximum amount of {@link ScriptRuntime} we can store in the pool.
+     * The maximum amount of {@link ScriptRuntime} we can store in the shared queue of the pool.
      */
+    @Getter
     private final int limit;
 
     /**
-     * Attempts to pop an free existing {@link ScriptRuntime} from the pool stack, if none was available, it will create
-     * a new {@link ScriptRuntime} object and return it.
+     * Attempts to pop an free existing {@link ScriptRuntime} from the pool, if none was available, it will create a new
+     * {@link ScriptRuntime} object and return it. The free runtimes were already reset when they were pushed back.
      *
      * @return the popped or created {@link ScriptRuntime} object.
      */
     public R pop() {
-        if (runtimes.isEmpty()) {
+        inFlight.increment();
+        var runtime = runtimes.poll();
+        if (runtime == null) {
+            created.increment();
             return supplier.apply(this);
         }
-        var runtime = runtimes.pop();
-        runtime.reset();
+        size.decrementAndGet();
+        reused.increment();
         return runtime;
     }
 
     /**
-     * Attempts to push the specified {@link ScriptRuntime} object back into the pool stack, if the current pool stack
-     * size exceeds the {@link #limit} nothing will happen.
+     * Attempts to push the specified {@link ScriptRuntime} object back into the pool, the runtime is discarded if
+     * the pool is already holding {@link #limit} free runtimes.
+     * <p>
+     * The runtime is {@link ScriptRuntime#reset() reset} before anything else, even when it is discarded, so the
+     * storage of its arrays goes back into the {@link ScriptArrayPool} right away.
      *
      * @param runtime the runtime object we want to push back into the pool stack.
      */
     public void push(R runtime) {
-        if (runtimes.size() >= limit) {
+        runtime.reset();
+        inFlight.decrement();
+        if (size.incrementAndGet() > limit) {
+            size.decrementAndGet();
+            discarded.increment();
             return;
         }
-        runtimes.push(runtime);
+        runtimes.offer(runtime);
+    }
+
+    /**
+     * Returns the amount of {@link ScriptRuntime} objects that were created by the pool.
+     *
+     * @return the amount of created runtime objects.
+     */
+    public long getCreated() {
+        return created.sum();
+    }
+
+    /**
+     * Returns the amount of {@link ScriptRuntime} objects that were reused from the pool.
+     *
+     * @return the amount of reused runtime objects.
+     */
+    public long getReused() {
+        return reused.sum();
+    }
+
+    /**
+     * Returns the amount of {@link ScriptRuntime} objects that were discarded because the pool was full.
+     *
+     * @return the amount of discarded runtime objects.
+     */
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * Returns the amount of {@link ScriptRuntime} objects that are currently in use and were not pushed back yet.
+     *
+     * @return the amount of in-flight runtime objects.
+     */
+    public long getInFlight() {
+        return inFlight.sum();
     }
-}
\ No newline at end of file
+}
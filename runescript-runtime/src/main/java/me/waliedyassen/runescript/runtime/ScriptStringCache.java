@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime;
+
+import lombok.Getter;
+import lombok.var;
+
+/**
+ * Represents a small direct-mapped cache of short strings. The strings that are built repeatedly from the same
+ * constants (e.g. labels and chat prefixes) are served from the cache instead of allocating a new copy every time.
+ * Each {@link ScriptRuntime} owns its own cache, which means it requires no synchronisation.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ScriptStringCache {
+
+    /**
+     * The maximum length of a string that can be stored in the cache.
+     */
+    public static final int MAX_LENGTH = 32;
+
+    /**
+     * The amount of entries in the cache, must be a power of two.
+     */
+    private static final int CAPACITY = 256;
+
+    /**
+     * The cached strings, indexed by their hash code, allocated on first use.
+     */
+    private String[] entries;
+
+    /**
+     * The amount of times a string was served from the cache.
+     */
+    @Getter
+    private long hits;
+
+    /**
+     * The amount of times a string had to be created.
+     */
+    @Getter
+    private long misses;
+
+    /**
+     * Returns the string with the same content as the specified {@link CharSequence}, the string is served from the
+     * cache if it is present, otherwise a new string is created and stored in the cache if it is short enough.
+     *
+     * @param sequence the character sequence to get the string for.
+     * @return the string with the same content as the character sequence.
+     */
+    public String intern(CharSequence sequence) {
+        var length = sequence.length();
+        if (length > MAX_LENGTH) {
+            return sequence.toString();
+        }
+        var hash = 0;
+        for (var index = 0; index < length; index++) {
+            hash = 31 * hash + sequence.charAt(index);
+        }
+        if (entries == null) {
+            entries = new String[CAPACITY];
+        }
+        var slot = (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+        var cached = entries[slot];
+        if (cached != null && cached.hashCode() == hash && cached.contentEquals(sequence)) {
+            hits++;
+            return cached;
+        }
+        misses++;
+        var value = sequence.toString();
+        entries[slot] = value;
+        return value;
+    }
+
+    /**
+     * Clears all of the cached strings and releases the cache storage.
+     */
+    public void clear() {
+        entries = null;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.cache;
+
+import lombok.Getter;
+import lombok.var;
+import me.waliedyassen.runescript.runtime.script.Script;
+import me.waliedyassen.runescript.runtime.script.ScriptDecoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link ScriptCache} implementation which decodes all of the scripts of a flat pack directory up front. Each file in
+ * the directory is named after the id and the name of the script it contains, separated by a dash (e.g.
+ * {@code 12-[proc,my_proc]}).
+ *
+ * @author Walied K. Yassen
+ */
+public final class FlatPackScriptCache extends ScriptCache {
+
+    /**
+     * The decoded scripts of the pack, indexed by their id.
+     */
+    private final Map<Integer, Script> scriptsById = new HashMap<>();
+
+    /**
+     * The decoded scripts of the pack, indexed by their name.
+     */
+    private final Map<String, Script> scriptsByName = new HashMap<>();
+
+    /**
+     * The path of the pack directory.
+     */
+    @Getter
+    private final Path directory;
+
+    /**
+     * Constructs a new {@link FlatPackScriptCache} type object instance and decodes all of the scripts in the specified
+     * pack {@code directory}.
+     *
+     * @param decoder   the decoder to use for decoding the scripts.
+     * @param directory the pack directory to load the scripts from.
+     * @throws IOException if anything occurs while reading the pack directory.
+     */
+    public FlatPackScriptCache(ScriptDecoder decoder, Path directory) throws IOException {
+        this.directory = directory;
+        try (var files = Files.newDirectoryStream(directory, Files::isRegularFile)) {
+            for (var file : files) {
+                var fileName = file.getFileName().toString();
+                var separator = fileName.indexOf('-');
+                if (separator <= 0) {
+                    continue;
+                }
+                int id;
+                try {
+                    id = Integer.parseInt(fileName.substring(0, separator));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                Script script;
+                try {
+                    script = decoder.decode(ByteBuffer.wrap(Files.readAllBytes(file)));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Failed to decode script file: " + file, e);
+                }
+                scriptsById.put(id, script);
+                scriptsByName.put(script.getName(), script);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Script get(int id) {
+        return scriptsById.get(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Script get(String name) {
+        return scriptsByName.get(name);
+    }
+
+    /**
+     * Returns the amount of scripts that were loaded from the pack.
+     *
+     * @return the amount of loaded scripts.
+     */
+    public int size() {
+        return scriptsById.size();
+    }
+}
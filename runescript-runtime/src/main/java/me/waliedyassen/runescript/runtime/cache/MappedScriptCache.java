@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.cache;
+
+import lombok.Getter;
+import lombok.var;
+import me.waliedyassen.runescript.runtime.script.Script;
+import me.waliedyassen.runescript.runtime.script.ScriptDecoder;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link ScriptCache} implementation which is backed by a memory-mapped script archive. The scripts are decoded on
+ * the first time they are requested and are kept in a bounded cache which evicts the least recently used scripts.
+ *
+ * @author Walied K. Yassen
+ * @see ScriptArchiveWriter
+ */
+public final class MappedScriptCache extends ScriptCache {
+
+    /**
+     * The memory-mapped content of the archive.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The decoder which is used to decode the scripts.
+     */
+    private final ScriptDecoder decoder;
+
+    /**
+     * The ids of all the scripts in the archive, sorted in ascending order.
+     */
+    private final int[] ids;
+
+    /**
+     * The data offset of each script in the archive, in the same order as {@link #ids}.
+     */
+    private final int[] offsets;
+
+    /**
+     * The data length of each script in the archive, in the same order as {@link #ids}.
+     */
+    private final int[] lengths;
+
+    /**
+     * The name hashes of all the scripts in the archive, sorted in ascending order.
+     */
+    private final int[] nameHashes;
+
+    /**
+     * The position within {@link #ids} of each script in {@link #nameHashes}.
+     */
+    private final int[] namePositions;
+
+    /**
+     * The decoded scripts which are currently cached, ordered by their last access.
+     */
+    private final LinkedHashMap<Integer, Script> scripts;
+
+    /**
+     * The maximum amount of decoded scripts to keep in the cache.
+     */
+    @Getter
+    private final int capacity;
+
+    /**
+     * Constructs a new {@link MappedScriptCache} type object instance.
+     *
+     * @param decoder  the decoder to use for decoding the scripts.
+     * @param path     the path of the archive file.
+     * @param capacity the maximum amount of decoded scripts to keep in the cache.
+     * @throws IOException if anything occurs while mapping the archive file.
+     */
+    public MappedScriptCache(ScriptDecoder decoder, Path path, int capacity) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.limit() < ScriptArchive.HEADER_SIZE || buffer.getInt(0) != ScriptArchive.MAGIC) {
+            throw new IOException("The specified file is not a script archive: " + path);
+        }
+        if (buffer.getInt(4) != ScriptArchive.VERSION) {
+            throw new IOException("Unsupported script archive version: " + buffer.getInt(4));
+        }
+        var count = buffer.getInt(8);
+        if (count < 0 || count > (buffer.limit() - ScriptArchive.HEADER_SIZE) / (ScriptArchive.ID_ENTRY_SIZE + ScriptArchive.NAME_ENTRY_SIZE)) {
+            throw new IOException("Malformed script data: the script count is out of bounds: " + count);
+        }
+        ids = new int[count];
+        offsets = new int[count];
+        lengths = new int[count];
+        nameHashes = new int[count];
+        namePositions = new int[count];
+        var position = ScriptArchive.HEADER_SIZE;
+        for (var index = 0; index < count; index++, position += ScriptArchive.ID_ENTRY_SIZE) {
+            ids[index] = buffer.getInt(position);
+            offsets[index] = buffer.getInt(position + 4);
+            lengths[index] = buffer.getInt(position + 8);
+            if (index > 0 && ids[index] <= ids[index - 1]) {
+                throw new IOException("Malformed script data: the id index is not sorted at entry: " + index);
+            }
+            if (offsets[index] < 0 || lengths[index] < 0 || lengths[index] > buffer.limit() - offsets[index]) {
+                throw new IOException("Malformed script data: the data of entry " + index + " is out of bounds");
+            }
+        }
+        for (var index = 0; index < count; index++, position += ScriptArchive.NAME_ENTRY_SIZE) {
+            nameHashes[index] = buffer.getInt(position);
+            namePositions[index] = buffer.getInt(position + 4);
+            if (namePositions[index] < 0 || namePositions[index] >= count) {
+                throw new IOException("Malformed script data: the name index position is out of bounds: " + namePositions[index]);
+            }
+        }
+        this.decoder = decoder;
+        this.capacity = capacity;
+        scripts = new LinkedHashMap<Integer, Script>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Script> eldest) {
+                return size() > MappedScriptCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Script get(int id) {
+        var position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return null;
+        }
+        return load(position);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Script get(String name) {
+        var hash = ScriptArchive.hash(name);
+        var index = Arrays.binarySearch(nameHashes, hash);
+        if (index < 0) {
+            return null;
+        }
+        // Walk back to the first entry with the same hash, then check each colliding entry.
+        while (index > 0 && nameHashes[index - 1] == hash) {
+            index--;
+        }
+        for (; index < nameHashes.length && nameHashes[index] == hash; index++) {
+            var script = load(namePositions[index]);
+            if (script.getName().equals(name)) {
+                return script;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the {@link Script} at the specified {@code position} of the id index, decoding it if it is not cached.
+     *
+     * @param position the position of the script within the id index.
+     * @return the {@link Script} object.
+     */
+    private Script load(int position) {
+        var id = ids[position];
+        synchronized (scripts) {
+            var script = scripts.get(id);
+            if (script != null) {
+                return script;
+            }
+        }
+        var slice = buffer.duplicate();
+        slice.limit(offsets[position] + lengths[position]);
+        slice.position(offsets[position]);
+        var script = decoder.decode(slice);
+        synchronized (scripts) {
+            var existing = scripts.putIfAbsent(id, script);
+            return existing != null ? existing : script;
+        }
+    }
+
+    /**
+     * Returns the amount of scripts that are present in the archive.
+     *
+     * @return the amount of scripts in the archive.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the amount of decoded scripts that are currently cached.
+     *
+     * @return the amount of cached scripts.
+     */
+    public int cached() {
+        synchronized (scripts) {
+            return scripts.size();
+        }
+    }
+}
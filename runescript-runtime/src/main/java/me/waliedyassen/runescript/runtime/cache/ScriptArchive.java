@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.cache;
+
+/**
+ * Contains the constants of the packed script archive format.
+ * <p>
+ * An archive starts with a header of {@link #MAGIC}, {@link #VERSION} and the amount of scripts, followed by the id
+ * index which holds an {@code id, offset, length} entry per script sorted by id, then the name index which holds a
+ * {@code name hash, id index position} entry per script sorted by the name hash, and finally the encoded data of all
+ * the scripts.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ScriptArchive {
+
+    /**
+     * The magic number which every archive starts with.
+     */
+    public static final int MAGIC = 0x52534152;
+
+    /**
+     * The current version of the archive format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size in bytes of the archive header.
+     */
+    public static final int HEADER_SIZE = 12;
+
+    /**
+     * The size in bytes of a single id index entry.
+     */
+    public static final int ID_ENTRY_SIZE = 12;
+
+    /**
+     * The size in bytes of a single name index entry.
+     */
+    public static final int NAME_ENTRY_SIZE = 8;
+
+    /**
+     * Returns the hash of the specified script {@code name} which is used by the name index.
+     *
+     * @param name the name of the script.
+     * @return the hash of the name.
+     */
+    public static int hash(String name) {
+        return name.hashCode();
+    }
+
+    private ScriptArchive() {
+        // NOOP
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.var;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.TreeMap;
+
+/**
+ * A writer which packs many encoded scripts into a single archive file that can be read by {@link
+ * MappedScriptCache}.
+ *
+ * @author Walied K. Yassen
+ * @see ScriptArchive
+ */
+public final class ScriptArchiveWriter {
+
+    /**
+     * The entries that were added to the archive, sorted by the script id.
+     */
+    private final TreeMap<Integer, Entry> entries = new TreeMap<>();
+
+    /**
+     * Adds the specified encoded script to the archive.
+     *
+     * @param id   the id of the script.
+     * @param name the name of the script.
+     * @param data the encoded data of the script.
+     */
+    public void add(int id, String name, byte[] data) {
+        if (entries.containsKey(id)) {
+            throw new IllegalArgumentException("The specified script id is already present in the archive: " + id);
+        }
+        entries.put(id, new Entry(id, name, data));
+    }
+
+    /**
+     * Writes all of the added scripts into an archive file at the specified {@link Path}.
+     *
+     * @param path the path of the archive file.
+     * @throws IOException if anything occurs while writing the archive file.
+     */
+    public void write(Path path) throws IOException {
+        var sorted = new ArrayList<Entry>(entries.values());
+        try (var stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            stream.writeInt(ScriptArchive.MAGIC);
+            stream.writeInt(ScriptArchive.VERSION);
+            stream.writeInt(sorted.size());
+            var offset = ScriptArchive.HEADER_SIZE + sorted.size() * (ScriptArchive.ID_ENTRY_SIZE + ScriptArchive.NAME_ENTRY_SIZE);
+            for (var entry : sorted) {
+                stream.writeInt(entry.id);
+                stream.writeInt(offset);
+                stream.writeInt(entry.data.length);
+                offset += entry.data.length;
+            }
+            var positions = new ArrayList<Integer>(sorted.size());
+            for (var index = 0; index < sorted.size(); index++) {
+                positions.add(index);
+            }
+            positions.sort(Comparator.comparingInt(index -> ScriptArchive.hash(sorted.get(index).name)));
+            for (var index : positions) {
+                stream.writeInt(ScriptArchive.hash(sorted.get(index).name));
+                stream.writeInt(index);
+            }
+            for (var entry : sorted) {
+                stream.write(entry.data);
+            }
+        }
+    }
+
+    /**
+     * An entry within the archive.
+     */
+    @RequiredArgsConstructor
+    private static final class Entry {
+
+        /**
+         * The id of the script.
+         */
+        private final int id;
+
+        /**
+         * The name of the script.
+         */
+        private final String name;
+
+        /**
+         * The encoded data of the script.
+         */
+        private final byte[] data;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor;
+
+import lombok.Getter;
+import lombok.var;
+
+/**
+ * The aggregated result of a batched script execution, see {@link ScriptExecutor#executeBatch}.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ScriptBatchResult {
+
+    /**
+     * The amount of executions that ran to completion.
+     */
+    @Getter
+    private int completed;
+
+    /**
+     * The amount of executions that were aborted or suspended by the script.
+     */
+    @Getter
+    private int aborted;
+
+    /**
+     * The amount of executions that failed with an error.
+     */
+    @Getter
+    private int failed;
+
+    /**
+     * The first error which occurred during the batch, or {@code null} if none did.
+     */
+    @Getter
+    private ExecutionException firstError;
+
+    /**
+     * The sum of the execution times of all the executions in nanoseconds.
+     */
+    @Getter
+    private long executionTime;
+
+    /**
+     * The longest execution time of a single execution in nanoseconds.
+     */
+    @Getter
+    private long maxExecutionTime;
+
+    /**
+     * The wall clock time the whole batch took in nanoseconds.
+     */
+    @Getter
+    private long elapsedTime;
+
+    /**
+     * Returns the total amount of executions in the batch.
+     *
+     * @return the total amount of executions.
+     */
+    public int getExecuted() {
+        return completed + aborted + failed;
+    }
+
+    /**
+     * Returns the average execution time of a single execution in nanoseconds.
+     *
+     * @return the average execution time or {@code 0} if the batch was empty.
+     */
+    public long getAverageExecutionTime() {
+        var executed = getExecuted();
+        return executed == 0 ? 0 : executionTime / executed;
+    }
+
+    /**
+     * Records an execution which ran to completion.
+     *
+     * @param time the execution time in nanoseconds.
+     */
+    void recordCompleted(long time) {
+        completed++;
+        recordTime(time);
+    }
+
+    /**
+     * Records an execution which was aborted or suspended by the script.
+     *
+     * @param time the execution time in nanoseconds.
+     */
+    void recordAborted(long time) {
+        aborted++;
+        recordTime(time);
+    }
+
+    /**
+     * Records an execution which failed with an error.
+     *
+     * @param time  the execution time in nanoseconds.
+     * @param error the error which the execution failed with.
+     */
+    void recordFailed(long time, ExecutionException error) {
+        failed++;
+        if (firstError == null) {
+            firstError = error;
+        }
+        recordTime(time);
+    }
+
+    /**
+     * Records the execution time of a single execution.
+     *
+     * @param time the execution time in nanoseconds.
+     */
+    private void recordTime(long time) {
+        executionTime += time;
+        if (time > maxExecutionTime) {
+            maxExecutionTime = time;
+        }
+    }
+
+    /**
+     * Merges the specified {@link ScriptBatchResult} into this result.
+     *
+     * @param other the other result to merge into this result.
+     * @return this {@link ScriptBatchResult} object.
+     */
+    ScriptBatchResult merge(ScriptBatchResult other) {
+        completed += other.completed;
+        aborted += other.aborted;
+        failed += other.failed;
+        if (firstError == null) {
+            firstError = other.firstError;
+        }
+        executionTime += other.executionTime;
+        maxExecutionTime = Math.max(maxExecutionTime, other.maxExecutionTime);
+        return this;
+    }
+
+    /**
+     * Sets the wall clock time the whole batch took.
+     *
+     * @param elapsedTime the wall clock time in nanoseconds.
+     */
+    void setElapsedTime(long elapsedTime) {
+        this.elapsedTime = elapsedTime;
+    }
+}
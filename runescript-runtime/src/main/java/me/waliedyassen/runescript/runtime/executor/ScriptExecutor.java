@@ -8,14 +8,27 @@
 package me.waliedyassen.runescript.runtime.executor;
 
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.var;
 import me.waliedyassen.runescript.runtime.ScriptRuntime;
 import me.waliedyassen.runescript.runtime.ScriptRuntimePool;
 import me.waliedyassen.runescript.runtime.ScriptRuntimeSetup;
 import me.waliedyassen.runescript.runtime.cache.ScriptCache;
+import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutor;
 import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutorMap;
+import me.waliedyassen.runescript.runtime.executor.instruction.InstructionFuser;
+import me.waliedyassen.runescript.runtime.executor.jit.CompiledScript;
+import me.waliedyassen.runescript.runtime.executor.jit.ScriptJit;
+import me.waliedyassen.runescript.runtime.executor.profiler.ScriptProfiler;
 import me.waliedyassen.runescript.runtime.script.Script;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -25,6 +38,11 @@ import java.util.function.Function;
  */
 public final class ScriptExecutor<R extends ScriptRuntime> {
 
+    /**
+     * The instruction budget which means the execution is never preempted.
+     */
+    public static final long UNLIMITED_BUDGET = Long.MAX_VALUE;
+
     /**
      * The {@link ScriptRuntime} objects pool of the executor.
      */
@@ -36,15 +54,46 @@ public final class ScriptExecutor<R extends ScriptRuntime> {
      */
     private final InstructionExecutorMap executorMap;
 
+    /**
+     * The fuser which rewrites the linked scripts to use fused instructions, or {@code null} if fusion is disabled.
+     */
+    @Getter
+    @Setter
+    private InstructionFuser fuser = InstructionFuser.createDefault();
+
+    /**
+     * The JIT which compiles the hot scripts into JVM classes, or {@code null} if the JIT execution tier is disabled,
+     * which is the default.
+     */
+    @Getter
+    @Setter
+    private ScriptJit jit;
+
+    /**
+     * The amount of activations a script needs before it is compiled by the {@link #jit}.
+     */
+    @Getter
+    @Setter
+    private int jitThreshold = 1000;
+
+    /**
+     * The profiler which records the execution of the scripts, or {@code null} if profiling is disabled. The scripts
+     * are always interpreted while profiling, so every instruction is recorded.
+     */
+    @Getter
+    @Setter
+    private ScriptProfiler profiler;
+
     /**
      * Constructs a new {@link ScriptExecutor} type object instance.
      *
      * @param poolSize        the runtime objects pool maximum size.
      * @param cache           the cache which is responsible for loading scripts.
      * @param runtimeSupplier the supplier of the runtime objects.
-     * @param executorMap     the instructions executor map of the executor.
+     * @param executorMap     the instructions executor map of the executor, it will be frozen upon construction.
      */
     public ScriptExecutor(int poolSize, ScriptCache cache, Function<ScriptRuntimePool<R>, R> runtimeSupplier, InstructionExecutorMap executorMap) {
+        executorMap.freeze();
         this.executorMap = executorMap;
         pool = new ScriptRuntimePool<>(runtimeSupplier, cache, poolSize);
     }
@@ -58,10 +107,23 @@ public final class ScriptExecutor<R extends ScriptRuntime> {
      * @throws ExecutionException if anything occurs during the execution.
      */
     public R execute(ScriptRuntimeSetup<R> setup, Script script) throws ExecutionException {
+        return execute(setup, script, UNLIMITED_BUDGET);
+    }
+
+    /**
+     * Executes the specified {@link Script} in a new {@link ScriptRuntime runtime} with a limited instruction budget.
+     *
+     * @param setup  the runtime setup.
+     * @param script the script which we want to execute.
+     * @param budget the maximum amount of instructions to execute before the runtime is preempted.
+     * @return the runtime to store if the execution was aborted or preempted.
+     * @throws ExecutionException if anything occurs during the execution.
+     */
+    public R execute(ScriptRuntimeSetup<R> setup, Script script, long budget) throws ExecutionException {
         try {
             var runtime = pool.pop();
             setup.setup(runtime);
-            if (execute(runtime, script) != null) {
+            if (execute(runtime, script, budget) != null) {
                 return runtime;
             } else {
                 runtime.close();
@@ -82,37 +144,401 @@ public final class ScriptExecutor<R extends ScriptRuntime> {
      * @return the runtime to store if the execution was aborted.
      * @throws ExecutionException if anything occurs during the execution.
      */
-    @SuppressWarnings("unchecked")
     public R execute(R runtime, Script script) throws ExecutionException {
+        return execute(runtime, script, UNLIMITED_BUDGET);
+    }
+
+    /**
+     * Executes the specified {@link Script script} in the given {@link ScriptRuntime runtime} with a limited
+     * instruction budget.
+     *
+     * @param runtime the runtime to execute the script in.
+     * @param script  the script which we want to execute.
+     * @param budget  the maximum amount of instructions to execute before the runtime is preempted.
+     * @return the runtime to store if the execution was aborted or preempted.
+     * @throws ExecutionException if anything occurs during the execution.
+     */
+    public R execute(R runtime, Script script, long budget) throws ExecutionException {
         // Update the runtime script.
         runtime.setScript(script);
-        return resume(runtime);
+        return resume(runtime, budget);
+    }
+
+    /**
+     * Executes the specified {@link Script script} once for each of the specified {@link ScriptRuntimeSetup setups}.
+     * A single runtime is reused for all of the executions and is only {@link ScriptRuntime#recycle() recycled} between
+     * them, a new runtime is only taken from the pool when an execution is aborted or fails. The exceptions thrown by
+     * the executions are recorded in the result, while any {@link Error} stops the batch and is thrown to the caller.
+     *
+     * @param script       the script which we want to execute.
+     * @param setups       the setups of each execution.
+     * @param abortHandler the handler which takes the ownership of the aborted runtimes, or {@code null} if they
+     *                     should be closed.
+     * @return the aggregated {@link ScriptBatchResult result} of the batch.
+     */
+    public ScriptBatchResult executeBatch(Script script, Iterator<? extends ScriptRuntimeSetup<R>> setups, Consumer<R> abortHandler) {
+        var start = System.nanoTime();
+        prepare(script);
+        var result = new ScriptBatchResult();
+        var runtime = pool.pop();
+        try {
+            while (setups.hasNext()) {
+                runtime = executeBatched(runtime, script, setups.next(), abortHandler, result);
+            }
+        } finally {
+            runtime.close();
+        }
+        result.setElapsedTime(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Executes the specified {@link Script script} once for each of the specified {@link ScriptRuntimeSetup setups},
+     * fanning out the executions across the specified {@link ForkJoinPool}. Each worker reuses a single runtime for its
+     * share of the executions, see {@link #executeBatch(Script, Iterator, Consumer)}.
+     *
+     * @param script       the script which we want to execute.
+     * @param setups       the setups of each execution.
+     * @param abortHandler the handler which takes the ownership of the aborted runtimes, or {@code null} if they
+     *                     should be closed, it may be called from any of the workers.
+     * @param forkJoinPool the pool which we want to execute the batch in.
+     * @param threshold    the maximum amount of executions a single worker task can perform.
+     * @return the aggregated {@link ScriptBatchResult result} of the batch.
+     */
+    public ScriptBatchResult executeBatch(Script script, List<? extends ScriptRuntimeSetup<R>> setups, Consumer<R> abortHandler, ForkJoinPool forkJoinPool, int threshold) {
+        var start = System.nanoTime();
+        prepare(script);
+        var result = forkJoinPool.invoke(new BatchTask(script, setups, abortHandler, 0, setups.size(), Math.max(1, threshold)));
+        result.setElapsedTime(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Executes the specified {@link Script script} in the specified {@code runtime} as a part of a batch.
+     *
+     * @param runtime      the runtime to execute the script in.
+     * @param script       the script which we want to execute.
+     * @param setup        the setup of the execution.
+     * @param abortHandler the handler which takes the ownership of the aborted runtimes.
+     * @param result       the result to record the execution in.
+     * @return the runtime to use for the next execution of the batch.
+     */
+    private R executeBatched(R runtime, Script script, ScriptRuntimeSetup<R> setup, Consumer<R> abortHandler, ScriptBatchResult result) {
+        var start = System.nanoTime();
+        try {
+            setup.setup(runtime);
+            if (execute(runtime, script, UNLIMITED_BUDGET) == null) {
+                result.recordCompleted(System.nanoTime() - start);
+                runtime.recycle();
+                return runtime;
+            }
+            result.recordAborted(System.nanoTime() - start);
+            if (abortHandler != null) {
+                abortHandler.accept(runtime);
+            } else {
+                runtime.close();
+            }
+        } catch (Exception e) {
+            var error = e instanceof ExecutionException ? (ExecutionException) e : new ExecutionException("Error executing script: " + script.getName(), e);
+            result.recordFailed(System.nanoTime() - start, error);
+            runtime.close();
+        }
+        return pool.pop();
+    }
+
+    /**
+     * Prepares the specified {@link Script} for a batched execution by linking it upfront, so the executions of the
+     * batch do not race on linking it.
+     *
+     * @param script the script which we want to prepare.
+     */
+    private void prepare(Script script) {
+        if (script.getExecutors() == null) {
+            link(script);
+        }
     }
 
     /**
-     * Resumes the execution of the specified {@code runtime.}
+     * Links the specified {@link Script} against the instruction executors map of this executor and binds the resolved
+     * executors to the script. This is done lazily on the first execution of the script, but it can be called upfront
+     * when loading the scripts.
+     *
+     * @param script the script which we want to link.
+     * @return the bound executors of the script.
+     * @throws ExecutionException if any of the script instructions has no registered executor.
+     */
+    public InstructionExecutor[] link(Script script) {
+        var executors = executorMap.link(script);
+        var costs = new int[executors.length];
+        Arrays.fill(costs, 1);
+        if (fuser != null) {
+            fuser.fuse(executors, costs);
+        }
+        script.bind(executors, costs);
+        return executors;
+    }
+
+    /**
+     * Activates the specified {@link Script} for execution, linking it if it was not linked yet and compiling it if it
+     * became hot.
+     *
+     * @param script the script which we want to activate.
+     * @return the executors which should be used for executing the script.
+     */
+    private InstructionExecutor[] activate(Script script) {
+        var executors = script.getExecutors();
+        if (executors == null) {
+            executors = link(script);
+        }
+        if (jit != null && !script.isCompilationAttempted() && script.activate() >= jitThreshold) {
+            // The compiled code keeps the stack values in JVM locals by itself, so it is compiled from the unfused executors.
+            script.setCompilationAttempted(true);
+            script.setCompiled(jit.compile(script, executorMap.link(script)));
+        }
+        return executors;
+    }
+
+    /**
+     * Returns the compiled form of the specified {@link Script} if the {@link #jit} is enabled.
+     *
+     * @param script the script to return the compiled form of.
+     * @return the compiled script or {@code null} if it was not compiled or the JIT is disabled.
+     */
+    private CompiledScript compiled(Script script) {
+        return jit != null ? script.getCompiled() : null;
+    }
+
+    /**
+     * Returns the unfused executor of the instruction at the specified {@code address}. This is used when the remaining
+     * budget is not enough for the whole sequence of a fused instruction, so the runtime is still preempted at the
+     * exact same instruction as it would be without fusion.
+     *
+     * @param script  the script which the instruction is in.
+     * @param address the address of the instruction.
+     * @return the unfused {@link InstructionExecutor} of the instruction.
+     */
+    private InstructionExecutor unfused(Script script, int address) {
+        return executorMap.lookup(script.getInstructions()[address]);
+    }
+
+    /**
+     * Resumes the execution of the specified {@code runtime}.
+     * <p>
+     * The current script, its executors and the program counter are kept in locals, and are only re-read from the
+     * runtime when an instruction signals a control transfer (a branch, a call, a return or an abort). The program
+     * counter is passed to the executors and is only written back to the runtime when the execution is aborted,
+     * preempted or fails, so the address of the runtime is not in sync while it is executing. If the current
+     * script was compiled by the {@link #jit}, its compiled code is executed instead whenever the current address starts
+     * a basic block.
      *
      * @param runtime the runtime to resume the execute for.
      * @return R the runtime to store if the execution was aborted.
      */
     public R resume(R runtime) {
+        return resume(runtime, UNLIMITED_BUDGET);
+    }
+
+    /**
+     * Resumes the execution of the specified {@code runtime} with a limited instruction budget. If the budget runs out
+     * before the execution is over, the runtime is preempted at the next instruction and can be resumed later. A fused
+     * instruction is charged for every instruction it covers.
+     *
+     * @param runtime the runtime to resume the execute for.
+     * @param budget  the maximum amount of instructions to execute before the runtime is preempted.
+     * @return R the runtime to store if the execution was aborted or preempted.
+     * @see ScriptRuntime#isPreempted()
+     */
+    public R resume(R runtime, long budget) {
         runtime.setAbort(false);
-        while (true) {
-            var script = runtime.getScript();
-            if (runtime.getAddress() >= script.getInstructions().length) {
-                break;
-            }
-            var opcode = script.getInstructions()[runtime.getAddress()];
-            var executor = executorMap.lookup(opcode);
-            if (executor == null) {
-                throw new ExecutionException("Missing InstructionExecutor for instruction with opcode: " + opcode);
-            }
-            executor.execute(runtime);
-            runtime.setAddress(runtime.getAddress() + 1);
+        runtime.setPreempted(false);
+        runtime.clearSuspension();
+        runtime.consumeTransfer();
+        if (profiler != null) {
+            return resumeProfiled(runtime, budget, profiler);
+        }
+        var script = runtime.getScript();
+        var executors = activate(script);
+        var costs = script.getCosts();
+        var compiled = compiled(script);
+        var address = runtime.getAddress();
+        var remaining = budget;
+        while (address < executors.length) {
+            var entered = compiled != null && compiled.isEntry(address);
+            if (entered) {
+                remaining = compiled.execute(runtime, address, remaining);
+                address = runtime.getAddress();
+            }
+            // The compiled code returns either with a control transfer or at an instruction it left to the interpreter.
+            if (!entered || !runtime.isTransfer()) {
+                if (address >= executors.length) {
+                    break;
+                }
+                var executor = executors[address];
+                var cost = costs[address];
+                if (remaining < cost) {
+                    if (remaining == 0) {
+                        runtime.moveTo(address);
+                        runtime.preempt();
+                        return runtime;
+                    }
+                    executor = unfused(script, address);
+                    cost = 1;
+                }
+                remaining -= cost;
+                try {
+                    executor.execute(runtime, address);
+                } catch (RuntimeException e) {
+                    runtime.moveTo(address);
+                    throw e;
+                }
+            }
+            if (!runtime.consumeTransfer()) {
+                address++;
+                continue;
+            }
+            address = runtime.getAddress() + 1;
             if (runtime.isAbort()) {
+                runtime.moveTo(address);
                 return runtime;
             }
+            if (runtime.getScript() != script) {
+                script = runtime.getScript();
+                executors = activate(script);
+                costs = script.getCosts();
+                compiled = compiled(script);
+            }
         }
         return null;
     }
+
+    /**
+     * Resumes the execution of the specified {@code runtime} while recording the execution in the specified {@link
+     * ScriptProfiler profiler}. This is kept separate from the regular loop so that profiling has no cost when it is
+     * disabled.
+     *
+     * @param runtime  the runtime to resume the execute for.
+     * @param budget   the maximum amount of instructions to execute before the runtime is preempted.
+     * @param profiler the profiler to record the execution in.
+     * @return R the runtime to store if the execution was aborted or preempted.
+     */
+    private R resumeProfiled(R runtime, long budget, ScriptProfiler profiler) {
+        var script = runtime.getScript();
+        var executors = activate(script);
+        var costs = script.getCosts();
+        var profile = profiler.profile(script);
+        var counters = profiler.counters();
+        var address = runtime.getAddress();
+        var remaining = budget;
+        var untilSample = profiler.getSampleInterval();
+        while (address < executors.length) {
+            var executor = executors[address];
+            var cost = costs[address];
+            if (remaining < cost) {
+                if (remaining == 0) {
+                    runtime.moveTo(address);
+                    runtime.preempt();
+                    return runtime;
+                }
+                executor = unfused(script, address);
+                cost = 1;
+            }
+            remaining -= cost;
+            var instructions = script.getInstructions();
+            profiler.count(counters, profile, instructions, address, cost);
+            untilSample -= cost;
+            try {
+                if (untilSample <= 0) {
+                    untilSample = profiler.getSampleInterval();
+                    var stack = ScriptProfiler.collapseStack(runtime);
+                    var start = System.nanoTime();
+                    executor.execute(runtime, address);
+                    profiler.sample(counters, profile, instructions, address, cost, stack, System.nanoTime() - start);
+                } else {
+                    executor.execute(runtime, address);
+                }
+            } catch (RuntimeException e) {
+                runtime.moveTo(address);
+                throw e;
+            }
+            if (!runtime.consumeTransfer()) {
+                address++;
+                continue;
+            }
+            address = runtime.getAddress() + 1;
+            if (runtime.isAbort()) {
+                runtime.moveTo(address);
+                return runtime;
+            }
+            if (runtime.getScript() != script) {
+                script = runtime.getScript();
+                executors = activate(script);
+                costs = script.getCosts();
+                profile = profiler.profile(script);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A fork-join task which executes a range of a batch, splitting it in half until it is under the threshold.
+     *
+     * @author Walied K. Yassen
+     */
+    @RequiredArgsConstructor
+    private final class BatchTask extends RecursiveTask<ScriptBatchResult> {
+
+        /**
+         * The script which we want to execute.
+         */
+        private final Script script;
+
+        /**
+         * The setups of each execution in the batch.
+         */
+        private final List<? extends ScriptRuntimeSetup<R>> setups;
+
+        /**
+         * The handler which takes the ownership of the aborted runtimes.
+         */
+        private final Consumer<R> abortHandler;
+
+        /**
+         * The index of the first execution in the range, inclusive.
+         */
+        private final int from;
+
+        /**
+         * The index of the last execution in the range, exclusive.
+         */
+        private final int to;
+
+        /**
+         * The maximum amount of executions the task can perform without splitting.
+         */
+        private final int threshold;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected ScriptBatchResult compute() {
+            if (to - from > threshold) {
+                var middle = (from + to) >>> 1;
+                var left = new BatchTask(script, setups, abortHandler, from, middle, threshold);
+                left.fork();
+                var right = new BatchTask(script, setups, abortHandler, middle, to, threshold).compute();
+                return left.join().merge(right);
+            }
+            var result = new ScriptBatchResult();
+            var runtime = pool.pop();
+            try {
+                for (var index = from; index < to; index++) {
+                    runtime = executeBatched(runtime, script, setups.get(index), abortHandler, result);
+                }
+            } finally {
+                runtime.close();
+            }
+            return result;
+        }
+    }
 }
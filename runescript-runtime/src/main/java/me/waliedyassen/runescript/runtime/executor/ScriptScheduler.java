@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.var;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A scheduler which round-robins the execution of many preempted {@link ScriptRuntime runtimes}, each runtime is
+ * resumed for a limited instruction budget at a time until the time budget of the tick runs out.
+ * <p>
+ * Runtimes which suspend themselves are parked by the scheduler until they are either signalled with their suspend
+ * reason through {@link #signal(Object)}, or their sleep delay elapses. Parked runtimes are {@link
+ * ScriptRuntime#compact() compacted} so that a large amount of them can be kept around cheaply. The scheduler is
+ * expected to be ticked from a single thread, while runtimes can be scheduled and signalled from any thread.
+ *
+ * @param <R> the type of the runtime.
+ * @author Walied K. Yassen
+ */
+@Slf4j
+@RequiredArgsConstructor
+public final class ScriptScheduler<R extends ScriptRuntime> {
+
+    /**
+     * The runtimes that are waiting to be resumed, in the order they will be resumed in.
+     */
+    private final ConcurrentLinkedQueue<R> runnable = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The runtimes that are parked until they are signalled, indexed by their suspend reason.
+     */
+    private final Map<Object, ArrayDeque<R>> waiting = new ConcurrentHashMap<>();
+
+    /**
+     * The runtimes that are parked until a specific tick, indexed by the tick they should be resumed on.
+     */
+    private final TreeMap<Long, ArrayDeque<R>> sleeping = new TreeMap<>();
+
+    /**
+     * The amount of runtimes that are currently parked.
+     */
+    private final AtomicInteger parked = new AtomicInteger();
+
+    /**
+     * The executor which we use to resume the runtimes.
+     */
+    @Getter
+    private final ScriptExecutor<R> executor;
+
+    /**
+     * The maximum amount of instructions a runtime can execute each time it is resumed.
+     */
+    @Getter
+    private final long quantum;
+
+    /**
+     * The handler of the runtimes which were aborted by the script itself rather than preempted or suspended, or
+     * {@code null} if they should be closed.
+     */
+    @Getter
+    @Setter
+    private Consumer<R> abortHandler;
+
+    /**
+     * The amount of ticks the scheduler has performed.
+     */
+    @Getter
+    private volatile long clock;
+
+    /**
+     * Schedules the specified {@link ScriptRuntime runtime} to be resumed by the scheduler, if the runtime is suspended
+     * it will be parked until it is signalled or its sleep delay elapses.
+     *
+     * @param runtime the runtime which we want to schedule.
+     */
+    public void schedule(R runtime) {
+        if (runtime.isSuspended()) {
+            park(runtime);
+        } else {
+            runnable.offer(runtime);
+        }
+    }
+
+    /**
+     * Wakes up all of the runtimes which are parked with the specified suspend {@code reason}, the runtimes will be
+     * resumed in the next tick.
+     *
+     * @param reason the suspend reason which we want to signal.
+     * @return the amount of runtimes that were woken up.
+     */
+    public int signal(Object reason) {
+        var queue = waiting.remove(reason);
+        if (queue == null) {
+            return 0;
+        }
+        var count = queue.size();
+        runnable.addAll(queue);
+        parked.addAndGet(-count);
+        return count;
+    }
+
+    /**
+     * Parks the specified suspended {@link ScriptRuntime runtime} until it is signalled or its sleep delay elapses.
+     *
+     * @param runtime the runtime which we want to park.
+     */
+    private void park(R runtime) {
+        runtime.compact();
+        parked.incrementAndGet();
+        var reason = runtime.getSuspendReason();
+        if (reason != null) {
+            waiting.compute(reason, (key, queue) -> {
+                if (queue == null) {
+                    queue = new ArrayDeque<>(1);
+                }
+                queue.add(runtime);
+                return queue;
+            });
+        } else {
+            synchronized (sleeping) {
+                sleeping.computeIfAbsent(clock + Math.max(1, runtime.getSuspendDelay()), key -> new ArrayDeque<>(1)).add(runtime);
+            }
+        }
+    }
+
+    /**
+     * Moves all of the sleeping runtimes which are due in the current tick to the runnable queue.
+     */
+    private void wakeSleeping() {
+        synchronized (sleeping) {
+            while (!sleeping.isEmpty() && sleeping.firstKey() <= clock) {
+                var queue = sleeping.pollFirstEntry().getValue();
+                runnable.addAll(queue);
+                parked.addAndGet(-queue.size());
+            }
+        }
+    }
+
+    /**
+     * Advances the clock of the scheduler and then resumes the scheduled runtimes in round-robin order until either
+     * there are no more runtimes to resume or the specified time budget runs out. Runtimes which are preempted again
+     * are put at the back of the queue, runtimes which suspend are parked, runtimes which finish or fail are closed. Any
+     * {@link Error} thrown while resuming a runtime stops the tick and is thrown to the caller.
+     *
+     * @param timeBudget the time budget of the tick in nanoseconds.
+     * @return the amount of times a runtime was resumed.
+     */
+    public int tick(long timeBudget) {
+        var deadline = System.nanoTime() + timeBudget;
+        clock++;
+        wakeSleeping();
+        var resumed = 0;
+        R runtime;
+        while (System.nanoTime() - deadline < 0 && (runtime = runnable.poll()) != null) {
+            resumed++;
+            try {
+                if (executor.resume(runtime, quantum) == null) {
+                    runtime.close();
+                } else if (runtime.isSuspended()) {
+                    park(runtime);
+                } else if (runtime.isPreempted()) {
+                    runnable.offer(runtime);
+                } else if (abortHandler != null) {
+                    abortHandler.accept(runtime);
+                } else {
+                    runtime.close();
+                }
+            } catch (Exception e) {
+                log.error("Error executing script: {}", runtime.getScript().getName(), e);
+                runtime.close();
+            }
+        }
+        return resumed;
+    }
+
+    /**
+     * Returns the amount of runtimes that are waiting to be resumed.
+     *
+     * @return the amount of scheduled runtimes.
+     */
+    public int size() {
+        return runnable.size();
+    }
+
+    /**
+     * Returns the amount of runtimes that are parked, waiting to be signalled or for their sleep delay to elapse.
+     *
+     * @return the amount of parked runtimes.
+     */
+    public int parked() {
+        return parked.get();
+    }
+}
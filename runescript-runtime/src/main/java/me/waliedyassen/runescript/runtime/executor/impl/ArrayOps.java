@@ -10,7 +10,9 @@ package me.waliedyassen.runescript.runtime.executor.impl;
 import lombok.var;
 import me.waliedyassen.runescript.runtime.ScriptRuntime;
 import me.waliedyassen.runescript.runtime.executor.ExecutionException;
-import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutor;
+import me.waliedyassen.runescript.runtime.executor.instruction.AddressedInstructionExecutor;
+
+import java.util.Arrays;
 
 /**
  * Contains all of the common array operations.
@@ -20,47 +22,139 @@ import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecut
 public interface ArrayOps {
 
     /**
-     * Defines a new array storage in the runtime.
+     * The type code of the int primitive type.
+     */
+    int TYPE_INT = 'i';
+
+    /**
+     * The type code of the string primitive type.
      */
-    InstructionExecutor<? extends ScriptRuntime> DEFINE_ARRAY = runtime -> {
-        var id = runtime.intOperand() >> 16;
-        var type = runtime.intOperand() & 0xffff;
+    int TYPE_STRING = 's';
+
+    /**
+     * The type code of the long primitive type.
+     */
+    int TYPE_LONG = '\u00cf';
+
+    /**
+     * Defines a new array storage in the runtime, the storage type is chosen from the array element type.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> DEFINE_ARRAY = (runtime, address) -> {
+        var id = runtime.intOperand(address) >> 16;
+        var type = runtime.intOperand(address) & 0xffff;
         var size = runtime.popInt();
-        if (size < 0 || size > 5000) {
+        if (size < 0 || size > ScriptRuntime.MAX_ARRAY_ELEMENTS) {
             throw new ExecutionException("Failed to execute define_array: invalid array size: " + size);
         }
-        runtime.getArraySize()[id] = size;
-        var defaultValue = -1;
-        if (type == 105) {
-            defaultValue = 0;
-        }
-        for (var index = 0; index < size; index++) {
-            runtime.getArrayElements()[id][index] = defaultValue;
+        switch (type) {
+            case TYPE_STRING:
+                Arrays.fill(runtime.defineStringArray(id, size), 0, size, "");
+                break;
+            case TYPE_LONG:
+                Arrays.fill(runtime.defineLongArray(id, size), 0, size, 0L);
+                break;
+            default:
+                Arrays.fill(runtime.defineArray(id, size), 0, size, type == TYPE_INT ? 0 : -1);
+                break;
         }
     };
 
     /**
      * Pushes an integer value from the array storage.
      */
-    InstructionExecutor<? extends ScriptRuntime> PUSH_ARRAY_INT = runtime -> {
-        var id = runtime.intOperand();
+    AddressedInstructionExecutor<? extends ScriptRuntime> PUSH_ARRAY_INT = (runtime, address) -> {
+        var id = runtime.intOperand(address);
         var index = runtime.popInt();
-        if (index < 0 || index >= runtime.getArraySize()[id]) {
+        var elements = runtime.getArrayElements()[id];
+        if (elements == null && runtime.hasArrayStorage(id)) {
+            throw new ExecutionException("Failed to execute push_array_int: type mismatch: array " + id + " is not an int array");
+        }
+        if (elements == null || index < 0 || index >= runtime.getArraySize()[id]) {
             throw new ExecutionException("Failed to execute push_array_int: invalid array index: " + index);
         }
-        runtime.pushInt(runtime.getArrayElements()[id][index]);
+        runtime.pushInt(elements[index]);
     };
 
     /**
      * Pops an integer value into the array storage.
      */
-    InstructionExecutor<? extends ScriptRuntime> POP_ARRAY_INT = runtime -> {
-        int id = runtime.intOperand();
+    AddressedInstructionExecutor<? extends ScriptRuntime> POP_ARRAY_INT = (runtime, address) -> {
+        var id = runtime.intOperand(address);
         var value = runtime.popInt();
         var index = runtime.popInt();
-        if (index < 0 || index >= runtime.getArraySize()[id]) {
+        var elements = runtime.getArrayElements()[id];
+        if (elements == null && runtime.hasArrayStorage(id)) {
+            throw new ExecutionException("Failed to execute pop_array_int: type mismatch: array " + id + " is not an int array");
+        }
+        if (elements == null || index < 0 || index >= runtime.getArraySize()[id]) {
             throw new ExecutionException("Failed to execute pop_array_int: invalid array index: " + index);
         }
-        runtime.getArrayElements()[id][index] = value;
+        elements[index] = value;
+    };
+
+    /**
+     * Pushes a string value from the array storage.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> PUSH_ARRAY_STRING = (runtime, address) -> {
+        var id = runtime.intOperand(address);
+        var index = runtime.popInt();
+        var elements = runtime.getStringArrayElements()[id];
+        if (elements == null && runtime.hasArrayStorage(id)) {
+            throw new ExecutionException("Failed to execute push_array_string: type mismatch: array " + id + " is not a string array");
+        }
+        if (elements == null || index < 0 || index >= runtime.getArraySize()[id]) {
+            throw new ExecutionException("Failed to execute push_array_string: invalid array index: " + index);
+        }
+        runtime.pushString(elements[index]);
+    };
+
+    /**
+     * Pops a string value into the array storage.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> POP_ARRAY_STRING = (runtime, address) -> {
+        var id = runtime.intOperand(address);
+        var value = runtime.popString();
+        var index = runtime.popInt();
+        var elements = runtime.getStringArrayElements()[id];
+        if (elements == null && runtime.hasArrayStorage(id)) {
+            throw new ExecutionException("Failed to execute pop_array_string: type mismatch: array " + id + " is not a string array");
+        }
+        if (elements == null || index < 0 || index >= runtime.getArraySize()[id]) {
+            throw new ExecutionException("Failed to execute pop_array_string: invalid array index: " + index);
+        }
+        elements[index] = value;
+    };
+
+    /**
+     * Pushes a long value from the array storage.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> PUSH_ARRAY_LONG = (runtime, address) -> {
+        var id = runtime.intOperand(address);
+        var index = runtime.popInt();
+        var elements = runtime.getLongArrayElements()[id];
+        if (elements == null && runtime.hasArrayStorage(id)) {
+            throw new ExecutionException("Failed to execute push_array_long: type mismatch: array " + id + " is not a long array");
+        }
+        if (elements == null || index < 0 || index >= runtime.getArraySize()[id]) {
+            throw new ExecutionException("Failed to execute push_array_long: invalid array index: " + index);
+        }
+        runtime.pushLong(elements[index]);
+    };
+
+    /**
+     * Pops a long value into the array storage.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> POP_ARRAY_LONG = (runtime, address) -> {
+        var id = runtime.intOperand(address);
+        var value = runtime.popLong();
+        var index = runtime.popInt();
+        var elements = runtime.getLongArrayElements()[id];
+        if (elements == null && runtime.hasArrayStorage(id)) {
+            throw new ExecutionException("Failed to execute pop_array_long: type mismatch: array " + id + " is not a long array");
+        }
+        if (elements == null || index < 0 || index >= runtime.getArraySize()[id]) {
+            throw new ExecutionException("Failed to execute pop_array_long: invalid array index: " + index);
+        }
+        elements[index] = value;
     };
 }
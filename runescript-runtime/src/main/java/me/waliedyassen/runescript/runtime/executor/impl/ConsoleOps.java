@@ -8,7 +8,7 @@
 package me.waliedyassen.runescript.runtime.executor.impl;
 
 import me.waliedyassen.runescript.runtime.ScriptRuntime;
-import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutor;
+import me.waliedyassen.runescript.runtime.executor.instruction.AddressedInstructionExecutor;
 
 
 /**
@@ -21,5 +21,5 @@ public interface ConsoleOps {
     /**
      * An instruction which writes to the console of the host VM.
      */
-    InstructionExecutor<? extends ScriptRuntime> WRITECONSOLE = runtime -> System.out.println(runtime.popString());
+    AddressedInstructionExecutor<? extends ScriptRuntime> WRITECONSOLE = (runtime, address) -> System.out.println(runtime.popString());
 }
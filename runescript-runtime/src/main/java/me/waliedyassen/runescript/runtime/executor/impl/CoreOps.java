@@ -10,9 +10,8 @@ package me.waliedyassen.runescript.runtime.executor.impl;
 import lombok.var;
 import me.waliedyassen.runescript.runtime.ScriptRuntime;
 import me.waliedyassen.runescript.runtime.executor.ExecutionException;
-import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutor;
-
-import java.util.Stack;
+import me.waliedyassen.runescript.runtime.executor.instruction.AddressedInstructionExecutor;
+import me.waliedyassen.runescript.runtime.script.SwitchTable;
 
 /**
  * Contains all of the core RuneScript operations.
@@ -24,240 +23,223 @@ public interface CoreOps {
     /**
      * Pushes a constant integer value to the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> PUSH_CONSTANT_INT = runtime -> runtime.pushInt(runtime.intOperand());
+    AddressedInstructionExecutor<? extends ScriptRuntime> PUSH_CONSTANT_INT = (runtime, address) -> runtime.pushInt(runtime.intOperand(address));
 
     /**
      * Pushes a constant string value to the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> PUSH_CONSTANT_STRING = runtime -> runtime.pushString(runtime.stringOperand());
+    AddressedInstructionExecutor<? extends ScriptRuntime> PUSH_CONSTANT_STRING = (runtime, address) -> runtime.pushString(runtime.stringOperand(address));
 
     /**
      * Pushes a long string value to the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> PUSH_CONSTANT_LONG = runtime -> runtime.pushLong(runtime.longOperand());
+    AddressedInstructionExecutor<? extends ScriptRuntime> PUSH_CONSTANT_LONG = (runtime, address) -> runtime.pushLong(runtime.longOperand(address));
 
     /**
      * Discards the last value from the int stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> POP_INT_DISCARD = ScriptRuntime::popInt;
+    AddressedInstructionExecutor<? extends ScriptRuntime> POP_INT_DISCARD = (runtime, address) -> runtime.popInt();
 
     /**
      * Discards the last value from the string stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> POP_STRING_DISCARD = ScriptRuntime::popString;
+    AddressedInstructionExecutor<? extends ScriptRuntime> POP_STRING_DISCARD = (runtime, address) -> runtime.popString();
 
     /**
      * Discards the last value from the long stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> POP_LONG_DISCARD = ScriptRuntime::popLong;
+    AddressedInstructionExecutor<? extends ScriptRuntime> POP_LONG_DISCARD = (runtime, address) -> runtime.popLong();
 
     /**
      * Pushes the value of an integer local field to the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> PUSH_INT_LOCAL = runtime -> runtime.pushInt(runtime.getIntLocals()[runtime.intOperand()]);
+    AddressedInstructionExecutor<? extends ScriptRuntime> PUSH_INT_LOCAL = (runtime, address) -> runtime.pushInt(runtime.getIntLocal(runtime.intOperand(address)));
 
     /**
      * Updates the value of a local field from the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> POP_INT_LOCAL = runtime -> runtime.getIntLocals()[runtime.intOperand()] = runtime.popInt();
+    AddressedInstructionExecutor<? extends ScriptRuntime> POP_INT_LOCAL = (runtime, address) -> runtime.setIntLocal(runtime.intOperand(address), runtime.popInt());
 
     /**
      * Pushes the value of a string local field to the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> PUSH_STRING_LOCAL = runtime -> runtime.pushString(runtime.getStringLocals()[runtime.intOperand()]);
+    AddressedInstructionExecutor<? extends ScriptRuntime> PUSH_STRING_LOCAL = (runtime, address) -> runtime.pushString(runtime.getStringLocal(runtime.intOperand(address)));
 
     /**
      * Updates the value of a string local field from the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> POP_STRING_LOCAL = runtime -> runtime.getStringLocals()[runtime.intOperand()] = runtime.popString();
+    AddressedInstructionExecutor<? extends ScriptRuntime> POP_STRING_LOCAL = (runtime, address) -> runtime.setStringLocal(runtime.intOperand(address), runtime.popString());
 
     /**
      * Pushes the value of an long local field to the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> PUSH_LONG_LOCAL = runtime -> runtime.pushLong(runtime.getLongLocals()[runtime.intOperand()]);
+    AddressedInstructionExecutor<? extends ScriptRuntime> PUSH_LONG_LOCAL = (runtime, address) -> runtime.pushLong(runtime.getLongLocal(runtime.intOperand(address)));
 
     /**
      * Updates the value of a long local field from the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> POP_LONG_LOCAL = runtime -> runtime.getLongLocals()[runtime.intOperand()] = runtime.popLong();
+    AddressedInstructionExecutor<? extends ScriptRuntime> POP_LONG_LOCAL = (runtime, address) -> runtime.setLongLocal(runtime.intOperand(address), runtime.popLong());
 
     /**
      * Branch to an address that is X away from the current address.
      */
-    InstructionExecutor<? extends ScriptRuntime> BRANCH = runtime -> runtime.setAddress(runtime.getAddress() + runtime.intOperand());
+    AddressedInstructionExecutor<? extends ScriptRuntime> BRANCH = (runtime, address) -> runtime.setAddress(address + runtime.intOperand(address));
 
     /**
      * Branch to address that is X away from the current address if the X value is not equal to Y value.
      */
-    InstructionExecutor<? extends ScriptRuntime> BRANCH_NOT = runtime -> {
+    AddressedInstructionExecutor<? extends ScriptRuntime> BRANCH_NOT = (runtime, address) -> {
         var right = runtime.popInt();
         var left = runtime.popInt();
         if (left != right) {
-            runtime.setAddress(runtime.getAddress() + runtime.intOperand());
+            runtime.setAddress(address + runtime.intOperand(address));
         }
     };
 
     /**
      * Branch to address that is X away from the current address if the X value is equal to Y value.
      */
-    InstructionExecutor<? extends ScriptRuntime> BRANCH_EQUALS = runtime -> {
+    AddressedInstructionExecutor<? extends ScriptRuntime> BRANCH_EQUALS = (runtime, address) -> {
         var right = runtime.popInt();
         var left = runtime.popInt();
         if (left == right) {
-            runtime.setAddress(runtime.getAddress() + runtime.intOperand());
+            runtime.setAddress(address + runtime.intOperand(address));
         }
     };
 
     /**
      * Branch to address that is X away from the current address if the X value is less than Y value.
      */
-    InstructionExecutor<? extends ScriptRuntime> BRANCH_LESS_THAN = runtime -> {
+    AddressedInstructionExecutor<? extends ScriptRuntime> BRANCH_LESS_THAN = (runtime, address) -> {
         var right = runtime.popInt();
         var left = runtime.popInt();
         if (left < right) {
-            runtime.setAddress(runtime.getAddress() + runtime.intOperand());
+            runtime.setAddress(address + runtime.intOperand(address));
         }
     };
 
     /**
      * Branch to address that is X away from the current address if the X value is greater than to Y value.
      */
-    InstructionExecutor<? extends ScriptRuntime> BRANCH_GREATER_THAN = runtime -> {
+    AddressedInstructionExecutor<? extends ScriptRuntime> BRANCH_GREATER_THAN = (runtime, address) -> {
         var right = runtime.popInt();
         var left = runtime.popInt();
         if (left > right) {
-            runtime.setAddress(runtime.getAddress() + runtime.intOperand());
+            runtime.setAddress(address + runtime.intOperand(address));
         }
     };
 
     /**
      * Branch to address that is X away from the current address if the X value is greater than to Y value.
      */
-    InstructionExecutor<? extends ScriptRuntime> BRANCH_LESS_THAN_OR_EQUALS = runtime -> {
+    AddressedInstructionExecutor<? extends ScriptRuntime> BRANCH_LESS_THAN_OR_EQUALS = (runtime, address) -> {
         var right = runtime.popInt();
         var left = runtime.popInt();
         if (left <= right) {
-            runtime.setAddress(runtime.getAddress() + runtime.intOperand());
+            runtime.setAddress(address + runtime.intOperand(address));
         }
     };
 
     /**
      * Branch to address that is X away from the current address if the X value is greater than to Y value.
      */
-    InstructionExecutor<? extends ScriptRuntime> BRANCH_GREATER_THAN_OR_EQUALS = runtime -> {
+    AddressedInstructionExecutor<? extends ScriptRuntime> BRANCH_GREATER_THAN_OR_EQUALS = (runtime, address) -> {
         var right = runtime.popInt();
         var left = runtime.popInt();
         if (left >= right) {
-            runtime.setAddress(runtime.getAddress() + runtime.intOperand());
+            runtime.setAddress(address + runtime.intOperand(address));
         }
     };
 
     /**
      * Takes an X amount of strings and combine them into one string then push that into the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> JOIN_STRING = runtime -> {
-        var count = runtime.intOperand();
-        var size = 0;
-        for (var index = 0; index < count; index++) {
-            Stack<String> stack = runtime.getStringStack();
-            var value = stack.get(runtime.getStringStack().size() - count + index);
-            size += value == null ? 4 : value.length();
-        }
-        var builder = new StringBuilder(size);
-        for (var index = 0; index < count; index++) {
-            var value = runtime.getStringStack().get(runtime.getStringStack().size() - count + index);
-            builder.append(value);
+    AddressedInstructionExecutor<? extends ScriptRuntime> JOIN_STRING = (runtime, address) -> {
+        var count = runtime.intOperand(address);
+        var stack = runtime.getStringStack();
+        var base = runtime.getStringStackSize() - count;
+        if (base < 0) {
+            throw new ExecutionException("The string stack has underflown");
         }
-        for (var index = 0; index < count; index++) {
-            runtime.popString();
+        var builder = runtime.borrowStringBuilder();
+        for (var index = base; index < base + count; index++) {
+            builder.append(stack[index]);
         }
-        runtime.pushString(builder.toString());
+        runtime.discardStrings(count);
+        runtime.pushString(runtime.getStringCache().intern(builder));
     };
 
     /**
      * Returns the execution to the script that is one level higher in execution stack or do nothing if there is none.
      */
-    InstructionExecutor<? extends ScriptRuntime> RETURN = runtime -> {
+    AddressedInstructionExecutor<? extends ScriptRuntime> RETURN = (runtime, address) -> {
         if (runtime.getFrames().isEmpty()) {
             return;
         }
-        var frame = runtime.getFrames().pop();
-        runtime.set(frame);
-        ScriptFramePool.push(frame);
+        runtime.popFrame();
     };
 
     /**
      * Jumps to the specific script and returns to the original when the execution is over.
      */
-    InstructionExecutor<? extends ScriptRuntime> GOSUB_WITH_PARAMS = runtime -> {
-        var script = runtime.getPool().getCache().get(runtime.intOperand());
+    AddressedInstructionExecutor<? extends ScriptRuntime> GOSUB_WITH_PARAMS = (runtime, address) -> {
+        var script = runtime.getPool().getCache().get(runtime.intOperand(address));
         if (script == null) {
-            throw new ExecutionException("Failed to resolve script for id: " + runtime.intOperand());
+            throw new ExecutionException("Failed to resolve script for id: " + runtime.intOperand(address));
         }
-        if (runtime.getFrames().size() >= 100) {
-            throw new ExecutionException("Script used more than 100 script frame, possible stuck in an infinite recursion, script: " + script.getName());
+        if (runtime.getFrames().size() >= ScriptRuntime.MAX_FRAMES) {
+            throw new ExecutionException("Script used more than " + ScriptRuntime.MAX_FRAMES + " script frame, possible stuck in an infinite recursion, script: " + script.getName());
         }
-        var frame = ScriptFramePool.pop();
-        frame.set(runtime);
-        runtime.getFrames().push(frame);
-        runtime.setScript(script);
+        runtime.moveTo(address);
+        runtime.pushFrame(script);
         runtime.setAddress(-1);
-        for (var index = 0; index < ScriptRuntime.MAX_LOCALS; index++) {
-            var argument = index < script.getNumIntArguments();
-            runtime.getIntLocals()[argument ? script.getNumIntArguments() - index - 1 : index] = argument ? runtime.popInt() : 0;
-        }
-        for (var index = 0; index < ScriptRuntime.MAX_LOCALS; index++) {
-            var argument = index < script.getNumStringArguments();
-            runtime.getStringLocals()[argument ? script.getNumStringArguments() - index - 1 : index] = argument ? runtime.popString() : null;
-        }
-        for (var index = 0; index < ScriptRuntime.MAX_LOCALS; index++) {
-            var argument = index < script.getNumLongArguments();
-            runtime.getLongLocals()[argument ? script.getNumLongArguments() - index - 1 : index] = argument ? runtime.popLong() : 0;
-        }
+        runtime.popArguments();
     };
 
 
     /**
      * Jumps to the specific script without returning to the original when the execution is over.
      */
-    InstructionExecutor<? extends ScriptRuntime> JUMP_WITH_PARAMS = runtime -> {
-        var script = runtime.getPool().getCache().get(runtime.intOperand());
+    AddressedInstructionExecutor<? extends ScriptRuntime> JUMP_WITH_PARAMS = (runtime, address) -> {
+        var script = runtime.getPool().getCache().get(runtime.intOperand(address));
         if (script == null) {
-            throw new ExecutionException("Failed to resolve script for name: " + runtime.intOperand());
+            throw new ExecutionException("Failed to resolve script for name: " + runtime.intOperand(address));
         }
+        runtime.clearFrames();
         runtime.setScript(script);
         runtime.setAddress(-1);
-        for (var index = 0; index < ScriptRuntime.MAX_LOCALS; index++) {
-            var argument = index < script.getNumIntArguments();
-            runtime.getIntLocals()[argument ? script.getNumIntArguments() - index - 1 : index] = argument ? runtime.popInt() : 0;
-        }
-        for (var index = 0; index < ScriptRuntime.MAX_LOCALS; index++) {
-            var argument = index < script.getNumStringArguments();
-            runtime.getStringLocals()[argument ? script.getNumStringArguments() - index - 1 : index] = argument ? runtime.popString() : null;
-        }
-        for (var index = 0; index < ScriptRuntime.MAX_LOCALS; index++) {
-            var argument = index < script.getNumLongArguments();
-            runtime.getLongLocals()[argument ? script.getNumLongArguments() - index - 1 : index] = argument ? runtime.popLong() : 0;
-        }
-        runtime.getIntStack().clear();
-        runtime.getStringStack().clear();
-        runtime.getLongStack().clear();
-        while (!runtime.getFrames().isEmpty()) {
-            ScriptFramePool.push(runtime.getFrames().pop());
-        }
+        runtime.popArguments();
+        runtime.clearStacks();
+    };
+
+    /**
+     * Suspends the execution until the runtime is signalled with the reason of the operand value.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> SUSPEND = (runtime, address) -> {
+        runtime.moveTo(address);
+        runtime.suspend(runtime.intOperand(address));
+    };
+
+    /**
+     * Suspends the execution for the amount of scheduler ticks on the stack.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> SLEEP = (runtime, address) -> {
+        var delay = runtime.popInt();
+        runtime.moveTo(address);
+        runtime.sleep(delay);
     };
 
     /**
      * Performs a switch statement for the value on the stack with the switch table of the operand value.
      */
-    InstructionExecutor<? extends ScriptRuntime> SWITCH = runtime -> {
-        var switchTable = runtime.getScript().getSwitchTable()[runtime.intOperand()];
+    AddressedInstructionExecutor<? extends ScriptRuntime> SWITCH = (runtime, address) -> {
+        var switchTable = runtime.getScript().getSwitchTable()[runtime.intOperand(address)];
         if (switchTable == null) {
-            throw new ExecutionException("Failed to find a switch table for switch index: " + runtime.intOperand());
+            throw new ExecutionException("Failed to find a switch table for switch index: " + runtime.intOperand(address));
         }
-        var jump = switchTable.get(runtime.popInt());
-        if (jump != null) {
-            runtime.setAddress(runtime.getAddress() + jump);
+        var jump = switchTable.lookup(runtime.popInt());
+        if (jump != SwitchTable.NO_JUMP) {
+            runtime.setAddress(address + jump);
         }
     };
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.impl;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.executor.instruction.AddressedInstructionExecutor;
+import me.waliedyassen.runescript.runtime.executor.instruction.InstructionFuser;
+
+/**
+ * Contains all of the fused (super) instructions, each one performs a common sequence of {@link CoreOps} and {@link
+ * MathOps} instructions in a single dispatch without going through the operand stacks.
+ * <p>
+ * A fused instruction is executed at the address of the first instruction of its sequence and leaves the execution
+ * address at the last instruction of the sequence, the same as if the sequence was executed one by one.
+ *
+ * @author Walied K. Yassen
+ * @see InstructionFuser
+ */
+public interface FusedOps {
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_constant_int} and {@code branch_equals}.
+     * Branches if the int local is equal to a constant.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_CONSTANT_BRANCH_EQUALS = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = operands[address + 1];
+        runtime.setAddress(left == right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_constant_int} and {@code branch_not}.
+     * Branches if the int local is not equal to a constant.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_CONSTANT_BRANCH_NOT = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = operands[address + 1];
+        runtime.setAddress(left != right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_constant_int} and {@code branch_less_than}.
+     * Branches if the int local is less than a constant.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_CONSTANT_BRANCH_LESS_THAN = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = operands[address + 1];
+        runtime.setAddress(left < right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_constant_int} and {@code branch_greater_than}.
+     * Branches if the int local is greater than a constant.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_CONSTANT_BRANCH_GREATER_THAN = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = operands[address + 1];
+        runtime.setAddress(left > right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_constant_int} and {@code branch_less_than_or_equals}.
+     * Branches if the int local is less than or equal to a constant.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_CONSTANT_BRANCH_LESS_THAN_OR_EQUALS = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = operands[address + 1];
+        runtime.setAddress(left <= right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_constant_int} and {@code branch_greater_than_or_equals}.
+     * Branches if the int local is greater than or equal to a constant.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_CONSTANT_BRANCH_GREATER_THAN_OR_EQUALS = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = operands[address + 1];
+        runtime.setAddress(left >= right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_int_local} and {@code branch_equals}.
+     * Branches if the int local is equal to an int local.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_LOCAL_BRANCH_EQUALS = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = runtime.getIntLocal(operands[address + 1]);
+        runtime.setAddress(left == right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_int_local} and {@code branch_not}.
+     * Branches if the int local is not equal to an int local.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_LOCAL_BRANCH_NOT = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = runtime.getIntLocal(operands[address + 1]);
+        runtime.setAddress(left != right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_int_local} and {@code branch_less_than}.
+     * Branches if the int local is less than an int local.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_LOCAL_BRANCH_LESS_THAN = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = runtime.getIntLocal(operands[address + 1]);
+        runtime.setAddress(left < right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_int_local} and {@code branch_greater_than}.
+     * Branches if the int local is greater than an int local.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_LOCAL_BRANCH_GREATER_THAN = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = runtime.getIntLocal(operands[address + 1]);
+        runtime.setAddress(left > right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_int_local} and {@code branch_less_than_or_equals}.
+     * Branches if the int local is less than or equal to an int local.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_LOCAL_BRANCH_LESS_THAN_OR_EQUALS = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = runtime.getIntLocal(operands[address + 1]);
+        runtime.setAddress(left <= right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_int_local} and {@code branch_greater_than_or_equals}.
+     * Branches if the int local is greater than or equal to an int local.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_LOCAL_BRANCH_GREATER_THAN_OR_EQUALS = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var left = runtime.getIntLocal(operands[address]);
+        var right = runtime.getIntLocal(operands[address + 1]);
+        runtime.setAddress(left >= right ? address + 2 + operands[address + 2] : address + 2);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_constant_int}, {@code add} and {@code pop_int_local}.
+     * Stores the sum of an int local and a constant into an int local.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_CONSTANT_ADD_TO_LOCAL = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var sum = runtime.getIntLocal(operands[address]) + operands[address + 1];
+        runtime.setIntLocal(operands[address + 3], sum);
+        runtime.setAddress(address + 3);
+    };
+
+    /**
+     * Fuses {@code push_int_local}, {@code push_int_local}, {@code add} and {@code pop_int_local}.
+     * Stores the sum of an int local and an int local into an int local.
+     */
+    AddressedInstructionExecutor<? extends ScriptRuntime> LOCAL_LOCAL_ADD_TO_LOCAL = (runtime, address) -> {
+        var operands = runtime.getScript().getIntOperands();
+        var sum = runtime.getIntLocal(operands[address]) + runtime.getIntLocal(operands[address + 1]);
+        runtime.setIntLocal(operands[address + 3], sum);
+        runtime.setAddress(address + 3);
+    };
+}
@@ -8,7 +8,7 @@
 package me.waliedyassen.runescript.runtime.executor.impl;
 
 import me.waliedyassen.runescript.runtime.ScriptRuntime;
-import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutor;
+import me.waliedyassen.runescript.runtime.executor.instruction.AddressedInstructionExecutor;
 
 /**
  * Contains all of the common math operations.
@@ -20,37 +20,37 @@ public interface MathOps {
     /**
      * A math operation which pops two ints from the stack, adds them, then pushes the result onto the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> ADD = runtime -> runtime.pushInt(runtime.popInt() + runtime.popInt());
+    AddressedInstructionExecutor<? extends ScriptRuntime> ADD = (runtime, address) -> runtime.pushInt(runtime.popInt() + runtime.popInt());
 
     /**
      * A math operation which pops two ints from the stack, subtracts them, then pushes the result onto the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> SUB = runtime -> runtime.pushInt(runtime.popInt() - runtime.popInt());
+    AddressedInstructionExecutor<? extends ScriptRuntime> SUB = (runtime, address) -> runtime.pushInt(runtime.popInt() - runtime.popInt());
 
     /**
      * A math operation which pops two ints from the stack, multiplies them, then pushes the result onto the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> MUL = runtime -> runtime.pushInt(runtime.popInt() * runtime.popInt());
+    AddressedInstructionExecutor<? extends ScriptRuntime> MUL = (runtime, address) -> runtime.pushInt(runtime.popInt() * runtime.popInt());
 
     /**
      * A math operation which pops two ints from the stack, divides them, then pushes the result onto the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> DIV = runtime -> runtime.pushInt(runtime.popInt() / runtime.popInt());
+    AddressedInstructionExecutor<? extends ScriptRuntime> DIV = (runtime, address) -> runtime.pushInt(runtime.popInt() / runtime.popInt());
 
     /**
      * A math operation which pops an int from the stack, then pushes a random number between 0 and the value.
      */
-    InstructionExecutor<? extends ScriptRuntime> RANDOM = runtime -> runtime.pushInt((int) (Math.random() * runtime.popInt()));
+    AddressedInstructionExecutor<? extends ScriptRuntime> RANDOM = (runtime, address) -> runtime.pushInt((int) (Math.random() * runtime.popInt()));
 
     /**
      * A math operation which pops an int from the stack, then pushes a random number between 0 and the value inclusively.
      */
-    InstructionExecutor<? extends ScriptRuntime> RANDOMINC = runtime -> runtime.pushInt((int) (Math.random() * (runtime.popInt()) + 1));
+    AddressedInstructionExecutor<? extends ScriptRuntime> RANDOMINC = (runtime, address) -> runtime.pushInt((int) (Math.random() * (runtime.popInt()) + 1));
 
     /**
      * A math operation which pops five ints from the stack and pushes one value onto the stack.
      */
-    InstructionExecutor<? extends ScriptRuntime> INTERPOLATE = runtime -> {
+    AddressedInstructionExecutor<? extends ScriptRuntime> INTERPOLATE = (runtime, address) -> {
         int base = runtime.popInt();
         int original_from = runtime.popInt();
         int original_to = runtime.popInt();
@@ -8,7 +8,7 @@
 package me.waliedyassen.runescript.runtime.executor.impl;
 
 import me.waliedyassen.runescript.runtime.ScriptRuntime;
-import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutor;
+import me.waliedyassen.runescript.runtime.executor.instruction.AddressedInstructionExecutor;
 
 /**
  * Contains all of the common string operations.
@@ -20,5 +20,5 @@ public interface StringOps {
     /**
      * Takes an X integer and turn it into a string form.
      */
-    InstructionExecutor<? extends ScriptRuntime> TOSTRING = runtime -> runtime.pushString(Integer.toString(runtime.popInt()));
+    AddressedInstructionExecutor<? extends ScriptRuntime> TOSTRING = (runtime, address) -> runtime.pushString(Integer.toString(runtime.popInt()));
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.instruction;
+
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.executor.ExecutionException;
+
+/**
+ * An instruction executor which is given the address of its instruction rather than reading it from the runtime, so
+ * the interpreter does not have to move the runtime to every instruction it executes.
+ * <p>
+ * The address of the runtime is not in sync when the executor is called, so an executor that signals a control
+ * transfer must leave the runtime at the address the transfer happened at, e.g. by calling {@link
+ * ScriptRuntime#moveTo(int)} before it aborts the execution or saves the execution frame.
+ *
+ * @author Walied K. Yassen
+ */
+@FunctionalInterface
+public interface AddressedInstructionExecutor<R extends ScriptRuntime> extends InstructionExecutor<R> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void execute(R runtime, int address) throws ExecutionException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default void execute(R runtime) throws ExecutionException {
+        execute(runtime, runtime.getAddress());
+    }
+}
@@ -25,4 +25,19 @@ public interface InstructionExecutor<R extends ScriptRuntime> {
      * @throws ExecutionException if anything occurs during the execution of the instruction.
      */
     void execute(R runtime) throws ExecutionException;
+
+    /**
+     * Executes the instruction at the specified {@code address} in the specified runtime. The interpreter does not keep
+     * the address of the runtime in sync while executing, so this moves the runtime to the address first to keep the
+     * operand accessors of the runtime working.
+     *
+     * @param runtime the runtime we are executing the instruction in.
+     * @param address the address of the instruction.
+     * @throws ExecutionException if anything occurs during the execution of the instruction.
+     * @see AddressedInstructionExecutor
+     */
+    default void execute(R runtime, int address) throws ExecutionException {
+        runtime.moveTo(address);
+        execute(runtime);
+    }
 }
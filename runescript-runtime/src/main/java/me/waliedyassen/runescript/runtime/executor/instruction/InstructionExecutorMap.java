@@ -7,8 +7,12 @@
  */
 package me.waliedyassen.runescript.runtime.executor.instruction;
 
-import java.util.HashMap;
-import java.util.Map;
+import lombok.Getter;
+import lombok.var;
+import me.waliedyassen.runescript.runtime.executor.ExecutionException;
+import me.waliedyassen.runescript.runtime.script.Script;
+
+import java.util.Arrays;
 
 /**
  * A map of {@link InstructionExecutor} objects.
@@ -18,9 +22,26 @@ import java.util.Map;
 public final class InstructionExecutorMap {
 
     /**
-     * A look-up for all of the {@link InstructionExecutor instruction executor}s by their associated instruction id.
+     * The initial capacity of the dispatch table before any opcode is registered.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * A dispatch table for all of the {@link InstructionExecutor instruction executor}s indexed by their associated
+     * opcode.
+     */
+    private InstructionExecutor[] executors = new InstructionExecutor[INITIAL_CAPACITY];
+
+    /**
+     * The highest opcode that was registered in the map.
      */
-    private final Map<Integer, InstructionExecutor> executorsByOpcode = new HashMap<>();
+    private int maxOpcode = -1;
+
+    /**
+     * Whether or not the map has been frozen and no longer accepts registrations.
+     */
+    @Getter
+    private boolean frozen;
 
     /**
      * Registers a new {@link InstructionExecutor} into the map.
@@ -31,10 +52,35 @@ public final class InstructionExecutorMap {
      *         the executor object to register.
      */
     public void register(int opcode, InstructionExecutor executor) {
-        if (executorsByOpcode.containsKey(opcode)) {
+        if (frozen) {
+            throw new IllegalStateException("The InstructionExecutorMap is frozen and cannot accept new registrations");
+        }
+        if (opcode < 0) {
+            throw new IllegalArgumentException("The specified opcode cannot be negative: " + opcode);
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("The specified executor cannot be null");
+        }
+        if (opcode >= executors.length) {
+            executors = Arrays.copyOf(executors, Math.max(opcode + 1, executors.length * 2));
+        }
+        if (executors[opcode] != null) {
             throw new IllegalArgumentException("The specified opcode is already registered for another InstructionExecutor");
         }
-        executorsByOpcode.put(opcode, executor);
+        executors[opcode] = executor;
+        maxOpcode = Math.max(maxOpcode, opcode);
+    }
+
+    /**
+     * Freezes the map, trimming the dispatch table down to the highest registered opcode. Any further call to {@link
+     * #register(int, InstructionExecutor)} will fail.
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        executors = Arrays.copyOf(executors, maxOpcode + 1);
+        frozen = true;
     }
 
     /**
@@ -46,6 +92,34 @@ public final class InstructionExecutorMap {
      * @return the {@link InstructionExecutor} object if it was present otherwise {@code null}.
      */
     public InstructionExecutor lookup(int opcode) {
-        return executorsByOpcode.get(opcode);
+        if (opcode < 0 || opcode >= executors.length) {
+            return null;
+        }
+        return executors[opcode];
+    }
+
+    /**
+     * Resolves the {@link InstructionExecutor} of every instruction in the specified {@link Script}, so the interpreter
+     * does not have to look-up the executors while executing.
+     *
+     * @param script
+     *         the script which we want to link.
+     *
+     * @return the resolved {@link InstructionExecutor} array of the script, one per instruction.
+     * @throws ExecutionException
+     *         if any of the script instructions has no registered executor.
+     */
+    public InstructionExecutor[] link(Script script) {
+        var instructions = script.getInstructions();
+        var bound = new InstructionExecutor[instructions.length];
+        for (var address = 0; address < instructions.length; address++) {
+            var opcode = instructions[address];
+            var executor = lookup(opcode);
+            if (executor == null) {
+                throw new ExecutionException("Missing InstructionExecutor for instruction with opcode: " + opcode + " in script: " + script.getName());
+            }
+            bound[address] = executor;
+        }
+        return bound;
     }
 }
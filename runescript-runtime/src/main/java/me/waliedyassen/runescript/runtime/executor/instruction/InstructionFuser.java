@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.instruction;
+
+import lombok.RequiredArgsConstructor;
+import lombok.var;
+import me.waliedyassen.runescript.runtime.executor.impl.CoreOps;
+import me.waliedyassen.runescript.runtime.executor.impl.FusedOps;
+import me.waliedyassen.runescript.runtime.executor.impl.MathOps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A load-time rewriting pass which replaces common sequences of bound {@link InstructionExecutor}s with a single fused
+ * {@link InstructionExecutor}.
+ * <p>
+ * Only the executor of the first instruction of a matched sequence is replaced, the rest of the sequence is left in
+ * place. This means the instructions, the branch offsets and the switch tables of the script stay untouched, and any
+ * jump into the middle of a fused sequence still executes the original instructions.
+ *
+ * @author Walied K. Yassen
+ */
+public final class InstructionFuser {
+
+    /**
+     * The registered fusion patterns, in the order they are tried.
+     */
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    /**
+     * Creates a new {@link InstructionFuser} with all of the {@link FusedOps} patterns registered.
+     *
+     * @return the created {@link InstructionFuser} object.
+     */
+    public static InstructionFuser createDefault() {
+        var fuser = new InstructionFuser();
+        fuser.register(FusedOps.LOCAL_CONSTANT_ADD_TO_LOCAL, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_CONSTANT_INT, MathOps.ADD, CoreOps.POP_INT_LOCAL);
+        fuser.register(FusedOps.LOCAL_LOCAL_ADD_TO_LOCAL, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_INT_LOCAL, MathOps.ADD, CoreOps.POP_INT_LOCAL);
+        fuser.register(FusedOps.LOCAL_CONSTANT_BRANCH_EQUALS, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_CONSTANT_INT, CoreOps.BRANCH_EQUALS);
+        fuser.register(FusedOps.LOCAL_CONSTANT_BRANCH_NOT, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_CONSTANT_INT, CoreOps.BRANCH_NOT);
+        fuser.register(FusedOps.LOCAL_CONSTANT_BRANCH_LESS_THAN, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_CONSTANT_INT, CoreOps.BRANCH_LESS_THAN);
+        fuser.register(FusedOps.LOCAL_CONSTANT_BRANCH_GREATER_THAN, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_CONSTANT_INT, CoreOps.BRANCH_GREATER_THAN);
+        fuser.register(FusedOps.LOCAL_CONSTANT_BRANCH_LESS_THAN_OR_EQUALS, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_CONSTANT_INT, CoreOps.BRANCH_LESS_THAN_OR_EQUALS);
+        fuser.register(FusedOps.LOCAL_CONSTANT_BRANCH_GREATER_THAN_OR_EQUALS, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_CONSTANT_INT, CoreOps.BRANCH_GREATER_THAN_OR_EQUALS);
+        fuser.register(FusedOps.LOCAL_LOCAL_BRANCH_EQUALS, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_INT_LOCAL, CoreOps.BRANCH_EQUALS);
+        fuser.register(FusedOps.LOCAL_LOCAL_BRANCH_NOT, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_INT_LOCAL, CoreOps.BRANCH_NOT);
+        fuser.register(FusedOps.LOCAL_LOCAL_BRANCH_LESS_THAN, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_INT_LOCAL, CoreOps.BRANCH_LESS_THAN);
+        fuser.register(FusedOps.LOCAL_LOCAL_BRANCH_GREATER_THAN, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_INT_LOCAL, CoreOps.BRANCH_GREATER_THAN);
+        fuser.register(FusedOps.LOCAL_LOCAL_BRANCH_LESS_THAN_OR_EQUALS, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_INT_LOCAL, CoreOps.BRANCH_LESS_THAN_OR_EQUALS);
+        fuser.register(FusedOps.LOCAL_LOCAL_BRANCH_GREATER_THAN_OR_EQUALS, CoreOps.PUSH_INT_LOCAL, CoreOps.PUSH_INT_LOCAL, CoreOps.BRANCH_GREATER_THAN_OR_EQUALS);
+        return fuser;
+    }
+
+    /**
+     * Registers a new fusion pattern. The patterns are tried in the order they were registered in.
+     *
+     * @param fused    the fused executor which replaces the sequence.
+     * @param sequence the sequence of executors to replace.
+     */
+    public void register(InstructionExecutor fused, InstructionExecutor... sequence) {
+        if (sequence.length < 2) {
+            throw new IllegalArgumentException("A fusion pattern must have at least two instructions");
+        }
+        patterns.add(new Pattern(fused, sequence.clone()));
+    }
+
+    /**
+     * Fuses all of the matching sequences in the specified bound executors array, and records the length of each fused
+     * sequence in the specified costs array so the execution budget is charged for every instruction it covers.
+     *
+     * @param executors the bound executors of a script.
+     * @param costs     the amount of instructions each of the bound executors covers.
+     * @return the amount of sequences that were fused.
+     */
+    public int fuse(InstructionExecutor[] executors, int[] costs) {
+        var fused = 0;
+        for (var address = 0; address < executors.length; address++) {
+            for (var pattern : patterns) {
+                if (pattern.matches(executors, address)) {
+                    executors[address] = pattern.fused;
+                    costs[address] = pattern.sequence.length;
+                    fused++;
+                    break;
+                }
+            }
+        }
+        return fused;
+    }
+
+    /**
+     * A fusion pattern.
+     */
+    @RequiredArgsConstructor
+    private static final class Pattern {
+
+        /**
+         * The fused executor which replaces the sequence.
+         */
+        private final InstructionExecutor fused;
+
+        /**
+         * The sequence of executors to replace.
+         */
+        private final InstructionExecutor[] sequence;
+
+        /**
+         * Checks whether or not the sequence of this pattern starts at the specified {@code address}.
+         *
+         * @param executors the bound executors of the script.
+         * @param address   the address to check at.
+         * @return {@code true} if it does otherwise {@code false}.
+         */
+        boolean matches(InstructionExecutor[] executors, int address) {
+            if (address + sequence.length > executors.length) {
+                return false;
+            }
+            for (var index = 0; index < sequence.length; index++) {
+                if (executors[address + index] != sequence[index]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
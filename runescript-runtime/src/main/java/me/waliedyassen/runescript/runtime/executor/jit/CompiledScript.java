@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.jit;
+
+import lombok.AccessLevel;
+import lombok.Setter;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.script.Script;
+
+/**
+ * The base class of every JVM class that is generated by the {@link ScriptJit} for a {@link Script}.
+ *
+ * @author Walied K. Yassen
+ */
+public abstract class CompiledScript {
+
+    /**
+     * Whether or not each address of the script starts a basic block, the compiled code can only be entered at these.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private boolean[] entries;
+
+    /**
+     * Checks whether or not the compiled code can be entered at the specified {@code address}, which is only the case
+     * for the start of a basic block.
+     *
+     * @param address the address to check.
+     * @return {@code true} if it can otherwise {@code false}.
+     */
+    public boolean isEntry(int address) {
+        return entries[address];
+    }
+
+    /**
+     * Executes the compiled script in the specified {@code runtime}, starting at the specified {@code address}.
+     * <p>
+     * The compiled code only enters at the start of a basic block, and it charges the budget for a whole basic block
+     * before executing it. The execution returns to the interpreter when:
+     * <ul>
+     * <li>An instruction which is not compiled inline (a call, a return, a suspension or an abort) signals a control
+     * transfer, in which case the transfer is left signalled for the interpreter to handle.</li>
+     * <li>The address is not the start of a basic block, or the remaining budget is not enough for the next basic block,
+     * in which case the runtime is left at the instruction that the interpreter should execute next.</li>
+     * <li>The end of the script is reached.</li>
+     * </ul>
+     *
+     * @param runtime the runtime to execute the script in.
+     * @param address the address to start the execution at.
+     * @param budget  the remaining instruction budget.
+     * @return the remaining instruction budget after the execution.
+     */
+    public abstract long execute(ScriptRuntime runtime, int address, long budget);
+
+    /**
+     * Returns the constant at the specified {@code index} of the specified generated class. This is called by the static
+     * initializer of the generated class to initialize its constant fields.
+     *
+     * @param type  the generated class.
+     * @param index the index of the constant.
+     * @return the constant object.
+     */
+    protected static Object constant(Class<?> type, int index) {
+        return ((ScriptJit.Loader) type.getClassLoader()).getConstants()[index];
+    }
+}
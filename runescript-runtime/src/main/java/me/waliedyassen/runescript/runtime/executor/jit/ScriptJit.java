@@ -0,0 +1,1027 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.jit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.var;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.executor.impl.ArrayOps;
+import me.waliedyassen.runescript.runtime.executor.impl.CoreOps;
+import me.waliedyassen.runescript.runtime.executor.impl.MathOps;
+import me.waliedyassen.runescript.runtime.executor.impl.StringOps;
+import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutor;
+import me.waliedyassen.runescript.runtime.script.Script;
+import me.waliedyassen.runescript.runtime.script.SwitchTable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The JIT execution tier of hot scripts. It compiles the instructions of a {@link Script} into a method of a generated
+ * JVM class, which the JVM then optimises like any other Java code.
+ * <p>
+ * The {@link CoreOps} constant, discard, local, branch and switch instructions and the {@link MathOps} arithmetic
+ * instructions are compiled inline. Within a basic block the int and long stack values are kept in JVM locals, and they
+ * are only written back to the runtime stacks at the end of the block or before an instruction that is not compiled
+ * inline. Every other instruction, including the {@link ArrayOps}, the {@link StringOps} and the user commands, is
+ * compiled into a direct call of its own executor, which is stored in a constant static field so the JVM can inline
+ * it. This keeps the semantics of every instruction exactly the same as in the interpreter.
+ * <p>
+ * Any script which cannot be compiled (i.e. its method would be too large) is left to the interpreter.
+ *
+ * @author Walied K. Yassen
+ * @see CompiledScript
+ */
+public final class ScriptJit {
+
+    /**
+     * The internal name of the {@link ScriptRuntime} class.
+     */
+    private static final String RUNTIME = Type.getInternalName(ScriptRuntime.class);
+
+    /**
+     * The internal name of the {@link InstructionExecutor} class.
+     */
+    private static final String EXECUTOR = Type.getInternalName(InstructionExecutor.class);
+
+    /**
+     * The internal name of the {@link SwitchTable} class.
+     */
+    private static final String SWITCH_TABLE = Type.getInternalName(SwitchTable.class);
+
+    /**
+     * The internal name of the {@link CompiledScript} class.
+     */
+    private static final String COMPILED_SCRIPT = Type.getInternalName(CompiledScript.class);
+
+    /**
+     * The internal name prefix of the generated classes.
+     */
+    private static final String CLASS_PREFIX = "me/waliedyassen/runescript/runtime/executor/jit/Compiled$";
+
+    /**
+     * The JVM local slot of the runtime parameter in the generated method.
+     */
+    private static final int RUNTIME_SLOT = 1;
+
+    /**
+     * The JVM local slot of the address parameter in the generated method.
+     */
+    private static final int ADDRESS_SLOT = 2;
+
+    /**
+     * The JVM local slot of the budget parameter in the generated method.
+     */
+    private static final int BUDGET_SLOT = 3;
+
+    /**
+     * The first JVM local slot which is free for the stack values in the generated method.
+     */
+    private static final int FIRST_VALUE_SLOT = 5;
+
+    /**
+     * The operations which are compiled inline, indexed by the executor they replace.
+     */
+    private final Map<InstructionExecutor, Operation> operations = new IdentityHashMap<>();
+
+    /**
+     * The amount of classes which were generated by the JIT, used to give each class a unique name.
+     */
+    private final AtomicInteger generated = new AtomicInteger();
+
+    /**
+     * Constructs a new {@link ScriptJit} type object instance.
+     */
+    public ScriptJit() {
+        operations.put(CoreOps.PUSH_CONSTANT_INT, Operation.PUSH_CONSTANT_INT);
+        operations.put(CoreOps.PUSH_CONSTANT_STRING, Operation.PUSH_CONSTANT_STRING);
+        operations.put(CoreOps.PUSH_CONSTANT_LONG, Operation.PUSH_CONSTANT_LONG);
+        operations.put(CoreOps.POP_INT_DISCARD, Operation.POP_INT_DISCARD);
+        operations.put(CoreOps.POP_STRING_DISCARD, Operation.POP_STRING_DISCARD);
+        operations.put(CoreOps.POP_LONG_DISCARD, Operation.POP_LONG_DISCARD);
+        operations.put(CoreOps.PUSH_INT_LOCAL, Operation.PUSH_INT_LOCAL);
+        operations.put(CoreOps.POP_INT_LOCAL, Operation.POP_INT_LOCAL);
+        operations.put(CoreOps.PUSH_STRING_LOCAL, Operation.PUSH_STRING_LOCAL);
+        operations.put(CoreOps.POP_STRING_LOCAL, Operation.POP_STRING_LOCAL);
+        operations.put(CoreOps.PUSH_LONG_LOCAL, Operation.PUSH_LONG_LOCAL);
+        operations.put(CoreOps.POP_LONG_LOCAL, Operation.POP_LONG_LOCAL);
+        operations.put(CoreOps.BRANCH, Operation.BRANCH);
+        operations.put(CoreOps.BRANCH_NOT, Operation.BRANCH_NOT);
+        operations.put(CoreOps.BRANCH_EQUALS, Operation.BRANCH_EQUALS);
+        operations.put(CoreOps.BRANCH_LESS_THAN, Operation.BRANCH_LESS_THAN);
+        operations.put(CoreOps.BRANCH_GREATER_THAN, Operation.BRANCH_GREATER_THAN);
+        operations.put(CoreOps.BRANCH_LESS_THAN_OR_EQUALS, Operation.BRANCH_LESS_THAN_OR_EQUALS);
+        operations.put(CoreOps.BRANCH_GREATER_THAN_OR_EQUALS, Operation.BRANCH_GREATER_THAN_OR_EQUALS);
+        operations.put(CoreOps.SWITCH, Operation.SWITCH);
+        operations.put(MathOps.ADD, Operation.ADD);
+        operations.put(MathOps.SUB, Operation.SUB);
+        operations.put(MathOps.MUL, Operation.MUL);
+        operations.put(MathOps.DIV, Operation.DIV);
+    }
+
+    /**
+     * Compiles the specified {@link Script} into a new {@link CompiledScript}.
+     *
+     * @param script    the script which we want to compile.
+     * @param executors the unfused bound executors of the script.
+     * @return the compiled script or {@code null} if the script could not be compiled.
+     */
+    public CompiledScript compile(Script script, InstructionExecutor[] executors) {
+        if (executors.length == 0) {
+            return null;
+        }
+        try {
+            return new Compilation(script, executors).define();
+        } catch (RuntimeException | LinkageError | ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a JVM class name for the specified {@link Script}, the name of the script is kept so the generated class
+     * can be recognised in stack traces and profilers.
+     *
+     * @param script the script to create the class name for.
+     * @return the internal name of the class.
+     */
+    private String createClassName(Script script) {
+        var builder = new StringBuilder(CLASS_PREFIX);
+        for (var index = 0; index < script.getName().length(); index++) {
+            var ch = script.getName().charAt(index);
+            builder.append(Character.isJavaIdentifierPart(ch) ? ch : '_');
+        }
+        return builder.append('$').append(generated.incrementAndGet()).toString();
+    }
+
+    /**
+     * The compilation of a single {@link Script}.
+     *
+     * @author Walied K. Yassen
+     */
+    private final class Compilation {
+
+        /**
+         * The script which is being compiled.
+         */
+        private final Script script;
+
+        /**
+         * The unfused bound executors of the script.
+         */
+        private final InstructionExecutor[] executors;
+
+        /**
+         * The inline operation of each instruction, or {@code null} if the instruction calls its executor.
+         */
+        private final Operation[] operations;
+
+        /**
+         * Whether or not each address starts a basic block, including the address past the last instruction.
+         */
+        private final boolean[] leaders;
+
+        /**
+         * The label of each address, including the address past the last instruction.
+         */
+        private final Label[] labels;
+
+        /**
+         * The internal name of the generated class.
+         */
+        private final String className;
+
+        /**
+         * The constants which are stored in the static fields of the generated class.
+         */
+        private final List<Object> constants = new ArrayList<>();
+
+        /**
+         * The descriptors of the constants static fields.
+         */
+        private final List<String> constantDescriptors = new ArrayList<>();
+
+        /**
+         * The int stack values of the current basic block that were not written back to the runtime yet.
+         */
+        private final List<Value> ints = new ArrayList<>();
+
+        /**
+         * The long stack values of the current basic block that were not written back to the runtime yet.
+         */
+        private final List<Value> longs = new ArrayList<>();
+
+        /**
+         * The generated class writer.
+         */
+        private final ClassWriter writer;
+
+        /**
+         * The generated method visitor.
+         */
+        private MethodVisitor mv;
+
+        /**
+         * The next free JVM local slot for the stack values of the current basic block.
+         */
+        private int nextSlot;
+
+        /**
+         * The address of the instruction which is being generated.
+         */
+        private int current;
+
+        /**
+         * Whether or not the generated code already moved the runtime to the {@link #current} instruction.
+         */
+        private boolean moved;
+
+        /**
+         * Constructs a new {@link Compilation} type object instance.
+         *
+         * @param script    the script which we want to compile.
+         * @param executors the unfused bound executors of the script.
+         */
+        Compilation(Script script, InstructionExecutor[] executors) {
+            this.script = script;
+            this.executors = executors;
+            operations = new Operation[executors.length];
+            leaders = new boolean[executors.length + 1];
+            labels = new Label[executors.length + 1];
+            className = createClassName(script);
+            writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+                @Override
+                protected String getCommonSuperClass(String type1, String type2) {
+                    // The generated method never merges two different reference types.
+                    return "java/lang/Object";
+                }
+            };
+        }
+
+        /**
+         * Generates and defines the class of the script, then creates an instance of it.
+         *
+         * @return the created {@link CompiledScript} object.
+         * @throws ReflectiveOperationException if anything occurs while creating the instance.
+         */
+        CompiledScript define() throws ReflectiveOperationException {
+            analyse();
+            writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, COMPILED_SCRIPT, null);
+            generateConstructor();
+            generateExecute();
+            generateInitializer();
+            writer.visitEnd();
+            var loader = new Loader(CompiledScript.class.getClassLoader(), constants.toArray());
+            var type = loader.define(className.replace('/', '.'), writer.toByteArray());
+            var compiled = (CompiledScript) type.getDeclaredConstructor().newInstance();
+            compiled.setEntries(leaders);
+            return compiled;
+        }
+
+        /**
+         * Resolves the inline operation of each instruction and marks the start of each basic block. An instruction is
+         * only compiled inline if it is known to behave the same, any instruction that would fail in the interpreter
+         * (i.e. a branch outside of the script) calls its executor instead.
+         */
+        private void analyse() {
+            var count = executors.length;
+            var intOperands = script.getIntOperands();
+            leaders[0] = true;
+            leaders[count] = true;
+            for (var address = 0; address < count; address++) {
+                labels[address] = new Label();
+                var operation = ScriptJit.this.operations.get(executors[address]);
+                if (operation == Operation.PUSH_CONSTANT_STRING && address >= script.getStringOperands().length) {
+                    operation = null;
+                } else if (operation == Operation.PUSH_CONSTANT_LONG && address >= script.getLongOperands().length) {
+                    operation = null;
+                } else if (operation != null && operation.isBranch()) {
+                    var target = (long) address + intOperands[address] + 1;
+                    if (target < 0 || target > count) {
+                        operation = null;
+                    } else {
+                        leaders[(int) target] = true;
+                    }
+                } else if (operation == Operation.SWITCH) {
+                    var table = switchTable(address);
+                    if (table == null || !markTargets(address, table)) {
+                        operation = null;
+                    }
+                }
+                operations[address] = operation;
+                if (operation == null || operation.isBranch() || operation == Operation.SWITCH) {
+                    leaders[address + 1] = true;
+                }
+            }
+            labels[count] = new Label();
+        }
+
+        /**
+         * Returns the switch table of the switch instruction at the specified {@code address}.
+         *
+         * @param address the address of the switch instruction.
+         * @return the switch table or {@code null} if the instruction has no valid switch table.
+         */
+        private SwitchTable switchTable(int address) {
+            var tables = script.getSwitchTable();
+            var index = script.getIntOperands()[address];
+            if (index < 0 || index >= tables.length) {
+                return null;
+            }
+            return tables[index];
+        }
+
+        /**
+         * Marks the targets of the specified switch table as the start of basic blocks.
+         *
+         * @param address the address of the switch instruction.
+         * @param table   the switch table of the instruction.
+         * @return {@code true} if all of the targets are within the script otherwise {@code false}.
+         */
+        private boolean markTargets(int address, SwitchTable table) {
+            var jumps = table.distinctJumps();
+            for (var jump : jumps) {
+                var target = (long) address + jump + 1;
+                if (target < 0 || target > executors.length) {
+                    return false;
+                }
+            }
+            for (var jump : jumps) {
+                leaders[address + jump + 1] = true;
+            }
+            return true;
+        }
+
+        /**
+         * Generates the constructor of the class.
+         */
+        private void generateConstructor() {
+            var init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+            init.visitCode();
+            init.visitVarInsn(Opcodes.ALOAD, 0);
+            init.visitMethodInsn(Opcodes.INVOKESPECIAL, COMPILED_SCRIPT, "<init>", "()V", false);
+            init.visitInsn(Opcodes.RETURN);
+            init.visitMaxs(0, 0);
+            init.visitEnd();
+        }
+
+        /**
+         * Generates the static initializer of the class, which initializes the constant fields.
+         */
+        private void generateInitializer() {
+            var clinit = writer.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+            clinit.visitCode();
+            for (var index = 0; index < constants.size(); index++) {
+                var descriptor = constantDescriptors.get(index);
+                writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, "constant" + index, descriptor, null, null).visitEnd();
+                clinit.visitLdcInsn(Type.getObjectType(className));
+                pushInt(clinit, index);
+                clinit.visitMethodInsn(Opcodes.INVOKESTATIC, COMPILED_SCRIPT, "constant", "(Ljava/lang/Class;I)Ljava/lang/Object;", false);
+                clinit.visitTypeInsn(Opcodes.CHECKCAST, Type.getType(descriptor).getInternalName());
+                clinit.visitFieldInsn(Opcodes.PUTSTATIC, className, "constant" + index, descriptor);
+            }
+            clinit.visitInsn(Opcodes.RETURN);
+            clinit.visitMaxs(0, 0);
+            clinit.visitEnd();
+        }
+
+        /**
+         * Generates the {@link CompiledScript#execute(ScriptRuntime, int, long)} method of the class.
+         */
+        private void generateExecute() {
+            var count = executors.length;
+            mv = writer.visitMethod(Opcodes.ACC_PUBLIC, "execute", "(L" + RUNTIME + ";IJ)J", null, null);
+            mv.visitCode();
+            // Dispatch to the basic block which starts at the address the interpreter is at.
+            var exit = new Label();
+            var entries = new Label[count];
+            for (var address = 0; address < count; address++) {
+                entries[address] = leaders[address] ? labels[address] : exit;
+            }
+            mv.visitVarInsn(Opcodes.ILOAD, ADDRESS_SLOT);
+            mv.visitTableSwitchInsn(0, count - 1, exit, entries);
+            for (var address = 0; address < count; address++) {
+                if (leaders[address]) {
+                    generateBlockEntry(address);
+                }
+                generateInstruction(address);
+                if (leaders[address + 1]) {
+                    spill();
+                }
+            }
+            mv.visitLabel(labels[count]);
+            generateExit(count);
+            mv.visitLabel(exit);
+            loadRuntime();
+            mv.visitVarInsn(Opcodes.ILOAD, ADDRESS_SLOT);
+            invokeRuntime("moveTo", "(I)V");
+            mv.visitVarInsn(Opcodes.LLOAD, BUDGET_SLOT);
+            mv.visitInsn(Opcodes.LRETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        /**
+         * Generates the entry of the basic block which starts at the specified {@code address}. The entry charges the
+         * budget for the whole block, and it leaves the block to the interpreter if the budget is not enough or if the
+         * values the block keeps in JVM locals could overflow the runtime stacks.
+         *
+         * @param address the address of the first instruction of the block.
+         */
+        private void generateBlockEntry(int address) {
+            mv.visitLabel(labels[address]);
+            nextSlot = FIRST_VALUE_SLOT;
+            var end = address + 1;
+            while (!leaders[end]) {
+                end++;
+            }
+            var length = end - address;
+            var depths = maxDepths(address, end);
+            var interpret = new Label();
+            var enter = new Label();
+            if (depths[0] > 0) {
+                loadRuntime();
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, RUNTIME, "getIntStackSize", "()I", false);
+                pushInt(mv, ScriptRuntime.MAX_STACK_SIZE - depths[0]);
+                mv.visitJumpInsn(Opcodes.IF_ICMPGT, interpret);
+            }
+            if (depths[1] > 0) {
+                loadRuntime();
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, RUNTIME, "getLongStackSize", "()I", false);
+                pushInt(mv, ScriptRuntime.MAX_STACK_SIZE - depths[1]);
+                mv.visitJumpInsn(Opcodes.IF_ICMPGT, interpret);
+            }
+            mv.visitVarInsn(Opcodes.LLOAD, BUDGET_SLOT);
+            mv.visitLdcInsn((long) length);
+            mv.visitInsn(Opcodes.LCMP);
+            mv.visitJumpInsn(Opcodes.IFGE, enter);
+            mv.visitLabel(interpret);
+            generateExit(address);
+            mv.visitLabel(enter);
+            mv.visitVarInsn(Opcodes.LLOAD, BUDGET_SLOT);
+            mv.visitLdcInsn((long) length);
+            mv.visitInsn(Opcodes.LSUB);
+            mv.visitVarInsn(Opcodes.LSTORE, BUDGET_SLOT);
+        }
+
+        /**
+         * Calculates the maximum amount of int and long values the specified basic block keeps in JVM locals at once.
+         *
+         * @param start the address of the first instruction of the block, inclusive.
+         * @param end   the address of the last instruction of the block, exclusive.
+         * @return the maximum int and the maximum long values count.
+         */
+        private int[] maxDepths(int start, int end) {
+            int ints = 0, longs = 0, maxInts = 0, maxLongs = 0;
+            for (var address = start; address < end; address++) {
+                var operation = operations[address];
+                if (operation == null) {
+                    break;
+                }
+                ints = Math.max(0, ints - operation.intPops) + operation.intPushes;
+                longs = Math.max(0, longs - operation.longPops) + operation.longPushes;
+                maxInts = Math.max(maxInts, ints);
+                maxLongs = Math.max(maxLongs, longs);
+            }
+            return new int[]{maxInts, maxLongs};
+        }
+
+        /**
+         * Generates the code of the instruction at the specified {@code address}.
+         *
+         * @param address the address of the instruction.
+         */
+        private void generateInstruction(int address) {
+            current = address;
+            moved = false;
+            var operation = operations[address];
+            if (operation == null) {
+                generateCall(address);
+                return;
+            }
+            var operand = script.getIntOperands()[address];
+            switch (operation) {
+                case PUSH_CONSTANT_INT:
+                    ints.add(Value.constant(operand));
+                    break;
+                case PUSH_CONSTANT_STRING:
+                    moveToCurrent();
+                    loadRuntime();
+                    var string = script.getStringOperands()[address];
+                    if (string == null) {
+                        mv.visitInsn(Opcodes.ACONST_NULL);
+                    } else {
+                        mv.visitLdcInsn(string);
+                    }
+                    invokeRuntime("pushString", "(Ljava/lang/String;)V");
+                    break;
+                case PUSH_CONSTANT_LONG:
+                    longs.add(Value.constant(script.getLongOperands()[address]));
+                    break;
+                case POP_INT_DISCARD:
+                    popInt();
+                    break;
+                case POP_STRING_DISCARD:
+                    moveToCurrent();
+                    loadRuntime();
+                    invokeRuntime("popString", "()Ljava/lang/String;");
+                    mv.visitInsn(Opcodes.POP);
+                    break;
+                case POP_LONG_DISCARD:
+                    popLong();
+                    break;
+                case PUSH_INT_LOCAL:
+                    moveToCurrent();
+                    loadRuntime();
+                    pushInt(mv, operand);
+                    invokeRuntime("getIntLocal", "(I)I");
+                    ints.add(storeInt());
+                    break;
+                case POP_INT_LOCAL: {
+                    var value = popInt();
+                    moveToCurrent();
+                    loadRuntime();
+                    pushInt(mv, operand);
+                    loadInt(value);
+                    invokeRuntime("setIntLocal", "(II)V");
+                    break;
+                }
+                case PUSH_STRING_LOCAL:
+                    moveToCurrent();
+                    loadRuntime();
+                    loadRuntime();
+                    pushInt(mv, operand);
+                    invokeRuntime("getStringLocal", "(I)Ljava/lang/String;");
+                    invokeRuntime("pushString", "(Ljava/lang/String;)V");
+                    break;
+                case POP_STRING_LOCAL:
+                    moveToCurrent();
+                    loadRuntime();
+                    pushInt(mv, operand);
+                    loadRuntime();
+                    invokeRuntime("popString", "()Ljava/lang/String;");
+                    invokeRuntime("setStringLocal", "(ILjava/lang/String;)V");
+                    break;
+                case PUSH_LONG_LOCAL:
+                    moveToCurrent();
+                    loadRuntime();
+                    pushInt(mv, operand);
+                    invokeRuntime("getLongLocal", "(I)J");
+                    longs.add(storeLong());
+                    break;
+                case POP_LONG_LOCAL: {
+                    var value = popLong();
+                    moveToCurrent();
+                    loadRuntime();
+                    pushInt(mv, operand);
+                    loadLong(value);
+                    invokeRuntime("setLongLocal", "(IJ)V");
+                    break;
+                }
+                case BRANCH:
+                    spill();
+                    mv.visitJumpInsn(Opcodes.GOTO, labels[address + operand + 1]);
+                    break;
+                case BRANCH_NOT:
+                case BRANCH_EQUALS:
+                case BRANCH_LESS_THAN:
+                case BRANCH_GREATER_THAN:
+                case BRANCH_LESS_THAN_OR_EQUALS:
+                case BRANCH_GREATER_THAN_OR_EQUALS: {
+                    var right = popInt();
+                    var left = popInt();
+                    spill();
+                    loadInt(left);
+                    loadInt(right);
+                    mv.visitJumpInsn(operation.opcode, labels[address + operand + 1]);
+                    break;
+                }
+                case SWITCH:
+                    generateSwitch(address);
+                    break;
+                case ADD:
+                case SUB:
+                case MUL:
+                case DIV: {
+                    // The executors subtract and divide the first popped value by the second popped value.
+                    var first = popInt();
+                    var second = popInt();
+                    if (operation != Operation.DIV && first.isConstant() && second.isConstant()) {
+                        ints.add(Value.constant(operation.fold((int) first.constant, (int) second.constant)));
+                    } else {
+                        if (operation == Operation.DIV && (!second.isConstant() || second.constant == 0)) {
+                            moveToCurrent();
+                        }
+                        loadInt(first);
+                        loadInt(second);
+                        mv.visitInsn(operation.opcode);
+                        ints.add(storeInt());
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unhandled operation: " + operation);
+            }
+        }
+
+        /**
+         * Generates the code of the switch instruction at the specified {@code address}.
+         *
+         * @param address the address of the switch instruction.
+         */
+        private void generateSwitch(int address) {
+            var table = switchTable(address);
+            var value = popInt();
+            spill();
+            mv.visitFieldInsn(Opcodes.GETSTATIC, className, addConstant(table, SwitchTable.class), "L" + SWITCH_TABLE + ";");
+            loadInt(value);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, SWITCH_TABLE, "lookup", "(I)I", false);
+            var jumps = table.distinctJumps();
+            var targets = new Label[jumps.length];
+            for (var index = 0; index < jumps.length; index++) {
+                targets[index] = labels[address + jumps[index] + 1];
+            }
+            mv.visitLookupSwitchInsn(labels[address + 1], jumps, targets);
+        }
+
+        /**
+         * Generates a call of the executor of the instruction at the specified {@code address}. If the executor signals
+         * a control transfer, the execution returns to the interpreter.
+         *
+         * @param address the address of the instruction.
+         */
+        private void generateCall(int address) {
+            spill();
+            moveToCurrent();
+            mv.visitFieldInsn(Opcodes.GETSTATIC, className, addConstant(executors[address], InstructionExecutor.class), "L" + EXECUTOR + ";");
+            loadRuntime();
+            pushInt(mv, address);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, EXECUTOR, "execute", "(L" + RUNTIME + ";I)V", true);
+            var next = new Label();
+            loadRuntime();
+            invokeRuntime("isTransfer", "()Z");
+            mv.visitJumpInsn(Opcodes.IFEQ, next);
+            mv.visitVarInsn(Opcodes.LLOAD, BUDGET_SLOT);
+            mv.visitInsn(Opcodes.LRETURN);
+            mv.visitLabel(next);
+        }
+
+        /**
+         * Generates an exit to the interpreter at the specified {@code address}.
+         *
+         * @param address the address the interpreter continues from.
+         */
+        private void generateExit(int address) {
+            loadRuntime();
+            pushInt(mv, address);
+            invokeRuntime("moveTo", "(I)V");
+            mv.visitVarInsn(Opcodes.LLOAD, BUDGET_SLOT);
+            mv.visitInsn(Opcodes.LRETURN);
+        }
+
+        /**
+         * Moves the runtime to the instruction which is being generated, unless the generated code already did. This is
+         * done before anything that can throw, so a failing instruction leaves the runtime at its own address just like
+         * it does in the interpreter.
+         */
+        private void moveToCurrent() {
+            if (moved) {
+                return;
+            }
+            loadRuntime();
+            pushInt(mv, current);
+            invokeRuntime("moveTo", "(I)V");
+            moved = true;
+        }
+
+        /**
+         * Writes back all of the int and long values that are kept in JVM locals to the runtime stacks.
+         */
+        private void spill() {
+            for (var value : ints) {
+                loadRuntime();
+                loadInt(value);
+                invokeRuntime("pushInt", "(I)V");
+            }
+            for (var value : longs) {
+                loadRuntime();
+                loadLong(value);
+                invokeRuntime("pushLong", "(J)V");
+            }
+            ints.clear();
+            longs.clear();
+        }
+
+        /**
+         * Pops the top int value, from the JVM locals if there is any otherwise from the runtime stack.
+         *
+         * @return the popped value.
+         */
+        private Value popInt() {
+            if (!ints.isEmpty()) {
+                return ints.remove(ints.size() - 1);
+            }
+            moveToCurrent();
+            loadRuntime();
+            invokeRuntime("popInt", "()I");
+            return storeInt();
+        }
+
+        /**
+         * Pops the top long value, from the JVM locals if there is any otherwise from the runtime stack.
+         *
+         * @return the popped value.
+         */
+        private Value popLong() {
+            if (!longs.isEmpty()) {
+                return longs.remove(longs.size() - 1);
+            }
+            moveToCurrent();
+            loadRuntime();
+            invokeRuntime("popLong", "()J");
+            return storeLong();
+        }
+
+        /**
+         * Stores the int on top of the JVM operand stack in a new JVM local.
+         *
+         * @return the stored value.
+         */
+        private Value storeInt() {
+            var slot = nextSlot++;
+            mv.visitVarInsn(Opcodes.ISTORE, slot);
+            return Value.slot(slot);
+        }
+
+        /**
+         * Stores the long on top of the JVM operand stack in a new JVM local.
+         *
+         * @return the stored value.
+         */
+        private Value storeLong() {
+            var slot = nextSlot;
+            nextSlot += 2;
+            mv.visitVarInsn(Opcodes.LSTORE, slot);
+            return Value.slot(slot);
+        }
+
+        /**
+         * Loads the specified int value onto the JVM operand stack.
+         *
+         * @param value the value to load.
+         */
+        private void loadInt(Value value) {
+            if (value.isConstant()) {
+                pushInt(mv, (int) value.constant);
+            } else {
+                mv.visitVarInsn(Opcodes.ILOAD, value.slot);
+            }
+        }
+
+        /**
+         * Loads the specified long value onto the JVM operand stack.
+         *
+         * @param value the value to load.
+         */
+        private void loadLong(Value value) {
+            if (value.isConstant()) {
+                mv.visitLdcInsn(value.constant);
+            } else {
+                mv.visitVarInsn(Opcodes.LLOAD, value.slot);
+            }
+        }
+
+        /**
+         * Loads the runtime parameter onto the JVM operand stack.
+         */
+        private void loadRuntime() {
+            mv.visitVarInsn(Opcodes.ALOAD, RUNTIME_SLOT);
+        }
+
+        /**
+         * Invokes the specified {@link ScriptRuntime} method.
+         *
+         * @param name       the name of the method.
+         * @param descriptor the descriptor of the method.
+         */
+        private void invokeRuntime(String name, String descriptor) {
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, RUNTIME, name, descriptor, false);
+        }
+
+        /**
+         * Adds a new constant static field to the class.
+         *
+         * @param constant the value of the constant.
+         * @param type     the type of the field.
+         * @return the name of the field.
+         */
+        private String addConstant(Object constant, Class<?> type) {
+            constants.add(constant);
+            constantDescriptors.add(Type.getDescriptor(type));
+            return "constant" + (constants.size() - 1);
+        }
+    }
+
+    /**
+     * Pushes the specified int constant onto the JVM operand stack using the shortest instruction.
+     *
+     * @param mv    the method visitor to push the constant in.
+     * @param value the value of the constant.
+     */
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    /**
+     * A stack value which is kept in the generated method, either as a constant or in a JVM local.
+     *
+     * @author Walied K. Yassen
+     */
+    @RequiredArgsConstructor
+    private static final class Value {
+
+        /**
+         * The value of the constant, if the value is a constant.
+         */
+        private final long constant;
+
+        /**
+         * The JVM local slot of the value, or {@code -1} if the value is a constant.
+         */
+        private final int slot;
+
+        /**
+         * Creates a new constant {@link Value}.
+         *
+         * @param constant the value of the constant.
+         * @return the created {@link Value} object.
+         */
+        static Value constant(long constant) {
+            return new Value(constant, -1);
+        }
+
+        /**
+         * Creates a new {@link Value} which is kept in the specified JVM local slot.
+         *
+         * @param slot the JVM local slot of the value.
+         * @return the created {@link Value} object.
+         */
+        static Value slot(int slot) {
+            return new Value(0, slot);
+        }
+
+        /**
+         * Checks whether or not the value is a constant.
+         *
+         * @return {@code true} if it is otherwise {@code false}.
+         */
+        boolean isConstant() {
+            return slot == -1;
+        }
+    }
+
+    /**
+     * The operations which are compiled inline.
+     *
+     * @author Walied K. Yassen
+     */
+    @RequiredArgsConstructor
+    private enum Operation {
+        PUSH_CONSTANT_INT(0, 1, 0, 0, Opcodes.NOP),
+        PUSH_CONSTANT_STRING(0, 0, 0, 0, Opcodes.NOP),
+        PUSH_CONSTANT_LONG(0, 0, 0, 1, Opcodes.NOP),
+        POP_INT_DISCARD(1, 0, 0, 0, Opcodes.NOP),
+        POP_STRING_DISCARD(0, 0, 0, 0, Opcodes.NOP),
+        POP_LONG_DISCARD(0, 0, 1, 0, Opcodes.NOP),
+        PUSH_INT_LOCAL(0, 1, 0, 0, Opcodes.NOP),
+        POP_INT_LOCAL(1, 0, 0, 0, Opcodes.NOP),
+        PUSH_STRING_LOCAL(0, 0, 0, 0, Opcodes.NOP),
+        POP_STRING_LOCAL(0, 0, 0, 0, Opcodes.NOP),
+        PUSH_LONG_LOCAL(0, 0, 0, 1, Opcodes.NOP),
+        POP_LONG_LOCAL(0, 0, 1, 0, Opcodes.NOP),
+        BRANCH(0, 0, 0, 0, Opcodes.GOTO),
+        BRANCH_NOT(2, 0, 0, 0, Opcodes.IF_ICMPNE),
+        BRANCH_EQUALS(2, 0, 0, 0, Opcodes.IF_ICMPEQ),
+        BRANCH_LESS_THAN(2, 0, 0, 0, Opcodes.IF_ICMPLT),
+        BRANCH_GREATER_THAN(2, 0, 0, 0, Opcodes.IF_ICMPGT),
+        BRANCH_LESS_THAN_OR_EQUALS(2, 0, 0, 0, Opcodes.IF_ICMPLE),
+        BRANCH_GREATER_THAN_OR_EQUALS(2, 0, 0, 0, Opcodes.IF_ICMPGE),
+        SWITCH(1, 0, 0, 0, Opcodes.NOP),
+        ADD(2, 1, 0, 0, Opcodes.IADD),
+        SUB(2, 1, 0, 0, Opcodes.ISUB),
+        MUL(2, 1, 0, 0, Opcodes.IMUL),
+        DIV(2, 1, 0, 0, Opcodes.IDIV);
+
+        /**
+         * The amount of int values the operation pops.
+         */
+        private final int intPops;
+
+        /**
+         * The amount of int values the operation pushes.
+         */
+        private final int intPushes;
+
+        /**
+         * The amount of long values the operation pops.
+         */
+        private final int longPops;
+
+        /**
+         * The amount of long values the operation pushes.
+         */
+        private final int longPushes;
+
+        /**
+         * The JVM opcode which performs the operation, if there is any.
+         */
+        private final int opcode;
+
+        /**
+         * Checks whether or not the operation is a branch.
+         *
+         * @return {@code true} if it is otherwise {@code false}.
+         */
+        boolean isBranch() {
+            return ordinal() >= BRANCH.ordinal() && ordinal() <= BRANCH_GREATER_THAN_OR_EQUALS.ordinal();
+        }
+
+        /**
+         * Folds the arithmetic operation for the specified constant values.
+         *
+         * @param first  the first popped value.
+         * @param second the second popped value.
+         * @return the result of the operation.
+         */
+        int fold(int first, int second) {
+            switch (this) {
+                case ADD:
+                    return first + second;
+                case SUB:
+                    return first - second;
+                case MUL:
+                    return first * second;
+                default:
+                    throw new IllegalStateException("Cannot fold operation: " + this);
+            }
+        }
+    }
+
+    /**
+     * The class loader of a single generated class, it holds the constants of the class until they are read by its
+     * static initializer. Each class has its own loader so that it can be unloaded along with its script.
+     *
+     * @author Walied K. Yassen
+     */
+    static final class Loader extends ClassLoader {
+
+        /**
+         * The constants of the generated class.
+         */
+        @Getter
+        private final Object[] constants;
+
+        /**
+         * Constructs a new {@link Loader} type object instance.
+         *
+         * @param parent    the parent class loader.
+         * @param constants the constants of the generated class.
+         */
+        Loader(ClassLoader parent, Object[] constants) {
+            super(parent);
+            this.constants = constants;
+        }
+
+        /**
+         * Defines the generated class.
+         *
+         * @param name  the binary name of the class.
+         * @param bytes the bytes of the class file.
+         * @return the defined class.
+         */
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.profiler;
+
+import lombok.Getter;
+import lombok.var;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.script.Script;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An execution profiler which counts the executed instructions per opcode and per {@link Script}, and samples the
+ * execution time of every Nth instruction. The sampled time is attributed to the opcode, the script and the call stack
+ * of the instruction, the call stack is taken from the {@link me.waliedyassen.runescript.runtime.ScriptFrame} chain of
+ * the runtime. A fused instruction is counted once for each of the instructions it covers, and its sampled time is
+ * split evenly between their opcodes.
+ * <p>
+ * The profiler is safe to use from multiple threads at the same time. Each thread records the opcodes into its own
+ * {@link OpcodeCounters} which are only merged when they are read, so the executing threads never contend on the same
+ * counters. The merged values of a thread which is still executing may lag slightly behind.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ScriptProfiler {
+
+    /**
+     * The opcode counters of all the threads which recorded anything since the last reset.
+     */
+    private final Set<OpcodeCounters> counters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The opcode counters of the current thread.
+     */
+    private final ThreadLocal<OpcodeCounters> threadCounters = new ThreadLocal<>();
+
+    /**
+     * The generation of the recorded data, which is advanced on every reset to detach the counters of all threads.
+     */
+    private volatile int generation;
+
+    /**
+     * The profile of each script, indexed by the script name.
+     */
+    private final Map<String, ScriptProfile> scripts = new ConcurrentHashMap<>();
+
+    /**
+     * The sampled execution time in nanoseconds per collapsed call stack.
+     */
+    private final Map<String, LongAdder> stacks = new ConcurrentHashMap<>();
+
+    /**
+     * The amount of instructions between every two sampled instructions.
+     */
+    @Getter
+    private final int sampleInterval;
+
+    /**
+     * Constructs a new {@link ScriptProfiler} type object instance.
+     *
+     * @param sampleInterval the amount of instructions between every two sampled instructions.
+     */
+    public ScriptProfiler(int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("The sample interval must be at least 1");
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Returns the {@link ScriptProfile} of the specified {@link Script}, creating it if it does not exist.
+     *
+     * @param script the script to get the profile for.
+     * @return the {@link ScriptProfile} object.
+     */
+    public ScriptProfile profile(Script script) {
+        return scripts.computeIfAbsent(script.getName(), ScriptProfile::new);
+    }
+
+    /**
+     * Returns the {@link OpcodeCounters} of the current thread, creating them if the thread has not recorded anything
+     * since the last reset. The executor looks them up once per resume rather than once per instruction.
+     *
+     * @return the {@link OpcodeCounters} object.
+     */
+    public OpcodeCounters counters() {
+        var local = threadCounters.get();
+        if (local == null || local.generation != generation) {
+            local = new OpcodeCounters(generation);
+            threadCounters.set(local);
+            counters.add(local);
+        }
+        return local;
+    }
+
+    /**
+     * Records the execution of an instruction, which covers {@code cost} instructions if it is a fused instruction.
+     *
+     * @param counters     the opcode counters of the current thread.
+     * @param profile      the profile of the script which contains the instruction.
+     * @param instructions the opcodes of the script which contains the instruction.
+     * @param address      the address of the instruction.
+     * @param cost         the amount of instructions the instruction covers.
+     */
+    public void count(OpcodeCounters counters, ScriptProfile profile, int[] instructions, int address, int cost) {
+        for (var index = address; index < address + cost; index++) {
+            counters.count(instructions[index]);
+        }
+        profile.instructions.add(cost);
+    }
+
+    /**
+     * Records the sampled execution time of an instruction, the time of a fused instruction is split evenly between
+     * the opcodes of the {@code cost} instructions it covers.
+     *
+     * @param counters     the opcode counters of the current thread.
+     * @param profile      the profile of the script which contains the instruction.
+     * @param instructions the opcodes of the script which contains the instruction.
+     * @param address      the address of the instruction.
+     * @param cost         the amount of instructions the instruction covers.
+     * @param stack        the collapsed call stack of the instruction.
+     * @param time         the execution time of the instruction in nanoseconds.
+     */
+    public void sample(OpcodeCounters counters, ScriptProfile profile, int[] instructions, int address, int cost, String stack, long time) {
+        var share = time / cost;
+        counters.time(instructions[address], share + time % cost);
+        for (var index = address + 1; index < address + cost; index++) {
+            counters.time(instructions[index], share);
+        }
+        profile.time.add(time);
+        stacks.computeIfAbsent(stack, key -> new LongAdder()).add(time);
+    }
+
+    /**
+     * Returns the amount of executed instructions with the specified {@code opcode}, merged from all threads.
+     *
+     * @param opcode the opcode to get the amount of executed instructions for.
+     * @return the amount of executed instructions.
+     */
+    public long getOpcodeCount(int opcode) {
+        return merge(true)[opcode];
+    }
+
+    /**
+     * Returns the sampled execution time in nanoseconds of the specified {@code opcode}, merged from all threads.
+     *
+     * @param opcode the opcode to get the sampled execution time for.
+     * @return the sampled execution time.
+     */
+    public long getOpcodeTime(int opcode) {
+        return merge(false)[opcode];
+    }
+
+    /**
+     * Merges the opcode counts or times of all the threads.
+     *
+     * @param counts whether to merge the counts or the sampled times.
+     * @return the merged values, indexed by the opcode.
+     */
+    private long[] merge(boolean counts) {
+        var merged = new long[OpcodeCounters.MAX_OPCODES];
+        for (var local : counters) {
+            var values = counts ? local.counts : local.times;
+            for (var opcode = 0; opcode < values.length; opcode++) {
+                merged[opcode] += values[opcode];
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Builds the collapsed call stack of the current instruction of the specified {@link ScriptRuntime runtime}, the
+     * outermost script comes first and the frames are separated by a semicolon.
+     *
+     * @param runtime the runtime to build the call stack for.
+     * @return the collapsed call stack.
+     */
+    public static String collapseStack(ScriptRuntime runtime) {
+        var builder = new StringBuilder();
+        for (var frame : runtime.getFrames()) {
+            builder.append(frame.getScript().getName()).append(';');
+        }
+        return builder.append(runtime.getScript().getName()).toString();
+    }
+
+    /**
+     * Writes a flat report of the opcodes and the scripts sorted by their estimated execution time.
+     *
+     * @param output the output to write the report to.
+     * @throws IOException if anything occurs while writing the report.
+     */
+    public void writeReport(Appendable output) throws IOException {
+        var opcodeCounts = merge(true);
+        var opcodeTimes = merge(false);
+        output.append(String.format("%-8s %16s %16s%n", "opcode", "count", "time (ns)"));
+        for (var opcode = 0; opcode < OpcodeCounters.MAX_OPCODES; opcode++) {
+            var count = opcodeCounts[opcode];
+            if (count != 0) {
+                output.append(String.format("%-8d %16d %16d%n", opcode, count, opcodeTimes[opcode] * sampleInterval));
+            }
+        }
+        output.append(System.lineSeparator());
+        var profiles = new ArrayList<ScriptProfile>(scripts.values());
+        profiles.sort(Comparator.comparingLong(ScriptProfile::getTime).reversed());
+        output.append(String.format("%-48s %16s %16s%n", "script", "instructions", "time (ns)"));
+        for (var profile : profiles) {
+            output.append(String.format("%-48s %16d %16d%n", profile.name, profile.getInstructions(), profile.getTime() * sampleInterval));
+        }
+    }
+
+    /**
+     * Writes the sampled call stacks in the collapsed stack format which is used for generating flame graphs, each
+     * line contains a call stack followed by its estimated execution time in nanoseconds.
+     *
+     * @param output the output to write the call stacks to.
+     * @throws IOException if anything occurs while writing the call stacks.
+     */
+    public void writeCollapsedStacks(Appendable output) throws IOException {
+        for (var entry : stacks.entrySet()) {
+            output.append(entry.getKey()).append(' ').append(Long.toString(entry.getValue().sum() * sampleInterval));
+            output.append(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Clears all of the recorded data of the profiler.
+     */
+    public synchronized void reset() {
+        generation++;
+        counters.clear();
+        scripts.clear();
+        stacks.clear();
+    }
+
+    /**
+     * The opcode counts and sampled times which are recorded by a single thread.
+     *
+     * @author Walied K. Yassen
+     */
+    public static final class OpcodeCounters {
+
+        /**
+         * The maximum amount of opcodes the profiler can track.
+         */
+        private static final int MAX_OPCODES = 0x10000;
+
+        /**
+         * The generation of the profiler data which the counters belong to.
+         */
+        private final int generation;
+
+        /**
+         * The amount of executed instructions per opcode, grown on demand up to {@link #MAX_OPCODES}.
+         */
+        private long[] counts = new long[256];
+
+        /**
+         * The sampled execution time in nanoseconds per opcode, grown on demand up to {@link #MAX_OPCODES}.
+         */
+        private long[] times = new long[256];
+
+        /**
+         * Constructs a new {@link OpcodeCounters} type object instance.
+         *
+         * @param generation the generation of the profiler data which the counters belong to.
+         */
+        private OpcodeCounters(int generation) {
+            this.generation = generation;
+        }
+
+        /**
+         * Increments the amount of executed instructions of the specified {@code opcode}.
+         *
+         * @param opcode the opcode of the executed instruction.
+         */
+        private void count(int opcode) {
+            if (opcode >= counts.length) {
+                counts = grow(counts, opcode);
+            }
+            counts[opcode]++;
+        }
+
+        /**
+         * Adds the specified sampled execution {@code time} to the specified {@code opcode}.
+         *
+         * @param opcode the opcode of the sampled instruction.
+         * @param time   the sampled execution time in nanoseconds.
+         */
+        private void time(int opcode, long time) {
+            if (opcode >= times.length) {
+                times = grow(times, opcode);
+            }
+            times[opcode] += time;
+        }
+
+        /**
+         * Grows the specified per opcode {@code values} so that they can hold the specified {@code opcode}.
+         *
+         * @param values the values to grow.
+         * @param opcode the opcode which the values must be able to hold.
+         * @return the grown values.
+         */
+        private static long[] grow(long[] values, int opcode) {
+            return Arrays.copyOf(values, Math.min(MAX_OPCODES, Math.max(opcode + 1, values.length * 2)));
+        }
+    }
+
+    /**
+     * The profile of a single script.
+     *
+     * @author Walied K. Yassen
+     */
+    public static final class ScriptProfile {
+
+        /**
+         * The name of the script.
+         */
+        @Getter
+        private final String name;
+
+        /**
+         * The amount of executed instructions in the script.
+         */
+        private final LongAdder instructions = new LongAdder();
+
+        /**
+         * The sampled execution time of the script in nanoseconds.
+         */
+        private final LongAdder time = new LongAdder();
+
+        /**
+         * Constructs a new {@link ScriptProfile} type object instance.
+         *
+         * @param name the name of the script.
+         */
+        private ScriptProfile(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the amount of executed instructions in the script.
+         *
+         * @return the amount of executed instructions.
+         */
+        public long getInstructions() {
+            return instructions.sum();
+        }
+
+        /**
+         * Returns the sampled execution time of the script in nanoseconds.
+         *
+         * @return the sampled execution time.
+         */
+        public long getTime() {
+            return time.sum();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.script;
+
+/**
+ * Represents the encoded type of an instruction operand in the binary script format.
+ *
+ * @author Walied K. Yassen
+ */
+public enum OperandType {
+
+    /**
+     * A small (8-bit) unsigned integer operand.
+     */
+    BYTE,
+
+    /**
+     * A large (32-bit) integer operand.
+     */
+    INT,
+
+    /**
+     * A null-terminated string operand.
+     */
+    STRING,
+
+    /**
+     * A 64-bit long operand.
+     */
+    LONG,
+}
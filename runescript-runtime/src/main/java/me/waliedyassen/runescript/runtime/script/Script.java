@@ -9,8 +9,11 @@ package me.waliedyassen.runescript.runtime.script;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-
-import java.util.Hashtable;
+import lombok.Setter;
+import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutor;
+import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutorMap;
+import me.waliedyassen.runescript.runtime.executor.jit.CompiledScript;
+import me.waliedyassen.runescript.runtime.executor.jit.ScriptJit;
 
 /**
  * A runtime script, holds all the data and the information we need to execute the script.
@@ -33,10 +36,24 @@ public final class Script {
     private final int[] instructions;
 
     /**
-     * The integer operands of the script.
+     * The integer operands of the script, indexed by the instruction address.
+     */
+    @Getter
+    private final int[] intOperands;
+
+    /**
+     * The string operands of the script, indexed by the instruction address, or an empty array if the script has no
+     * string operands.
+     */
+    @Getter
+    private final String[] stringOperands;
+
+    /**
+     * The long operands of the script, indexed by the instruction address, or an empty array if the script has no long
+     * operands.
      */
     @Getter
-    private final Object[] operands;
+    private final long[] longOperands;
 
     /**
      * The amount of integer local fields in the script.
@@ -78,5 +95,66 @@ public final class Script {
      * The table for all the switch jumps in the script.
      */
     @Getter
-    private final Hashtable<Integer, Integer>[] switchTable;
+    private final SwitchTable[] switchTable;
+
+    /**
+     * The pre-bound instruction executors of the script, one per instruction, or {@code null} if the script was not
+     * linked yet.
+     *
+     * @see InstructionExecutorMap#link(Script)
+     */
+    @Getter
+    private volatile InstructionExecutor[] executors;
+
+    /**
+     * The amount of instructions each of the bound executors covers, indexed by the instruction address, or {@code
+     * null} if the script was not linked yet. This is one for every regular instruction and the length of the sequence
+     * for every fused instruction.
+     */
+    @Getter
+    private int[] costs;
+
+    /**
+     * The compiled form of the script, or {@code null} if the script was not compiled.
+     *
+     * @see ScriptJit
+     */
+    @Getter
+    @Setter
+    private volatile CompiledScript compiled;
+
+    /**
+     * Whether or not the compilation of the script was attempted, the compilation is never retried even if it failed.
+     */
+    @Getter
+    @Setter
+    private volatile boolean compilationAttempted;
+
+    /**
+     * The amount of times the script was activated by the executor, used to detect hot scripts. The counter is not
+     * synchronised, it only needs to be approximate.
+     */
+    @Getter
+    private int activations;
+
+    /**
+     * Binds the specified instruction executors and their costs to the script.
+     *
+     * @param executors the instruction executors of the script, one per instruction.
+     * @param costs     the amount of instructions each of the executors covers.
+     */
+    public void bind(InstructionExecutor[] executors, int[] costs) {
+        // The costs must be published before the executors, the executors are always read first.
+        this.costs = costs;
+        this.executors = executors;
+    }
+
+    /**
+     * Increments the activations counter of the script.
+     *
+     * @return the new value of the activations counter.
+     */
+    public int activate() {
+        return ++activations;
+    }
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.script;
+
+import lombok.RequiredArgsConstructor;
+import lombok.var;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A decoder for the binary script format which is produced by the compiler bytecode writer, it turns the encoded data
+ * into a {@link Script} object that is ready to be executed.
+ * <p>
+ * The binary format does not tag the operands with their type, so the decoder must be told the {@link OperandType} of
+ * every opcode it may encounter, the same way the compiler instruction map is configured.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class ScriptDecoder {
+
+    /**
+     * The string operands of the scripts which have no string operands.
+     */
+    private static final String[] EMPTY_STRINGS = new String[0];
+
+    /**
+     * The long operands of the scripts which have no long operands.
+     */
+    private static final long[] EMPTY_LONGS = new long[0];
+
+    /**
+     * The smallest size in bytes an encoded instruction can have, which is the opcode followed by a byte operand.
+     */
+    private static final int MIN_INSTRUCTION_SIZE = 3;
+
+    /**
+     * The size in bytes of a single encoded switch table entry.
+     */
+    private static final int SWITCH_ENTRY_SIZE = 8;
+
+    /**
+     * The operand types of all the registered opcodes, indexed by the opcode.
+     */
+    private OperandType[] operandTypes = new OperandType[256];
+
+    /**
+     * Whether or not the encoded scripts support the long primitive type.
+     */
+    private final boolean supportsLongPrimitiveType;
+
+    /**
+     * Registers the operand type of the specified {@code opcode}.
+     *
+     * @param opcode
+     *         the opcode to register the operand type for.
+     * @param type
+     *         the type of the operand which the opcode uses.
+     */
+    public void register(int opcode, OperandType type) {
+        if (opcode < 0 || opcode > 0xffff) {
+            throw new IllegalArgumentException("The specified opcode is out of range: " + opcode);
+        }
+        if (opcode >= operandTypes.length) {
+            operandTypes = Arrays.copyOf(operandTypes, Math.max(opcode + 1, operandTypes.length * 2));
+        }
+        if (operandTypes[opcode] != null) {
+            throw new IllegalArgumentException("The specified opcode is already registered for another OperandType");
+        }
+        operandTypes[opcode] = type;
+    }
+
+    /**
+     * Decodes all of the remaining data in the specified {@link InputStream} into a {@link Script} object.
+     *
+     * @param stream
+     *         the stream to read the encoded script from.
+     *
+     * @return the decoded {@link Script} object.
+     * @throws IOException
+     *         if anything occurs while reading from the stream.
+     */
+    public Script decode(InputStream stream) throws IOException {
+        var output = new ByteArrayOutputStream(Math.max(stream.available(), 256));
+        var chunk = new byte[4096];
+        int read;
+        while ((read = stream.read(chunk)) != -1) {
+            output.write(chunk, 0, read);
+        }
+        return decode(output.toByteArray());
+    }
+
+    /**
+     * Decodes the specified encoded script {@code data} into a {@link Script} object.
+     *
+     * @param data
+     *         the encoded script data.
+     *
+     * @return the decoded {@link Script} object.
+     */
+    public Script decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Decodes the remaining content of the specified {@link ByteBuffer} into a {@link Script} object. The position of
+     * the buffer is moved to its limit once the script is decoded.
+     *
+     * @param buffer
+     *         the buffer which contains the encoded script data.
+     *
+     * @return the decoded {@link Script} object.
+     */
+    public Script decode(ByteBuffer buffer) {
+        try {
+            var start = buffer.position();
+            var end = buffer.limit();
+            // The trailer of the script is found by walking backwards from the end of the data.
+            var switchesSize = buffer.getShort(end - 2) & 0xffff;
+            var countsSize = supportsLongPrimitiveType ? 12 : 8;
+            var trailer = end - 2 - switchesSize - countsSize - 4;
+            if (trailer < start) {
+                throw new IllegalArgumentException("Malformed script data: the trailer is out of bounds");
+            }
+            buffer.position(trailer);
+            var count = buffer.getInt();
+            var numIntLocals = buffer.getShort() & 0xffff;
+            var numStringLocals = buffer.getShort() & 0xffff;
+            var numLongLocals = supportsLongPrimitiveType ? buffer.getShort() & 0xffff : 0;
+            var numIntArguments = buffer.getShort() & 0xffff;
+            var numStringArguments = buffer.getShort() & 0xffff;
+            var numLongArguments = supportsLongPrimitiveType ? buffer.getShort() & 0xffff : 0;
+            var switchTable = new SwitchTable[buffer.get() & 0xff];
+            for (var index = 0; index < switchTable.length; index++) {
+                var size = buffer.getShort() & 0xffff;
+                if (size > (end - 2 - buffer.position()) / SWITCH_ENTRY_SIZE) {
+                    throw new IllegalArgumentException("Malformed script data: the switch table size is out of bounds: " + size);
+                }
+                var keys = new int[size];
+                var jumps = new int[size];
+                for (var entry = 0; entry < size; entry++) {
+                    keys[entry] = buffer.getInt();
+                    jumps[entry] = buffer.getInt();
+                }
+                switchTable[index] = SwitchTable.of(keys, jumps);
+            }
+            if (buffer.position() != end - 2) {
+                throw new IllegalArgumentException("Malformed script data: the switch tables do not end at the trailer");
+            }
+            // The header and the instructions of the script.
+            buffer.position(start);
+            var name = readString(buffer);
+            if (count < 0 || count > (trailer - buffer.position()) / MIN_INSTRUCTION_SIZE) {
+                throw new IllegalArgumentException("Malformed script data: the instruction count is out of bounds: " + count);
+            }
+            var instructions = new int[count];
+            var intOperands = new int[count];
+            var stringOperands = EMPTY_STRINGS;
+            var longOperands = EMPTY_LONGS;
+            for (var address = 0; address < count; address++) {
+                var opcode = buffer.getShort() & 0xffff;
+                instructions[address] = opcode;
+                var type = opcode < operandTypes.length ? operandTypes[opcode] : null;
+                if (type == null) {
+                    throw new IllegalArgumentException("Malformed script data: no operand type registered for opcode: " + opcode);
+                }
+                switch (type) {
+                    case BYTE:
+                        intOperands[address] = buffer.get() & 0xff;
+                        break;
+                    case INT:
+                        intOperands[address] = buffer.getInt();
+                        break;
+                    case STRING:
+                        if (stringOperands == EMPTY_STRINGS) {
+                            stringOperands = new String[count];
+                        }
+                        stringOperands[address] = readString(buffer);
+                        break;
+                    case LONG:
+                        if (!supportsLongPrimitiveType) {
+                            throw new IllegalArgumentException("Malformed script data: long operands are not supported");
+                        }
+                        if (longOperands == EMPTY_LONGS) {
+                            longOperands = new long[count];
+                        }
+                        longOperands[address] = buffer.getLong();
+                        break;
+                    default:
+                        throw new UnsupportedOperationException("Unsupported operand type: " + type);
+                }
+            }
+            if (buffer.position() != trailer) {
+                throw new IllegalArgumentException("Malformed script data: the instructions do not end at the trailer");
+            }
+            buffer.position(end);
+            return new Script(name, instructions, intOperands, stringOperands, longOperands, numIntLocals, numStringLocals, numLongLocals,
+                    numIntArguments, numStringArguments, numLongArguments, switchTable);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed script data: unexpected end of data", e);
+        }
+    }
+
+    /**
+     * Reads a C-Style string (null terminated string) from the specified {@link ByteBuffer}.
+     *
+     * @param buffer
+     *         the buffer to read the string from.
+     *
+     * @return the string that was read.
+     */
+    private static String readString(ByteBuffer buffer) {
+        var start = buffer.position();
+        var end = start;
+        while (buffer.get(end) != 0) {
+            end++;
+        }
+        var bytes = new byte[end - start];
+        buffer.get(bytes);
+        buffer.get();
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.script;
+
+import lombok.var;
+
+import java.util.Arrays;
+
+/**
+ * A compact switch jump table of a {@link Script}. Depending on how dense the keys of the table are, it is either
+ * stored as a dense jump array indexed by the key, or as a pair of sorted key and jump arrays that are searched using
+ * binary search.
+ *
+ * @author Walied K. Yassen
+ */
+public final class SwitchTable {
+
+    /**
+     * The value which is returned by {@link #lookup(int)} when the key has no jump.
+     */
+    public static final int NO_JUMP = Integer.MIN_VALUE;
+
+    /**
+     * The minimum amount of slots a dense table can always use regardless of how many keys it has.
+     */
+    private static final int MIN_DENSE_SLOTS = 8;
+
+    /**
+     * The sorted keys of the table, or {@code null} if the table is dense.
+     */
+    private final int[] keys;
+
+    /**
+     * The jumps of the table, either indexed by {@code key - base} if the table is dense or parallel to {@link #keys}.
+     */
+    private final int[] jumps;
+
+    /**
+     * The smallest key of the table, used as the index base for dense tables.
+     */
+    private final int base;
+
+    /**
+     * Constructs a new {@link SwitchTable} type object instance.
+     *
+     * @param keys  the sorted keys of the table, or {@code null} if the table is dense.
+     * @param jumps the jumps of the table.
+     * @param base  the smallest key of the table.
+     */
+    private SwitchTable(int[] keys, int[] jumps, int base) {
+        this.keys = keys;
+        this.jumps = jumps;
+        this.base = base;
+    }
+
+    /**
+     * Creates a new {@link SwitchTable} for the specified keys and their associated jumps. The representation of the
+     * table is chosen based on the density of the keys.
+     *
+     * @param keys  the keys of the table, in any order.
+     * @param jumps the jump of each key, in the same order as the keys.
+     * @return the created {@link SwitchTable} object.
+     */
+    public static SwitchTable of(int[] keys, int[] jumps) {
+        if (keys.length != jumps.length) {
+            throw new IllegalArgumentException("The keys and the jumps must have the same length");
+        }
+        var count = keys.length;
+        if (count == 0) {
+            return new SwitchTable(new int[0], new int[0], 0);
+        }
+        var min = Integer.MAX_VALUE;
+        var max = Integer.MIN_VALUE;
+        for (var key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+        var range = (long) max - min + 1;
+        if (range <= Math.max(MIN_DENSE_SLOTS, count * 2L)) {
+            var dense = new int[(int) range];
+            Arrays.fill(dense, NO_JUMP);
+            for (var index = 0; index < count; index++) {
+                dense[keys[index] - min] = jumps[index];
+            }
+            return new SwitchTable(null, dense, min);
+        }
+        var order = new long[count];
+        for (var index = 0; index < count; index++) {
+            order[index] = ((long) keys[index] << 32) | (jumps[index] & 0xffffffffL);
+        }
+        Arrays.sort(order);
+        var sortedKeys = new int[count];
+        var sortedJumps = new int[count];
+        for (var index = 0; index < count; index++) {
+            sortedKeys[index] = (int) (order[index] >> 32);
+            sortedJumps[index] = (int) order[index];
+        }
+        return new SwitchTable(sortedKeys, sortedJumps, min);
+    }
+
+    /**
+     * Looks-up the jump of the specified {@code key}.
+     *
+     * @param key the key to look-up the jump for.
+     * @return the jump of the key or {@link #NO_JUMP} if the table has no jump for the key.
+     */
+    public int lookup(int key) {
+        if (keys == null) {
+            var index = key - base;
+            if (index < 0 || index >= jumps.length) {
+                return NO_JUMP;
+            }
+            return jumps[index];
+        }
+        var index = Arrays.binarySearch(keys, key);
+        return index < 0 ? NO_JUMP : jumps[index];
+    }
+
+    /**
+     * Returns the distinct jumps of the table, in ascending order.
+     *
+     * @return the distinct jumps of the table.
+     */
+    public int[] distinctJumps() {
+        return Arrays.stream(jumps).filter(jump -> jump != NO_JUMP).distinct().sorted().toArray();
+    }
+
+    /**
+     * Checks whether or not the table is stored as a dense jump array.
+     *
+     * @return {@code true} if it is otherwise {@code false}.
+     */
+    public boolean isDense() {
+        return keys == null;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime;
+
+import lombok.var;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptArrayPoolTest {
+
+    ScriptArrayPool pool;
+
+    @BeforeEach
+    void setupPool() {
+        pool = new ScriptArrayPool();
+    }
+
+    @Test
+    void testSizeClasses() {
+        assertEquals(32, pool.acquireInt(0).length);
+        assertEquals(32, pool.acquireInt(1).length);
+        assertEquals(32, pool.acquireInt(32).length);
+        assertEquals(64, pool.acquireInt(33).length);
+        assertEquals(64, pool.acquireString(64).length);
+        assertEquals(128, pool.acquireLong(65).length);
+        assertEquals(4096, pool.acquireInt(4096).length);
+        assertEquals(ScriptRuntime.MAX_ARRAY_ELEMENTS, pool.acquireInt(4097).length);
+        assertEquals(ScriptRuntime.MAX_ARRAY_ELEMENTS, pool.acquireLong(ScriptRuntime.MAX_ARRAY_ELEMENTS).length);
+    }
+
+    @Test
+    void testReuse() {
+        var ints = pool.acquireInt(10);
+        pool.releaseInt(ints);
+        // Any size within the same size class reuses the released array.
+        assertSame(ints, pool.acquireInt(20));
+        assertNotSame(ints, pool.acquireInt(20));
+        var strings = pool.acquireString(40);
+        strings[0] = "value";
+        pool.releaseString(strings);
+        var reused = pool.acquireString(50);
+        assertSame(strings, reused);
+        assertNull(reused[0]);
+        var longs = pool.acquireLong(ScriptRuntime.MAX_ARRAY_ELEMENTS);
+        pool.releaseLong(longs);
+        assertNotSame(longs, pool.acquireLong(10));
+        assertSame(longs, pool.acquireLong(ScriptRuntime.MAX_ARRAY_ELEMENTS));
+    }
+
+    @Test
+    void testLimit() {
+        var released = new ArrayList<int[]>();
+        for (var index = 0; index <= ScriptArrayPool.MAX_POOLED; index++) {
+            released.add(new int[ScriptArrayPool.MIN_CAPACITY]);
+        }
+        released.forEach(pool::releaseInt);
+        for (var index = 0; index < ScriptArrayPool.MAX_POOLED; index++) {
+            assertTrue(released.contains(pool.acquireInt(1)));
+        }
+        assertFalse(released.contains(pool.acquireInt(1)));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime;
+
+import lombok.var;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptFramePoolTest {
+
+    ScriptFramePool pool;
+
+    @BeforeEach
+    void setupPool() {
+        pool = new ScriptFramePool(2);
+    }
+
+    @Test
+    void testReuse() {
+        var first = pool.pop();
+        assertEquals(1, pool.getMisses());
+        pool.push(first);
+        assertEquals(1, pool.getSize());
+        assertSame(first, pool.pop());
+        assertEquals(1, pool.getHits());
+        assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    void testCapacity() {
+        var frames = new ScriptFrame[]{pool.pop(), pool.pop(), pool.pop()};
+        for (var frame : frames) {
+            pool.push(frame);
+        }
+        assertEquals(2, pool.getSize());
+        assertSame(frames[1], pool.pop());
+        assertSame(frames[0], pool.pop());
+        assertNotSame(frames[2], pool.pop());
+        assertEquals(4, pool.getMisses());
+        pool.push(frames[0]);
+        pool.clear();
+        assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    void testOwnedByRuntime() {
+        var callee = script("callee").arguments(0, 0, 0).instruction(RETURN).build();
+        var caller = script("caller").instruction(GOSUB_WITH_PARAMS, 1).instruction(GOSUB_WITH_PARAMS, 1).build();
+        var executor = createExecutor(new TestScriptCache().put(1, callee));
+        try (var runtime = executor.getPool().pop()) {
+            executor.execute(runtime, caller);
+            var framePool = runtime.getFramePool();
+            assertEquals(1, framePool.getMisses());
+            assertEquals(1, framePool.getHits());
+            assertEquals(1, framePool.getSize());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.TestHelper.TestRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestScriptCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptRuntimePoolTest {
+
+    ScriptRuntimePool<TestRuntime> pool;
+
+    @BeforeEach
+    void setupPool() {
+        pool = new ScriptRuntimePool<>(TestRuntime::new, new TestScriptCache(), 2);
+    }
+
+    @Test
+    void testReuse() {
+        var runtime = pool.pop();
+        assertEquals(1, pool.getCreated());
+        assertEquals(1, pool.getInFlight());
+        runtime.close();
+        assertEquals(0, pool.getInFlight());
+        assertSame(runtime, pool.pop());
+        assertEquals(1, pool.getCreated());
+        assertEquals(1, pool.getReused());
+        runtime.close();
+    }
+
+    @Test
+    void testReset() {
+        var runtime = pool.pop();
+        runtime.pushInt(1);
+        runtime.pushString("value");
+        runtime.pushLong(2L);
+        runtime.setScript(script("dirty").locals(1, 0, 0).instruction(RETURN).build());
+        runtime.setAddress(5);
+        runtime.defineArray(0, 10);
+        runtime.sleep(3);
+        runtime.close();
+        // The arrays are released as soon as the runtime is back in the pool, not when it is reused.
+        assertNull(runtime.getArrayElements()[0]);
+        assertEquals(0, runtime.getIntStackSize());
+        var reused = pool.pop();
+        assertSame(runtime, reused);
+        assertEquals(0, reused.getIntStackSize());
+        assertEquals(0, reused.getStringStackSize());
+        assertEquals(0, reused.getLongStackSize());
+        assertEquals(0, reused.getAddress());
+        assertEquals(0, reused.getArraySize()[0]);
+        assertNull(reused.getArrayElements()[0]);
+        assertFalse(reused.isAbort());
+        assertFalse(reused.isSuspended());
+        reused.close();
+    }
+
+    @Test
+    void testLimit() {
+        var runtimes = new ArrayList<TestRuntime>();
+        for (var index = 0; index < 5; index++) {
+            runtimes.add(pool.pop());
+        }
+        assertEquals(5, pool.getInFlight());
+        // Only the first two runtimes fit into the pool, the rest are discarded.
+        runtimes.forEach(ScriptRuntime::close);
+        assertEquals(3, pool.getDiscarded());
+        assertEquals(0, pool.getInFlight());
+        for (var index = 0; index < 2; index++) {
+            assertTrue(runtimes.contains(pool.pop()));
+        }
+        assertEquals(5, pool.getCreated());
+        assertEquals(2, pool.getReused());
+        // The pool is empty now, so the next runtime has to be created.
+        pool.pop();
+        assertEquals(6, pool.getCreated());
+    }
+
+    @Test
+    void testConcurrent() throws InterruptedException {
+        var failures = new AtomicInteger();
+        var threads = new Thread[4];
+        for (var index = 0; index < threads.length; index++) {
+            threads[index] = new Thread(() -> {
+                for (var iteration = 0; iteration < 10_000; iteration++) {
+                    var runtime = pool.pop();
+                    if (runtime.getIntStackSize() != 0) {
+                        failures.incrementAndGet();
+                    }
+                    runtime.pushInt(iteration);
+                    runtime.close();
+                }
+            });
+            threads[index].start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+        assertEquals(0, pool.getInFlight());
+        assertEquals(40_000, pool.getCreated() + pool.getReused());
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.TestHelper.TestRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ExecutionException;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptRuntimeTest {
+
+    TestScriptCache cache;
+    ScriptExecutor<TestRuntime> executor;
+
+    @BeforeEach
+    void setupExecutor() {
+        cache = new TestScriptCache();
+        cache.put(1, script("callee")
+                .arguments(1, 1, 0)
+                .locals(2, 2, 0)
+                .instruction(PUSH_CONSTANT_INT, 100)
+                .instruction(POP_INT_LOCAL, 1)
+                .instruction(PUSH_CONSTANT_STRING, "callee")
+                .instruction(POP_STRING_LOCAL, 1)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .instruction(ADD)
+                .instruction(RETURN)
+                .build());
+        executor = createExecutor(cache);
+    }
+
+    @Test
+    void testGosubPreservesCallerLocals() {
+        var caller = script("caller")
+                .locals(2, 2, 0)
+                .instruction(PUSH_CONSTANT_INT, 7)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_STRING, "first")
+                .instruction(POP_STRING_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_STRING, "second")
+                .instruction(POP_STRING_LOCAL, 1)
+                .instruction(PUSH_CONSTANT_INT, 5)
+                .instruction(PUSH_CONSTANT_STRING, "argument")
+                .instruction(GOSUB_WITH_PARAMS, 1)
+                .instruction(POP_INT_LOCAL, 1)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .instruction(PUSH_STRING_LOCAL, 0)
+                .instruction(PUSH_STRING_LOCAL, 1)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, caller));
+            assertEquals("second", runtime.popString());
+            assertEquals("first", runtime.popString());
+            assertEquals(105, runtime.popInt());
+            assertEquals(7, runtime.popInt());
+            assertEquals(0, runtime.getIntStackSize());
+            assertEquals(0, runtime.getStringStackSize());
+            assertTrue(runtime.getFrames().isEmpty());
+            assertEquals(0, runtime.getStringLocalsBase());
+        }
+    }
+
+    @Test
+    void testReturnReleasesCalleeStringLocals() {
+        var caller = script("caller")
+                .locals(0, 1, 0)
+                .instruction(PUSH_CONSTANT_STRING, "kept")
+                .instruction(POP_STRING_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(PUSH_CONSTANT_STRING, "argument")
+                .instruction(GOSUB_WITH_PARAMS, 1)
+                .instruction(POP_INT_DISCARD)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, caller));
+            var locals = runtime.getStringLocals();
+            assertEquals("kept", locals[0]);
+            assertNull(locals[1]);
+            assertNull(locals[2]);
+        }
+    }
+
+    @Test
+    void testNestedGosub() {
+        cache.put(2, script("outer")
+                .arguments(1, 0, 0)
+                .locals(1, 1, 0)
+                .instruction(PUSH_CONSTANT_STRING, "outer")
+                .instruction(POP_STRING_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_STRING_LOCAL, 0)
+                .instruction(GOSUB_WITH_PARAMS, 1)
+                .instruction(PUSH_STRING_LOCAL, 0)
+                .instruction(RETURN)
+                .build());
+        var caller = script("caller")
+                .locals(1, 0, 0)
+                .instruction(PUSH_CONSTANT_INT, 3)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 10)
+                .instruction(GOSUB_WITH_PARAMS, 2)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, caller));
+            assertEquals(3, runtime.popInt());
+            assertEquals(110, runtime.popInt());
+            assertEquals("outer", runtime.popString());
+            assertEquals(0, runtime.getStringStackSize());
+        }
+    }
+
+    @Test
+    void testArguments() {
+        cache.put(2, script("target")
+                .arguments(2, 1, 1)
+                .locals(3, 2, 2)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .instruction(PUSH_INT_LOCAL, 2)
+                .instruction(PUSH_STRING_LOCAL, 0)
+                .instruction(PUSH_STRING_LOCAL, 1)
+                .instruction(PUSH_LONG_LOCAL, 0)
+                .instruction(PUSH_LONG_LOCAL, 1)
+                .build());
+        var caller = script("caller")
+                .locals(1, 0, 0)
+                .instruction(PUSH_CONSTANT_INT, 42)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(PUSH_CONSTANT_STRING, "text")
+                .instruction(PUSH_CONSTANT_LONG, 3L)
+                .instruction(JUMP_WITH_PARAMS, 2)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, caller));
+            assertEquals(0L, runtime.popLong());
+            assertEquals(3L, runtime.popLong());
+            assertNull(runtime.popString());
+            assertEquals("text", runtime.popString());
+            assertEquals(0, runtime.popInt());
+            assertEquals(2, runtime.popInt());
+            assertEquals(1, runtime.popInt());
+            assertEquals(0, runtime.getIntStackSize());
+        }
+    }
+
+    @Test
+    void testJumpReleasesStringLocals() {
+        cache.put(2, script("target")
+                .arguments(1, 0, 0)
+                .locals(1, 0, 0)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .build());
+        cache.put(3, script("inner")
+                .locals(0, 2, 0)
+                .instruction(PUSH_CONSTANT_STRING, "third")
+                .instruction(POP_STRING_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_STRING, "fourth")
+                .instruction(POP_STRING_LOCAL, 1)
+                .instruction(PUSH_CONSTANT_INT, 9)
+                .instruction(JUMP_WITH_PARAMS, 2)
+                .build());
+        var caller = script("caller")
+                .locals(0, 2, 0)
+                .instruction(PUSH_CONSTANT_STRING, "first")
+                .instruction(POP_STRING_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_STRING, "second")
+                .instruction(POP_STRING_LOCAL, 1)
+                .instruction(GOSUB_WITH_PARAMS, 3)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, caller));
+            assertEquals(9, runtime.popInt());
+            for (var local : runtime.getStringLocals()) {
+                assertNull(local);
+            }
+        }
+    }
+
+    @Test
+    void testGosubArgumentsExceedLocals() {
+        cache.put(2, script("inner")
+                .locals(1, 0, 0)
+                .instruction(PUSH_CONSTANT_INT, 99)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(RETURN)
+                .build());
+        cache.put(3, script("outer")
+                .arguments(2, 0, 0)
+                .locals(1, 0, 0)
+                .instruction(GOSUB_WITH_PARAMS, 2)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .instruction(RETURN)
+                .build());
+        var caller = script("caller")
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(GOSUB_WITH_PARAMS, 3)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, caller));
+            assertEquals(2, runtime.popInt());
+            assertEquals(1, runtime.popInt());
+        }
+    }
+
+    @Test
+    void testStacks() {
+        try (var runtime = executor.getPool().pop()) {
+            for (var index = 0; index < 64; index++) {
+                runtime.pushInt(index);
+                runtime.pushString("value" + index);
+                runtime.pushLong(index * 10L);
+            }
+            assertEquals(64, runtime.getIntStackSize());
+            assertEquals(63, runtime.peekInt());
+            assertEquals("value63", runtime.peekString());
+            assertEquals(630L, runtime.peekLong());
+            runtime.discardStrings(60);
+            assertEquals(4, runtime.getStringStackSize());
+            assertNull(runtime.getStringStack()[4]);
+            assertEquals("value3", runtime.popString());
+            for (var index = 63; index >= 0; index--) {
+                assertEquals(index, runtime.popInt());
+                assertEquals(index * 10L, runtime.popLong());
+            }
+            runtime.clearStacks();
+            assertEquals(0, runtime.getStringStackSize());
+            assertNull(runtime.getStringStack()[0]);
+        }
+    }
+
+    @Test
+    void testAddress() {
+        var map = createExecutorMap();
+        // Executors which only take the runtime must still see the address of their own instruction.
+        map.register(100, runtime -> runtime.pushInt(runtime.getAddress() * 10 + runtime.intOperand()));
+        var executor = new ScriptExecutor<>(4, cache, TestRuntime::new, map);
+        var script = script("address")
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(100, 7)
+                .instruction(ADD)
+                .build();
+        var failing = script("failing")
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(POP_INT_DISCARD)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(POP_INT_DISCARD)
+                .instruction(POP_INT_DISCARD)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, script));
+            assertEquals(18, runtime.popInt());
+            runtime.recycle();
+            assertThrows(ExecutionException.class, () -> executor.execute(runtime, failing));
+            assertEquals(4, runtime.getAddress());
+        }
+        try (var runtime = executor.getPool().pop()) {
+            assertSame(runtime, executor.execute(runtime, failing, 3));
+            assertTrue(runtime.isPreempted());
+            assertEquals(3, runtime.getAddress());
+        }
+    }
+
+    @Test
+    void testStackOverflow() {
+        try (var runtime = executor.getPool().pop()) {
+            for (var index = 0; index < ScriptRuntime.MAX_STACK_SIZE; index++) {
+                runtime.pushInt(index);
+            }
+            assertThrows(ExecutionException.class, () -> runtime.pushInt(0));
+            assertThrows(ExecutionException.class, () -> runtime.discardStrings(1));
+        }
+    }
+
+    @Test
+    void testStackUnderflow() {
+        try (var runtime = executor.getPool().pop()) {
+            assertThrows(ExecutionException.class, runtime::popInt);
+            assertThrows(ExecutionException.class, runtime::popString);
+            assertThrows(ExecutionException.class, runtime::popLong);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime;
+
+import lombok.var;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptStringCacheTest {
+
+    ScriptStringCache cache;
+
+    @BeforeEach
+    void setupCache() {
+        cache = new ScriptStringCache();
+    }
+
+    @Test
+    void testIntern() {
+        var first = cache.intern(new StringBuilder("label: ").append(5));
+        var second = cache.intern(new StringBuilder("label: 5"));
+        assertEquals("label: 5", first);
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals("", cache.intern(new StringBuilder()));
+    }
+
+    @Test
+    void testLongStrings() {
+        var builder = new StringBuilder();
+        for (var index = 0; index <= ScriptStringCache.MAX_LENGTH; index++) {
+            builder.append('x');
+        }
+        var first = cache.intern(builder);
+        var second = cache.intern(builder);
+        assertEquals(builder.toString(), first);
+        assertNotSame(first, second);
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    void testEviction() {
+        // Every entry is replaced by whichever string maps to its slot last, the content must always match.
+        for (var index = 0; index < 10_000; index++) {
+            assertEquals("value " + index, cache.intern("value " + index));
+        }
+        assertEquals(10_000, cache.getMisses());
+        var last = cache.intern("value 9999");
+        assertSame(last, cache.intern(new StringBuilder("value 9999")));
+    }
+
+    @Test
+    void testClear() {
+        var first = cache.intern(new StringBuilder("value"));
+        cache.clear();
+        var second = cache.intern(new StringBuilder("value"));
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(2, cache.getMisses());
+    }
+}
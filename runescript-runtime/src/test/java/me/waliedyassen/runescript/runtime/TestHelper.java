@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime;
+
+import lombok.var;
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeInstruction;
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeScript;
+import me.waliedyassen.runescript.runtime.cache.ScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import me.waliedyassen.runescript.runtime.executor.impl.ArrayOps;
+import me.waliedyassen.runescript.runtime.executor.impl.CoreOps;
+import me.waliedyassen.runescript.runtime.executor.impl.MathOps;
+import me.waliedyassen.runescript.runtime.executor.impl.StringOps;
+import me.waliedyassen.runescript.runtime.executor.instruction.InstructionExecutorMap;
+import me.waliedyassen.runescript.runtime.script.OperandType;
+import me.waliedyassen.runescript.runtime.script.Script;
+import me.waliedyassen.runescript.runtime.script.ScriptDecoder;
+import me.waliedyassen.runescript.runtime.script.SwitchTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+public final class TestHelper {
+
+    public static final int PUSH_CONSTANT_INT = 0;
+    public static final int PUSH_CONSTANT_STRING = 1;
+    public static final int PUSH_CONSTANT_LONG = 2;
+    public static final int PUSH_INT_LOCAL = 3;
+    public static final int POP_INT_LOCAL = 4;
+    public static final int PUSH_STRING_LOCAL = 5;
+    public static final int POP_STRING_LOCAL = 6;
+    public static final int PUSH_LONG_LOCAL = 7;
+    public static final int POP_LONG_LOCAL = 8;
+    public static final int BRANCH = 9;
+    public static final int BRANCH_NOT = 10;
+    public static final int BRANCH_EQUALS = 11;
+    public static final int BRANCH_LESS_THAN = 12;
+    public static final int BRANCH_GREATER_THAN = 13;
+    public static final int JOIN_STRING = 14;
+    public static final int RETURN = 15;
+    public static final int GOSUB_WITH_PARAMS = 16;
+    public static final int JUMP_WITH_PARAMS = 17;
+    public static final int SWITCH = 18;
+    public static final int SUSPEND = 19;
+    public static final int SLEEP = 20;
+    public static final int DEFINE_ARRAY = 21;
+    public static final int PUSH_ARRAY_INT = 22;
+    public static final int POP_ARRAY_INT = 23;
+    public static final int PUSH_ARRAY_STRING = 24;
+    public static final int POP_ARRAY_STRING = 25;
+    public static final int PUSH_ARRAY_LONG = 26;
+    public static final int POP_ARRAY_LONG = 27;
+    public static final int ADD = 28;
+    public static final int SUB = 29;
+    public static final int MUL = 30;
+    public static final int TOSTRING = 31;
+    public static final int POP_INT_DISCARD = 32;
+    public static final int DIV = 33;
+    public static final int POP_STRING_DISCARD = 34;
+    public static final int POP_LONG_DISCARD = 35;
+
+    public static InstructionExecutorMap createExecutorMap() {
+        var map = new InstructionExecutorMap();
+        map.register(PUSH_CONSTANT_INT, CoreOps.PUSH_CONSTANT_INT);
+        map.register(PUSH_CONSTANT_STRING, CoreOps.PUSH_CONSTANT_STRING);
+        map.register(PUSH_CONSTANT_LONG, CoreOps.PUSH_CONSTANT_LONG);
+        map.register(PUSH_INT_LOCAL, CoreOps.PUSH_INT_LOCAL);
+        map.register(POP_INT_LOCAL, CoreOps.POP_INT_LOCAL);
+        map.register(PUSH_STRING_LOCAL, CoreOps.PUSH_STRING_LOCAL);
+        map.register(POP_STRING_LOCAL, CoreOps.POP_STRING_LOCAL);
+        map.register(PUSH_LONG_LOCAL, CoreOps.PUSH_LONG_LOCAL);
+        map.register(POP_LONG_LOCAL, CoreOps.POP_LONG_LOCAL);
+        map.register(BRANCH, CoreOps.BRANCH);
+        map.register(BRANCH_NOT, CoreOps.BRANCH_NOT);
+        map.register(BRANCH_EQUALS, CoreOps.BRANCH_EQUALS);
+        map.register(BRANCH_LESS_THAN, CoreOps.BRANCH_LESS_THAN);
+        map.register(BRANCH_GREATER_THAN, CoreOps.BRANCH_GREATER_THAN);
+        map.register(JOIN_STRING, CoreOps.JOIN_STRING);
+        map.register(RETURN, CoreOps.RETURN);
+        map.register(GOSUB_WITH_PARAMS, CoreOps.GOSUB_WITH_PARAMS);
+        map.register(JUMP_WITH_PARAMS, CoreOps.JUMP_WITH_PARAMS);
+        map.register(SWITCH, CoreOps.SWITCH);
+        map.register(SUSPEND, CoreOps.SUSPEND);
+        map.register(SLEEP, CoreOps.SLEEP);
+        map.register(DEFINE_ARRAY, ArrayOps.DEFINE_ARRAY);
+        map.register(PUSH_ARRAY_INT, ArrayOps.PUSH_ARRAY_INT);
+        map.register(POP_ARRAY_INT, ArrayOps.POP_ARRAY_INT);
+        map.register(PUSH_ARRAY_STRING, ArrayOps.PUSH_ARRAY_STRING);
+        map.register(POP_ARRAY_STRING, ArrayOps.POP_ARRAY_STRING);
+        map.register(PUSH_ARRAY_LONG, ArrayOps.PUSH_ARRAY_LONG);
+        map.register(POP_ARRAY_LONG, ArrayOps.POP_ARRAY_LONG);
+        map.register(ADD, MathOps.ADD);
+        map.register(SUB, MathOps.SUB);
+        map.register(MUL, MathOps.MUL);
+        map.register(TOSTRING, StringOps.TOSTRING);
+        map.register(POP_INT_DISCARD, CoreOps.POP_INT_DISCARD);
+        map.register(DIV, MathOps.DIV);
+        map.register(POP_STRING_DISCARD, CoreOps.POP_STRING_DISCARD);
+        map.register(POP_LONG_DISCARD, CoreOps.POP_LONG_DISCARD);
+        return map;
+    }
+
+    public static ScriptExecutor<TestRuntime> createExecutor(TestScriptCache cache) {
+        return new ScriptExecutor<>(4, cache, TestRuntime::new, createExecutorMap());
+    }
+
+    public static ScriptDecoder createDecoder(boolean supportsLongPrimitiveType) {
+        var decoder = new ScriptDecoder(supportsLongPrimitiveType);
+        decoder.register(PUSH_CONSTANT_INT, OperandType.INT);
+        decoder.register(PUSH_CONSTANT_STRING, OperandType.STRING);
+        decoder.register(PUSH_CONSTANT_LONG, OperandType.LONG);
+        decoder.register(SWITCH, OperandType.INT);
+        decoder.register(RETURN, OperandType.BYTE);
+        return decoder;
+    }
+
+    public static byte[] encode(String name, int value) {
+        var instructions = new BytecodeInstruction[]{
+                new BytecodeInstruction(PUSH_CONSTANT_INT, true, value),
+                new BytecodeInstruction(RETURN, false, 0),
+        };
+        return new BytecodeScript(name, 0, 0, 0, 0, 0, 0, instructions, new LinkedList<>(), true).encode();
+    }
+
+    public static ScriptBuilder script(String name) {
+        return new ScriptBuilder(name);
+    }
+
+    public static final class TestRuntime extends ScriptRuntime {
+
+        public TestRuntime(ScriptRuntimePool<TestRuntime> pool) {
+            super(pool);
+        }
+    }
+
+    public static final class TestScriptCache extends ScriptCache {
+
+        private final Map<Integer, Script> scripts = new HashMap<>();
+
+        public TestScriptCache put(int id, Script script) {
+            scripts.put(id, script);
+            return this;
+        }
+
+        @Override
+        public Script get(int id) {
+            return scripts.get(id);
+        }
+
+        @Override
+        public Script get(String name) {
+            return scripts.values().stream().filter(script -> script.getName().equals(name)).findFirst().orElse(null);
+        }
+    }
+
+    public static final class ScriptBuilder {
+
+        private final String name;
+        private final List<Integer> instructions = new ArrayList<>();
+        private final List<Object> operands = new ArrayList<>();
+        private final List<SwitchTable> switchTables = new ArrayList<>();
+        private int numIntLocals;
+        private int numStringLocals;
+        private int numLongLocals;
+        private int numIntArguments;
+        private int numStringArguments;
+        private int numLongArguments;
+
+        ScriptBuilder(String name) {
+            this.name = name;
+        }
+
+        public ScriptBuilder instruction(int opcode) {
+            return instruction(opcode, 0);
+        }
+
+        public ScriptBuilder instruction(int opcode, Object operand) {
+            instructions.add(opcode);
+            operands.add(operand);
+            return this;
+        }
+
+        public ScriptBuilder locals(int numInt, int numString, int numLong) {
+            numIntLocals = numInt;
+            numStringLocals = numString;
+            numLongLocals = numLong;
+            return this;
+        }
+
+        public ScriptBuilder arguments(int numInt, int numString, int numLong) {
+            numIntArguments = numInt;
+            numStringArguments = numString;
+            numLongArguments = numLong;
+            return this;
+        }
+
+        public ScriptBuilder switchTable(int[] keys, int[] jumps) {
+            switchTables.add(SwitchTable.of(keys, jumps));
+            return this;
+        }
+
+        public int address() {
+            return instructions.size();
+        }
+
+        public Script build() {
+            var count = instructions.size();
+            var opcodes = new int[count];
+            var intOperands = new int[count];
+            var stringOperands = new String[count];
+            var longOperands = new long[count];
+            for (var address = 0; address < count; address++) {
+                opcodes[address] = instructions.get(address);
+                var operand = operands.get(address);
+                if (operand instanceof String) {
+                    stringOperands[address] = (String) operand;
+                } else if (operand instanceof Long) {
+                    longOperands[address] = (Long) operand;
+                } else {
+                    intOperands[address] = (Integer) operand;
+                }
+            }
+            return new Script(name, opcodes, intOperands, stringOperands, longOperands, numIntLocals, numStringLocals, numLongLocals,
+                    numIntArguments, numStringArguments, numLongArguments, switchTables.toArray(new SwitchTable[0]));
+        }
+    }
+
+    private TestHelper() {
+        // NOOP
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.cache;
+
+import lombok.var;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlatPackScriptCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Files.write(directory.resolve("1-first.cs2"), encode("first", 10));
+        Files.write(directory.resolve("25-second.cs2"), encode("second", 20));
+        Files.write(directory.resolve("readme.txt"), new byte[]{1, 2, 3});
+        var cache = new FlatPackScriptCache(createDecoder(true), directory);
+        assertEquals(2, cache.size());
+        assertEquals("first", cache.get(1).getName());
+        assertEquals(10, cache.get(1).getIntOperands()[0]);
+        assertEquals("second", cache.get(25).getName());
+        assertSame(cache.get(25), cache.get("second"));
+        assertNull(cache.get(2));
+        assertNull(cache.get("third"));
+    }
+
+    @Test
+    void testMalformed() throws IOException {
+        var data = encode("broken", 1);
+        Files.write(directory.resolve("1-broken.cs2"), Arrays.copyOf(data, data.length - 4));
+        var exception = assertThrows(IOException.class, () -> new FlatPackScriptCache(createDecoder(true), directory));
+        assertTrue(exception.getCause().getMessage().startsWith("Malformed script data"));
+    }
+}
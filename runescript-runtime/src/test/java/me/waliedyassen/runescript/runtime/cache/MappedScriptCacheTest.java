@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.cache;
+
+import lombok.var;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedScriptCacheTest {
+
+    @TempDir
+    Path directory;
+    Path archive;
+
+    @BeforeEach
+    void setupArchive() throws IOException {
+        archive = directory.resolve("scripts.rsa");
+        var writer = new ScriptArchiveWriter();
+        writer.add(30, "third", encode("third", 3));
+        writer.add(10, "first", encode("first", 1));
+        writer.add(20, "second", encode("second", 2));
+        writer.write(archive);
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        var cache = new MappedScriptCache(createDecoder(true), archive, 16);
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.cached());
+        assertEquals("second", cache.get(20).getName());
+        assertEquals(2, cache.get(20).getIntOperands()[0]);
+        assertEquals(1, cache.cached());
+        assertSame(cache.get(20), cache.get("second"));
+        assertEquals(3, cache.get("third").getIntOperands()[0]);
+        assertEquals("first", cache.get(10).getName());
+        assertNull(cache.get(15));
+        assertNull(cache.get("fourth"));
+        assertEquals(3, cache.cached());
+    }
+
+    @Test
+    void testEviction() throws IOException {
+        var cache = new MappedScriptCache(createDecoder(true), archive, 2);
+        var first = cache.get(10);
+        cache.get(20);
+        cache.get(30);
+        assertEquals(2, cache.cached());
+        var reloaded = cache.get(10);
+        assertNotSame(first, reloaded);
+        assertEquals("first", reloaded.getName());
+    }
+
+    @Test
+    void testMalformed() throws IOException {
+        var data = Files.readAllBytes(archive);
+        assertMalformed(data, buffer -> buffer.putInt(8, Integer.MAX_VALUE));
+        assertMalformed(data, buffer -> buffer.putInt(8, -1));
+        // The first id entry points past the end of the archive.
+        assertMalformed(data, buffer -> buffer.putInt(ScriptArchive.HEADER_SIZE + 8, data.length));
+        // The first name entry points past the end of the id index.
+        var names = ScriptArchive.HEADER_SIZE + 3 * ScriptArchive.ID_ENTRY_SIZE;
+        assertMalformed(data, buffer -> buffer.putInt(names + 4, 3));
+        Files.write(archive, new byte[4]);
+        assertThrows(IOException.class, () -> new MappedScriptCache(createDecoder(true), archive, 16));
+    }
+
+    void assertMalformed(byte[] data, Consumer<ByteBuffer> corruption) throws IOException {
+        var corrupted = data.clone();
+        corruption.accept(ByteBuffer.wrap(corrupted));
+        Files.write(archive, corrupted);
+        var exception = assertThrows(IOException.class, () -> new MappedScriptCache(createDecoder(true), archive, 16));
+        assertTrue(exception.getMessage().startsWith("Malformed script data"), exception.getMessage());
+    }
+}
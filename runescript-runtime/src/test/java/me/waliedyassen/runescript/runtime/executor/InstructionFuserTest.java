@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.TestHelper.TestRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestScriptCache;
+import me.waliedyassen.runescript.runtime.executor.impl.FusedOps;
+import me.waliedyassen.runescript.runtime.script.Script;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstructionFuserTest {
+
+    static final int INSTRUCTIONS = 4 + 10 * 11 + 1;
+
+    ScriptExecutor<TestRuntime> fused;
+    ScriptExecutor<TestRuntime> unfused;
+
+    @BeforeEach
+    void setupExecutors() {
+        fused = createExecutor(new TestScriptCache());
+        unfused = createExecutor(new TestScriptCache());
+        unfused.setFuser(null);
+    }
+
+    @Test
+    void testLink() {
+        var script = sum();
+        var executors = fused.link(script);
+        assertSame(FusedOps.LOCAL_LOCAL_ADD_TO_LOCAL, executors[4]);
+        assertSame(FusedOps.LOCAL_CONSTANT_ADD_TO_LOCAL, executors[8]);
+        assertSame(FusedOps.LOCAL_CONSTANT_BRANCH_LESS_THAN, executors[12]);
+        assertArrayEquals(new int[]{1, 1, 1, 1, 4, 1, 1, 1, 4, 1, 1, 1, 3, 1, 1, 1}, script.getCosts());
+        var plain = sum();
+        unfused.link(plain);
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, plain.getCosts());
+    }
+
+    @Test
+    void testEquivalence() {
+        try (var first = fused.getPool().pop(); var second = unfused.getPool().pop()) {
+            assertNull(fused.execute(first, sum()));
+            assertNull(unfused.execute(second, sum()));
+            assertEquals(45, first.popInt());
+            assertEquals(45, second.popInt());
+        }
+    }
+
+    @Test
+    void testBudget() {
+        var fusedScript = sum();
+        var unfusedScript = sum();
+        for (var budget = 0; budget < INSTRUCTIONS; budget++) {
+            try (var first = fused.getPool().pop(); var second = unfused.getPool().pop()) {
+                assertSame(first, fused.execute(first, fusedScript, budget));
+                assertSame(second, unfused.execute(second, unfusedScript, budget));
+                assertTrue(first.isPreempted());
+                assertEquals(second.getAddress(), first.getAddress(), "budget " + budget);
+                assertEquals(second.getIntLocal(0), first.getIntLocal(0), "budget " + budget);
+                assertEquals(second.getIntLocal(1), first.getIntLocal(1), "budget " + budget);
+                assertEquals(second.getIntStackSize(), first.getIntStackSize(), "budget " + budget);
+                assertNull(fused.resume(first));
+                assertNull(unfused.resume(second));
+                assertEquals(45, first.popInt());
+                assertEquals(45, second.popInt());
+            }
+        }
+        try (var runtime = fused.getPool().pop()) {
+            assertNull(fused.execute(runtime, fusedScript, INSTRUCTIONS));
+            assertEquals(45, runtime.popInt());
+        }
+    }
+
+    static Script sum() {
+        return script("sum")
+                .locals(2, 0, 0)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(POP_INT_LOCAL, 1)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(ADD)
+                .instruction(POP_INT_LOCAL, 1)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(ADD)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 10)
+                .instruction(BRANCH_LESS_THAN, -11)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .build();
+    }
+}
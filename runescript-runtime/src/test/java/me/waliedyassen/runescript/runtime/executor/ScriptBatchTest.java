@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.ScriptRuntimeSetup;
+import me.waliedyassen.runescript.runtime.TestHelper.TestRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestScriptCache;
+import me.waliedyassen.runescript.runtime.script.Script;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptBatchTest {
+
+    static final int RECORD = 100;
+    static final int EXECUTIONS = 100;
+
+    List<Integer> records;
+    ScriptExecutor<TestRuntime> executor;
+    Script script;
+
+    @BeforeEach
+    void setupExecutor() {
+        records = Collections.synchronizedList(new ArrayList<>());
+        var map = createExecutorMap();
+        map.register(RECORD, runtime -> records.add(runtime.popInt()));
+        executor = new ScriptExecutor<>(4, new TestScriptCache(), TestRuntime::new, map);
+        // Records the value which was pushed by the setup, then suspends if it is negative.
+        script = script("batch")
+                .locals(1, 0, 0)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(RECORD)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(BRANCH_LESS_THAN, 1)
+                .instruction(BRANCH, 1)
+                .instruction(SUSPEND, 1)
+                .build();
+    }
+
+    @Test
+    void testSequential() {
+        var aborted = new ArrayList<TestRuntime>();
+        var result = executor.executeBatch(script, setups().iterator(), aborted::add);
+        assertResult(result);
+        assertEquals(10, aborted.size());
+        aborted.forEach(runtime -> assertTrue(runtime.isSuspended()));
+        // The completed executions share a runtime, only the aborted ones are still out of the pool.
+        assertEquals(10, executor.getPool().getInFlight());
+        assertTrue(executor.getPool().getCreated() <= 12, "created " + executor.getPool().getCreated());
+        aborted.forEach(ScriptRuntime::close);
+        assertEquals(0, executor.getPool().getInFlight());
+    }
+
+    @Test
+    void testForkJoin() {
+        var aborted = Collections.synchronizedList(new ArrayList<TestRuntime>());
+        var forkJoinPool = new ForkJoinPool(4);
+        try {
+            var result = executor.executeBatch(script, setups(), aborted::add, forkJoinPool, 8);
+            assertResult(result);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+        assertEquals(10, aborted.size());
+        aborted.forEach(ScriptRuntime::close);
+        assertEquals(0, executor.getPool().getInFlight());
+    }
+
+    @Test
+    void testWithoutAbortHandler() {
+        var result = executor.executeBatch(script, setups().iterator(), null);
+        assertEquals(10, result.getAborted());
+        assertEquals(0, executor.getPool().getInFlight());
+        var forkJoinPool = new ForkJoinPool(2);
+        try {
+            result = executor.executeBatch(script, setups(), null, forkJoinPool, 1);
+            assertEquals(10, result.getAborted());
+        } finally {
+            forkJoinPool.shutdown();
+        }
+        assertEquals(0, executor.getPool().getInFlight());
+    }
+
+    @Test
+    void testError() {
+        var map = createExecutorMap();
+        map.register(RECORD, runtime -> {
+            throw new AssertionError("error");
+        });
+        var executor = new ScriptExecutor<>(4, new TestScriptCache(), TestRuntime::new, map);
+        var error = assertThrows(AssertionError.class, () -> executor.executeBatch(script, setups().iterator(), null));
+        assertEquals("error", error.getMessage());
+        assertEquals(0, executor.getPool().getInFlight());
+    }
+
+    @Test
+    void testEmpty() {
+        var result = executor.executeBatch(script, Collections.<ScriptRuntimeSetup<TestRuntime>>emptyList().iterator(), null);
+        assertEquals(0, result.getExecuted());
+        assertEquals(0, result.getAverageExecutionTime());
+        assertNull(result.getFirstError());
+    }
+
+    void assertResult(ScriptBatchResult result) {
+        assertEquals(EXECUTIONS, result.getExecuted());
+        assertEquals(80, result.getCompleted());
+        assertEquals(10, result.getAborted());
+        assertEquals(10, result.getFailed());
+        assertNotNull(result.getFirstError());
+        assertTrue(result.getMaxExecutionTime() <= result.getExecutionTime());
+        assertTrue(result.getElapsedTime() > 0);
+        // Every execution which got a value recorded it, including the aborted ones.
+        var expected = new ArrayList<Integer>();
+        for (var index = 0; index < EXECUTIONS; index++) {
+            if (index % 10 == 3) {
+                expected.add(-index);
+            } else if (index % 10 != 7) {
+                expected.add(index);
+            }
+        }
+        var actual = new ArrayList<>(records);
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    static List<ScriptRuntimeSetup<TestRuntime>> setups() {
+        // Every tenth execution suspends, and every tenth execution fails either in the script or in the setup.
+        var setups = new ArrayList<ScriptRuntimeSetup<TestRuntime>>();
+        for (var index = 0; index < EXECUTIONS; index++) {
+            var value = index;
+            if (value % 10 == 3) {
+                setups.add(runtime -> runtime.pushInt(-value));
+            } else if (value % 20 == 7) {
+                setups.add(runtime -> {
+                    // Leaves the stack empty, so the script underflows.
+                });
+            } else if (value % 10 == 7) {
+                setups.add(runtime -> {
+                    throw new IllegalStateException("setup failed");
+                });
+            } else {
+                setups.add(runtime -> runtime.pushInt(value));
+            }
+        }
+        return setups;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestScriptCache;
+import me.waliedyassen.runescript.runtime.script.Script;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptSchedulerTest {
+
+    static final int RECORD = 100;
+    static final int ABORT = 101;
+    static final long TICK = TimeUnit.SECONDS.toNanos(10);
+
+    List<Integer> records;
+    ScriptExecutor<TestRuntime> executor;
+    ScriptScheduler<TestRuntime> scheduler;
+
+    @BeforeEach
+    void setupScheduler() {
+        records = Collections.synchronizedList(new ArrayList<>());
+        var map = createExecutorMap();
+        map.register(RECORD, runtime -> records.add(runtime.intOperand()));
+        map.register(ABORT, ScriptRuntime::abort);
+        executor = new ScriptExecutor<>(4, new TestScriptCache(), TestRuntime::new, map);
+        scheduler = new ScriptScheduler<>(executor, 2);
+    }
+
+    @Test
+    void testRoundRobin() {
+        schedule(record("first", 10, 11, 12, 13));
+        schedule(record("second", 20, 21, 22, 23));
+        assertEquals(2, scheduler.size());
+        assertEquals(4, scheduler.tick(TICK));
+        // Each runtime is preempted after two instructions and put at the back of the queue.
+        assertEquals(Arrays.asList(10, 11, 20, 21, 12, 13, 22, 23), records);
+        assertEquals(0, scheduler.size());
+        assertEquals(0, executor.getPool().getInFlight());
+    }
+
+    @Test
+    void testTimeBudget() {
+        schedule(record("first", 1, 2, 3));
+        assertEquals(0, scheduler.tick(0));
+        assertTrue(records.isEmpty());
+        assertEquals(1, scheduler.size());
+        assertEquals(1, scheduler.getClock());
+        assertEquals(2, scheduler.tick(TICK));
+        assertEquals(Arrays.asList(1, 2, 3), records);
+    }
+
+    @Test
+    void testAbortAndFailure() {
+        var aborted = new ArrayList<TestRuntime>();
+        scheduler.setAbortHandler(aborted::add);
+        var abort = schedule(script("abort").instruction(RECORD, 1).instruction(ABORT).instruction(RECORD, 2).build());
+        schedule(script("failure").instruction(POP_INT_DISCARD).instruction(RECORD, 3).build());
+        schedule(record("last", 4));
+        assertEquals(3, scheduler.tick(TICK));
+        assertEquals(Collections.singletonList(abort), aborted);
+        // The failed runtime is closed without stopping the tick.
+        assertEquals(Arrays.asList(1, 4), records);
+        assertEquals(1, executor.getPool().getInFlight());
+        abort.close();
+    }
+
+    @Test
+    void testError() {
+        var map = createExecutorMap();
+        map.register(RECORD, runtime -> {
+            throw new AssertionError("error");
+        });
+        executor = new ScriptExecutor<>(4, new TestScriptCache(), TestRuntime::new, map);
+        scheduler = new ScriptScheduler<>(executor, 2);
+        schedule(record("error", 1));
+        var error = assertThrows(AssertionError.class, () -> scheduler.tick(TICK));
+        assertEquals("error", error.getMessage());
+    }
+
+    @Test
+    void testSignal() {
+        var script = script("wait")
+                .instruction(RECORD, 1)
+                .instruction(SUSPEND, 7)
+                .instruction(RECORD, 2)
+                .build();
+        schedule(script);
+        schedule(script);
+        schedule(script("other").instruction(SUSPEND, 8).instruction(RECORD, 3).build());
+        assertEquals(3, scheduler.tick(TICK));
+        assertEquals(Arrays.asList(1, 1), records);
+        assertEquals(3, scheduler.parked());
+        assertEquals(0, scheduler.size());
+        assertEquals(0, scheduler.tick(TICK));
+        assertEquals(0, scheduler.signal(9));
+        assertEquals(2, scheduler.signal(7));
+        assertEquals(0, scheduler.signal(7));
+        assertEquals(1, scheduler.parked());
+        assertEquals(2, scheduler.size());
+        assertEquals(2, scheduler.tick(TICK));
+        assertEquals(Arrays.asList(1, 1, 2, 2), records);
+        assertEquals(1, scheduler.signal(8));
+        assertEquals(1, scheduler.tick(TICK));
+        assertEquals(Arrays.asList(1, 1, 2, 2, 3), records);
+        assertEquals(0, scheduler.parked());
+        assertEquals(0, executor.getPool().getInFlight());
+    }
+
+    @Test
+    void testSleep() {
+        schedule(script("sleep")
+                .instruction(RECORD, 1)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(SLEEP)
+                .instruction(RECORD, 2)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(SLEEP)
+                .instruction(RECORD, 3)
+                .build());
+        // The first tick runs up to the sleep, which parks the runtime until two ticks later.
+        scheduler.tick(TICK);
+        assertEquals(Collections.singletonList(1), records);
+        assertEquals(1, scheduler.parked());
+        assertEquals(0, scheduler.tick(TICK));
+        assertEquals(Collections.singletonList(1), records);
+        scheduler.tick(TICK);
+        assertEquals(Arrays.asList(1, 2), records);
+        // A zero delay still waits for the next tick.
+        assertEquals(1, scheduler.parked());
+        scheduler.tick(TICK);
+        assertEquals(Arrays.asList(1, 2, 3), records);
+        assertEquals(0, scheduler.parked());
+    }
+
+    @Test
+    void testScheduleSuspended() {
+        var runtime = executor.getPool().pop();
+        runtime.pushInt(5);
+        runtime.pushString("kept");
+        assertSame(runtime, executor.execute(runtime, script("suspend").instruction(SUSPEND, 1).instruction(RECORD, 1).build()));
+        assertTrue(runtime.isSuspended());
+        scheduler.schedule(runtime);
+        // The parked runtime is compacted down to what it uses, and grows back once it is resumed.
+        assertEquals(1, scheduler.parked());
+        assertEquals(0, scheduler.size());
+        assertEquals(1, runtime.getIntStack().length);
+        assertEquals(1, runtime.getStringStack().length);
+        assertEquals(1, scheduler.signal(1));
+        assertEquals(1, scheduler.tick(TICK));
+        assertEquals(Collections.singletonList(1), records);
+        assertEquals(0, executor.getPool().getInFlight());
+    }
+
+    TestRuntime schedule(Script script) {
+        var runtime = executor.getPool().pop();
+        runtime.setScript(script);
+        scheduler.schedule(runtime);
+        return runtime;
+    }
+
+    static Script record(String name, int... values) {
+        var builder = script(name);
+        for (var value : values) {
+            builder.instruction(RECORD, value);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.impl;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.ScriptArrayPool;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ExecutionException;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import me.waliedyassen.runescript.runtime.executor.jit.ScriptJit;
+import me.waliedyassen.runescript.runtime.script.Script;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrayOpsTest {
+
+    ScriptExecutor<TestRuntime> interpreter;
+    ScriptExecutor<TestRuntime> compiler;
+
+    @BeforeEach
+    void setupExecutors() {
+        interpreter = createExecutor(new TestScriptCache());
+        compiler = createExecutor(new TestScriptCache());
+        compiler.setJit(new ScriptJit());
+        compiler.setJitThreshold(1);
+    }
+
+    @Test
+    void testTypedArrays() {
+        assertTypedArrays(interpreter);
+        assertTypedArrays(compiler);
+    }
+
+    @Test
+    void testRedefine() {
+        var script = script("redefine")
+                .instruction(PUSH_CONSTANT_INT, 10)
+                .instruction(DEFINE_ARRAY, ArrayOps.TYPE_INT)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(PUSH_CONSTANT_INT, 5)
+                .instruction(POP_ARRAY_INT, 0)
+                .instruction(PUSH_CONSTANT_INT, 40)
+                .instruction(DEFINE_ARRAY, ArrayOps.TYPE_INT)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(PUSH_ARRAY_INT, 0)
+                .instruction(PUSH_CONSTANT_INT, 3)
+                .instruction(DEFINE_ARRAY, ArrayOps.TYPE_LONG)
+                .build();
+        try (var runtime = interpreter.getPool().pop()) {
+            assertNull(interpreter.execute(runtime, script));
+            // Redefining an array clears it, and redefining it with another type releases the old storage.
+            assertEquals(0, runtime.popInt());
+            assertNull(runtime.getArrayElements()[0]);
+            assertEquals(3, runtime.getArraySize()[0]);
+            assertEquals(ScriptArrayPool.MIN_CAPACITY, runtime.getLongArrayElements()[0].length);
+        }
+    }
+
+    @Test
+    void testInvalid() {
+        assertInvalid(script("negative_size")
+                .instruction(PUSH_CONSTANT_INT, -1)
+                .instruction(DEFINE_ARRAY, ArrayOps.TYPE_INT)
+                .build(), "invalid array size");
+        assertInvalid(script("too_large")
+                .instruction(PUSH_CONSTANT_INT, ScriptRuntime.MAX_ARRAY_ELEMENTS + 1)
+                .instruction(DEFINE_ARRAY, ArrayOps.TYPE_STRING)
+                .build(), "invalid array size");
+        assertInvalid(script("out_of_bounds")
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(DEFINE_ARRAY, ArrayOps.TYPE_LONG)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(PUSH_ARRAY_LONG, 0)
+                .build(), "invalid array index");
+        assertInvalid(script("wrong_type")
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(DEFINE_ARRAY, ArrayOps.TYPE_STRING)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(PUSH_ARRAY_INT, 0)
+                .build(), "type mismatch");
+        assertInvalid(script("wrong_type_pop")
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(DEFINE_ARRAY, ArrayOps.TYPE_INT)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(PUSH_CONSTANT_LONG, 5L)
+                .instruction(POP_ARRAY_LONG, 0)
+                .build(), "type mismatch");
+        assertInvalid(script("undefined")
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(PUSH_CONSTANT_STRING, "value")
+                .instruction(POP_ARRAY_STRING, 1)
+                .build(), "invalid array index");
+    }
+
+    void assertTypedArrays(ScriptExecutor<TestRuntime> executor) {
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, typedArrays()));
+            assertEquals("", runtime.popString());
+            assertEquals("b", runtime.popString());
+            assertEquals(0L, runtime.popLong());
+            assertEquals(7L, runtime.popLong());
+            assertEquals(-1, runtime.popInt());
+            assertEquals(9, runtime.popInt());
+            assertEquals(0, runtime.getIntStackSize());
+            assertEquals(2, runtime.getArraySize()[0]);
+            assertNotNull(runtime.getStringArrayElements()[0]);
+            assertNull(runtime.getArrayElements()[0]);
+            assertNotNull(runtime.getLongArrayElements()[1]);
+            assertNotNull(runtime.getArrayElements()[2]);
+        }
+    }
+
+    void assertInvalid(Script script, String message) {
+        try (var runtime = interpreter.getPool().pop()) {
+            var e = assertThrows(ExecutionException.class, () -> interpreter.execute(runtime, script), script.getName());
+            assertTrue(e.getMessage().contains(message), e.getMessage());
+        }
+    }
+
+    static Script typedArrays() {
+        return script("typed_arrays")
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(DEFINE_ARRAY, ArrayOps.TYPE_STRING)
+                .instruction(PUSH_CONSTANT_INT, 3)
+                .instruction(DEFINE_ARRAY, 1 << 16 | ArrayOps.TYPE_LONG)
+                .instruction(PUSH_CONSTANT_INT, 4)
+                .instruction(DEFINE_ARRAY, 2 << 16 | ArrayOps.TYPE_INT)
+                .instruction(PUSH_CONSTANT_INT, 5)
+                .instruction(DEFINE_ARRAY, 3 << 16 | 'o')
+                .instruction(PUSH_CONSTANT_INT, 3)
+                .instruction(PUSH_CONSTANT_INT, 9)
+                .instruction(POP_ARRAY_INT, 2)
+                .instruction(PUSH_CONSTANT_INT, 3)
+                .instruction(PUSH_ARRAY_INT, 2)
+                .instruction(PUSH_CONSTANT_INT, 4)
+                .instruction(PUSH_ARRAY_INT, 3)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(PUSH_CONSTANT_LONG, 7L)
+                .instruction(POP_ARRAY_LONG, 1)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(PUSH_ARRAY_LONG, 1)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(PUSH_ARRAY_LONG, 1)
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(PUSH_CONSTANT_STRING, "b")
+                .instruction(POP_ARRAY_STRING, 0)
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(PUSH_ARRAY_STRING, 0)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(PUSH_ARRAY_STRING, 0)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.impl;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.TestHelper.TestRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ExecutionException;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoreOpsTest {
+
+    ScriptExecutor<TestRuntime> executor;
+
+    @BeforeEach
+    void setupExecutor() {
+        executor = createExecutor(new TestScriptCache());
+    }
+
+    @Test
+    void testJoinString() {
+        var script = script("join")
+                .instruction(PUSH_CONSTANT_STRING, "before")
+                .instruction(PUSH_CONSTANT_STRING, "level: ")
+                .instruction(PUSH_CONSTANT_INT, 42)
+                .instruction(TOSTRING)
+                .instruction(PUSH_CONSTANT_STRING, "!")
+                .instruction(JOIN_STRING, 3)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, script));
+            var first = runtime.popString();
+            assertEquals("level: 42!", first);
+            // The strings below the joined ones are left untouched.
+            assertEquals("before", runtime.popString());
+            assertEquals(0, runtime.getStringStackSize());
+            runtime.recycle();
+            assertNull(executor.execute(runtime, script));
+            // Joining the same short string again is served from the string cache of the runtime.
+            assertSame(first, runtime.popString());
+            assertEquals(1, runtime.getStringCache().getHits());
+        }
+    }
+
+    @Test
+    void testJoinLongString() {
+        var part = "0123456789abcdef0123456789abcdef";
+        var script = script("join_long")
+                .instruction(PUSH_CONSTANT_STRING, part)
+                .instruction(PUSH_CONSTANT_STRING, part)
+                .instruction(JOIN_STRING, 2)
+                .instruction(JOIN_STRING, 0)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, script));
+            assertEquals("", runtime.popString());
+            assertEquals(part + part, runtime.popString());
+        }
+    }
+
+    @Test
+    void testJoinStringUnderflow() {
+        var script = script("join_underflow")
+                .instruction(PUSH_CONSTANT_STRING, "only")
+                .instruction(JOIN_STRING, 2)
+                .build();
+        try (var runtime = executor.getPool().pop()) {
+            assertThrows(ExecutionException.class, () -> executor.execute(runtime, script));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.instruction;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.executor.ExecutionException;
+import me.waliedyassen.runescript.runtime.executor.impl.CoreOps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstructionExecutorMapTest {
+
+    InstructionExecutorMap map;
+
+    @BeforeEach
+    void setupMap() {
+        map = new InstructionExecutorMap();
+    }
+
+    @Test
+    void testRegister() {
+        map.register(0, CoreOps.PUSH_CONSTANT_INT);
+        map.register(1000, CoreOps.RETURN);
+        assertSame(CoreOps.PUSH_CONSTANT_INT, map.lookup(0));
+        assertSame(CoreOps.RETURN, map.lookup(1000));
+        assertNull(map.lookup(500));
+        assertNull(map.lookup(-1));
+        assertNull(map.lookup(1001));
+        assertThrows(IllegalArgumentException.class, () -> map.register(0, CoreOps.RETURN));
+        assertThrows(IllegalArgumentException.class, () -> map.register(-1, CoreOps.RETURN));
+    }
+
+    @Test
+    void testFreeze() {
+        map.register(5, CoreOps.RETURN);
+        map.freeze();
+        assertTrue(map.isFrozen());
+        assertSame(CoreOps.RETURN, map.lookup(5));
+        assertNull(map.lookup(6));
+        assertThrows(IllegalStateException.class, () -> map.register(6, CoreOps.RETURN));
+    }
+
+    @Test
+    void testLink() {
+        var full = createExecutorMap();
+        var script = script("linked")
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(POP_INT_DISCARD)
+                .build();
+        var executors = full.link(script);
+        assertSame(CoreOps.PUSH_CONSTANT_INT, executors[0]);
+        assertSame(CoreOps.POP_INT_DISCARD, executors[1]);
+        var missing = script("missing").instruction(1234).build();
+        assertThrows(ExecutionException.class, () -> full.link(missing));
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.jit;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.ScriptRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ExecutionException;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import me.waliedyassen.runescript.runtime.script.Script;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptJitTest {
+
+    TestScriptCache interpretedCache;
+    TestScriptCache compiledCache;
+    ScriptExecutor<TestRuntime> interpreter;
+    ScriptExecutor<TestRuntime> compiler;
+
+    @BeforeEach
+    void setupExecutors() {
+        interpretedCache = new TestScriptCache();
+        compiledCache = new TestScriptCache();
+        interpreter = createExecutor(interpretedCache);
+        compiler = createExecutor(compiledCache);
+        compiler.setJit(new ScriptJit());
+        compiler.setJitThreshold(1);
+    }
+
+    @Test
+    void testWorkload() {
+        var interpreted = workload(interpretedCache);
+        var compiled = workload(compiledCache);
+        try (var expected = interpreter.getPool().pop(); var actual = compiler.getPool().pop()) {
+            assertNull(interpreter.execute(expected, interpreted));
+            assertNull(compiler.execute(actual, compiled));
+            assertNull(interpreted.getCompiled());
+            assertNotNull(compiled.getCompiled());
+            assertNotNull(compiledCache.get(1).getCompiled());
+            assertSameState(expected, actual);
+            assertEquals(-8, actual.popInt());
+            assertEquals(510, actual.popInt());
+            assertEquals(5L, actual.popLong());
+            assertEquals("three", actual.popString());
+            assertEquals("one", actual.popString());
+        }
+    }
+
+    @Test
+    void testBudget() {
+        var interpreted = workload(interpretedCache);
+        var compiled = workload(compiledCache);
+        var completed = false;
+        for (var budget = 0; !completed; budget++) {
+            try (var expected = interpreter.getPool().pop(); var actual = compiler.getPool().pop()) {
+                var result = interpreter.execute(expected, interpreted, budget);
+                assertEquals(result == null, compiler.execute(actual, compiled, budget) == null);
+                assertSameState(expected, actual);
+                completed = result == null;
+                if (!completed) {
+                    assertTrue(actual.isPreempted());
+                    assertEquals(expected.getAddress(), actual.getAddress());
+                    assertEquals(expected.getScript().getName(), actual.getScript().getName());
+                    assertEquals(expected.getIntLocal(0), actual.getIntLocal(0));
+                    assertEquals(expected.getIntLocal(1), actual.getIntLocal(1));
+                    assertNull(interpreter.resume(expected));
+                    assertNull(compiler.resume(actual));
+                    assertSameState(expected, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testArithmetic() {
+        Function<TestScriptCache, Script> factory = cache -> script("arithmetic")
+                .locals(2, 0, 0)
+                .instruction(PUSH_CONSTANT_INT, 3)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 10)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(SUB)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(PUSH_CONSTANT_INT, 10)
+                .instruction(DIV)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 20)
+                .instruction(SUB)
+                .instruction(PUSH_CONSTANT_INT, 7)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(DIV)
+                .instruction(PUSH_CONSTANT_INT, Integer.MAX_VALUE)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(MUL)
+                .instruction(PUSH_CONSTANT_LONG, 9L)
+                .instruction(POP_LONG_DISCARD)
+                .instruction(PUSH_CONSTANT_STRING, "discarded")
+                .instruction(POP_STRING_DISCARD)
+                .build();
+        var compiled = assertEquivalent(factory);
+        assertEquals(Integer.MAX_VALUE * 2, compiled.popInt());
+        assertEquals(0, compiled.popInt());
+        assertEquals(17, compiled.popInt());
+        assertEquals(5, compiled.popInt());
+        assertEquals(-8, compiled.popInt());
+        assertEquals(0, compiled.getLongStackSize());
+        assertEquals(0, compiled.getStringStackSize());
+    }
+
+    @Test
+    void testDivisionByZero() {
+        var script = script("division")
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(DIV)
+                .build();
+        try (var runtime = compiler.getPool().pop()) {
+            assertThrows(ArithmeticException.class, () -> compiler.execute(runtime, script));
+            assertNotNull(script.getCompiled());
+            assertEquals(2, runtime.getAddress());
+        }
+    }
+
+    @Test
+    void testStackUnderflow() {
+        Function<TestScriptCache, Script> factory = cache -> script("underflow")
+                .locals(1, 0, 0)
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(ADD)
+                .build();
+        var interpreted = factory.apply(interpretedCache);
+        var compiled = factory.apply(compiledCache);
+        try (var expected = interpreter.getPool().pop(); var actual = compiler.getPool().pop()) {
+            assertThrows(ExecutionException.class, () -> interpreter.execute(expected, interpreted));
+            assertThrows(ExecutionException.class, () -> compiler.execute(actual, compiled));
+            assertNotNull(compiled.getCompiled());
+            assertEquals(3, expected.getAddress());
+            assertEquals(expected.getAddress(), actual.getAddress());
+        }
+    }
+
+    @Test
+    void testStackOverflow() {
+        var script = script("overflow")
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(ADD)
+                .build();
+        try (var runtime = compiler.getPool().pop()) {
+            for (var index = 0; index < ScriptRuntime.MAX_STACK_SIZE - 1; index++) {
+                runtime.pushInt(index);
+            }
+            assertThrows(ExecutionException.class, () -> compiler.execute(runtime, script));
+            assertNotNull(script.getCompiled());
+        }
+    }
+
+    @Test
+    void testFallback() {
+        Function<TestScriptCache, Script> factory = cache -> {
+            var builder = script("large").locals(1, 0, 0);
+            for (var index = 0; index < 10_000; index++) {
+                builder.instruction(PUSH_CONSTANT_INT, 100_000 + index).instruction(POP_INT_LOCAL, 0);
+            }
+            return builder.instruction(PUSH_INT_LOCAL, 0).build();
+        };
+        var large = factory.apply(compiledCache);
+        try (var runtime = compiler.getPool().pop()) {
+            assertNull(compiler.execute(runtime, large));
+            assertNull(large.getCompiled());
+            assertTrue(large.isCompilationAttempted());
+            assertEquals(109_999, runtime.popInt());
+        }
+        assertEquivalent(factory);
+    }
+
+    @Test
+    void testEntries() {
+        var script = script("entries")
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(ADD)
+                .build();
+        var entered = new ArrayList<Integer>();
+        var compiled = new CompiledScript() {
+            @Override
+            public long execute(ScriptRuntime runtime, int address, long budget) {
+                entered.add(address);
+                runtime.moveTo(address);
+                return budget;
+            }
+        };
+        compiled.setEntries(new boolean[]{true, false, true, true});
+        script.setCompilationAttempted(true);
+        script.setCompiled(compiled);
+        try (var runtime = compiler.getPool().pop()) {
+            assertNull(compiler.execute(runtime, script));
+            assertEquals(3, runtime.popInt());
+        }
+        assertEquals(Arrays.asList(0, 2), entered);
+    }
+
+    @Test
+    void testDisabled() {
+        var script = workload(compiledCache);
+        try (var runtime = compiler.getPool().pop()) {
+            assertNull(compiler.execute(runtime, script));
+        }
+        assertNotNull(script.getCompiled());
+        compiler.setJit(null);
+        try (var runtime = compiler.getPool().pop()) {
+            script.setCompiled(new CompiledScript() {
+                @Override
+                public long execute(ScriptRuntime runtime, int address, long budget) {
+                    throw new AssertionError("The compiled code must not be used");
+                }
+            });
+            assertNull(compiler.execute(runtime, script));
+            assertEquals(-8, runtime.popInt());
+        }
+    }
+
+    TestRuntime assertEquivalent(Function<TestScriptCache, Script> factory) {
+        var interpreted = factory.apply(interpretedCache);
+        var compiled = factory.apply(compiledCache);
+        var actual = compiler.getPool().pop();
+        try (var expected = interpreter.getPool().pop()) {
+            assertNull(interpreter.execute(expected, interpreted));
+            assertNull(compiler.execute(actual, compiled));
+            assertSameState(expected, actual);
+        }
+        return actual;
+    }
+
+    static void assertSameState(ScriptRuntime expected, ScriptRuntime actual) {
+        assertArrayEquals(Arrays.copyOf(expected.getIntStack(), expected.getIntStackSize()), Arrays.copyOf(actual.getIntStack(), actual.getIntStackSize()));
+        assertArrayEquals(Arrays.copyOf(expected.getStringStack(), expected.getStringStackSize()), Arrays.copyOf(actual.getStringStack(), actual.getStringStackSize()));
+        assertArrayEquals(Arrays.copyOf(expected.getLongStack(), expected.getLongStackSize()), Arrays.copyOf(actual.getLongStack(), actual.getLongStackSize()));
+        assertEquals(expected.getFrames().size(), actual.getFrames().size());
+    }
+
+    static Script workload(TestScriptCache cache) {
+        cache.put(1, script("callee")
+                .arguments(1, 1, 0)
+                .locals(1, 1, 0)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 100)
+                .instruction(ADD)
+                .instruction(RETURN)
+                .build());
+        return script("workload")
+                .locals(2, 0, 1)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_LONG, 5L)
+                .instruction(POP_LONG_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_STRING, "argument")
+                .instruction(GOSUB_WITH_PARAMS, 1)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .instruction(ADD)
+                .instruction(POP_INT_LOCAL, 1)
+                .instruction(PUSH_LONG_LOCAL, 0)
+                .instruction(POP_LONG_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(SWITCH, 0)
+                .instruction(BRANCH, 3)
+                .instruction(PUSH_CONSTANT_STRING, "one")
+                .instruction(BRANCH, 1)
+                .instruction(PUSH_CONSTANT_STRING, "three")
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(ADD)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 5)
+                .instruction(BRANCH_LESS_THAN, -21)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .instruction(PUSH_LONG_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 7)
+                .instruction(PUSH_CONSTANT_INT, 3)
+                .instruction(SUB)
+                .instruction(PUSH_CONSTANT_INT, 2)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(DIV)
+                .instruction(MUL)
+                .switchTable(new int[]{1, 3}, new int[]{1, 3})
+                .build();
+    }
+}
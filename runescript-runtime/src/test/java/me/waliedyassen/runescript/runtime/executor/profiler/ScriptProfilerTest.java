@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.executor.profiler;
+
+import lombok.var;
+import me.waliedyassen.runescript.runtime.TestHelper.TestRuntime;
+import me.waliedyassen.runescript.runtime.TestHelper.TestScriptCache;
+import me.waliedyassen.runescript.runtime.executor.ScriptExecutor;
+import me.waliedyassen.runescript.runtime.script.Script;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptProfilerTest {
+
+    static final int INSTRUCTIONS = 4 + 10 * 11 + 1;
+
+    @Test
+    void testFusedAttribution() {
+        var fusedProfiler = new ScriptProfiler(1);
+        var unfusedProfiler = new ScriptProfiler(1);
+        var fused = createExecutor(new TestScriptCache());
+        fused.setProfiler(fusedProfiler);
+        var unfused = createExecutor(new TestScriptCache());
+        unfused.setFuser(null);
+        unfused.setProfiler(unfusedProfiler);
+        run(fused, sum());
+        run(unfused, sum());
+        for (var opcode : new int[]{PUSH_CONSTANT_INT, POP_INT_LOCAL, PUSH_INT_LOCAL, ADD, BRANCH_LESS_THAN}) {
+            assertEquals(unfusedProfiler.getOpcodeCount(opcode), fusedProfiler.getOpcodeCount(opcode), "opcode " + opcode);
+        }
+        assertEquals(22, fusedProfiler.getOpcodeCount(PUSH_CONSTANT_INT));
+        assertEquals(22, fusedProfiler.getOpcodeCount(POP_INT_LOCAL));
+        assertEquals(41, fusedProfiler.getOpcodeCount(PUSH_INT_LOCAL));
+        assertEquals(20, fusedProfiler.getOpcodeCount(ADD));
+        assertEquals(10, fusedProfiler.getOpcodeCount(BRANCH_LESS_THAN));
+        assertEquals(INSTRUCTIONS, fusedProfiler.profile(sum()).getInstructions());
+        assertEquals(INSTRUCTIONS, unfusedProfiler.profile(sum()).getInstructions());
+        // The time of the fused instructions is split between the opcodes they cover without losing any of it.
+        var time = 0L;
+        for (var opcode : new int[]{PUSH_CONSTANT_INT, POP_INT_LOCAL, PUSH_INT_LOCAL, ADD, BRANCH_LESS_THAN}) {
+            time += fusedProfiler.getOpcodeTime(opcode);
+        }
+        assertEquals(fusedProfiler.profile(sum()).getTime(), time);
+    }
+
+    @Test
+    void testThreads() throws InterruptedException {
+        var profiler = new ScriptProfiler(7);
+        var threads = new ArrayList<Thread>();
+        for (var index = 0; index < 4; index++) {
+            var executor = createExecutor(new TestScriptCache());
+            executor.setProfiler(profiler);
+            threads.add(new Thread(() -> {
+                for (var run = 0; run < 100; run++) {
+                    run(executor, sum());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(4 * 100 * 41, profiler.getOpcodeCount(PUSH_INT_LOCAL));
+        assertEquals(4 * 100 * 10, profiler.getOpcodeCount(BRANCH_LESS_THAN));
+        assertEquals(4 * 100 * INSTRUCTIONS, profiler.profile(sum()).getInstructions());
+    }
+
+    @Test
+    void testReset() throws IOException {
+        var profiler = new ScriptProfiler(1);
+        var executor = createExecutor(new TestScriptCache());
+        executor.setProfiler(profiler);
+        run(executor, sum());
+        var report = new StringBuilder();
+        profiler.writeReport(report);
+        assertTrue(report.toString().contains("sum"));
+        profiler.reset();
+        assertEquals(0, profiler.getOpcodeCount(ADD));
+        assertEquals(0, profiler.getOpcodeTime(ADD));
+        run(executor, sum());
+        assertEquals(20, profiler.getOpcodeCount(ADD));
+    }
+
+    static void run(ScriptExecutor<TestRuntime> executor, Script script) {
+        try (var runtime = executor.getPool().pop()) {
+            assertNull(executor.execute(runtime, script));
+            assertEquals(45, runtime.popInt());
+        }
+    }
+
+    static Script sum() {
+        return script("sum")
+                .locals(2, 0, 0)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(POP_INT_LOCAL, 1)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(ADD)
+                .instruction(POP_INT_LOCAL, 1)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 1)
+                .instruction(ADD)
+                .instruction(POP_INT_LOCAL, 0)
+                .instruction(PUSH_INT_LOCAL, 0)
+                .instruction(PUSH_CONSTANT_INT, 10)
+                .instruction(BRANCH_LESS_THAN, -11)
+                .instruction(PUSH_INT_LOCAL, 1)
+                .build();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.script;
+
+import lombok.var;
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeInstruction;
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeScript;
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeSwitchTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptDecoderTest {
+
+    ScriptDecoder decoder;
+
+    @BeforeEach
+    void setupDecoder() {
+        decoder = createDecoder(true);
+    }
+
+    @Test
+    void testRoundTrip() {
+        var data = encode(true);
+        var script = decoder.decode(data);
+        assertEquals("round_trip", script.getName());
+        assertArrayEquals(new int[]{PUSH_CONSTANT_INT, PUSH_CONSTANT_STRING, PUSH_CONSTANT_LONG, PUSH_CONSTANT_INT, SWITCH, RETURN}, script.getInstructions());
+        assertEquals(123456789, script.getIntOperands()[0]);
+        assertEquals("text", script.getStringOperands()[1]);
+        assertEquals(Long.MAX_VALUE, script.getLongOperands()[2]);
+        assertEquals(-5, script.getIntOperands()[3]);
+        assertEquals(0, script.getIntOperands()[4]);
+        assertEquals(200, script.getIntOperands()[5]);
+        assertEquals(1, script.getNumIntArguments());
+        assertEquals(2, script.getNumStringArguments());
+        assertEquals(3, script.getNumLongArguments());
+        assertEquals(4, script.getNumIntLocals());
+        assertEquals(5, script.getNumStringLocals());
+        assertEquals(6, script.getNumLongLocals());
+        assertEquals(2, script.getSwitchTable().length);
+        assertEquals(2, script.getSwitchTable()[0].lookup(1));
+        assertEquals(-3, script.getSwitchTable()[0].lookup(7));
+        assertEquals(SwitchTable.NO_JUMP, script.getSwitchTable()[0].lookup(2));
+        assertEquals(9, script.getSwitchTable()[1].lookup(1_000_000));
+    }
+
+    @Test
+    void testRoundTripWithoutLongs() {
+        var decoder = createDecoder(false);
+        var instructions = new BytecodeInstruction[]{
+                new BytecodeInstruction(PUSH_CONSTANT_STRING, true, "short"),
+                new BytecodeInstruction(RETURN, false, 0),
+        };
+        var data = new BytecodeScript("no_longs", 1, 0, 0, 2, 1, 0, instructions, new LinkedList<>(), false).encode();
+        var script = decoder.decode(data);
+        assertEquals("no_longs", script.getName());
+        assertEquals("short", script.getStringOperands()[0]);
+        assertEquals(0, script.getLongOperands().length);
+        assertEquals(2, script.getNumIntLocals());
+        assertEquals(1, script.getNumStringLocals());
+        assertEquals(0, script.getNumLongLocals());
+        assertEquals(1, script.getNumIntArguments());
+        assertEquals(0, script.getSwitchTable().length);
+        assertMalformed(() -> decoder.decode(encode(true)));
+    }
+
+    @Test
+    void testStreams() throws IOException {
+        var data = encode(true);
+        var padded = new byte[data.length + 8];
+        System.arraycopy(data, 0, padded, 4, data.length);
+        var buffer = ByteBuffer.wrap(padded, 4, data.length);
+        var script = decoder.decode(buffer);
+        assertEquals("round_trip", script.getName());
+        assertEquals(4 + data.length, buffer.position());
+        assertEquals("round_trip", decoder.decode(new ByteArrayInputStream(data)).getName());
+    }
+
+    @Test
+    void testMalformedTrailer() {
+        var data = encode(true);
+        // The switch tables size points before the start of the data.
+        var corrupted = data.clone();
+        corrupted[data.length - 2] = (byte) 0xff;
+        corrupted[data.length - 1] = (byte) 0xff;
+        assertMalformed(() -> decoder.decode(corrupted));
+        // The switch tables size does not match the switch tables.
+        var shifted = data.clone();
+        shifted[data.length - 1]--;
+        assertMalformed(() -> decoder.decode(shifted));
+        // The data is cut before the end of the trailer.
+        assertMalformed(() -> decoder.decode(Arrays.copyOf(data, data.length - 3)));
+        assertMalformed(() -> decoder.decode(new byte[1]));
+        assertMalformed(() -> decoder.decode(new byte[0]));
+    }
+
+    @Test
+    void testMalformedCounts() {
+        var data = encode(true);
+        var switches = ByteBuffer.wrap(data).getShort(data.length - 2) & 0xffff;
+        var trailer = data.length - 2 - switches - 12 - 4;
+        // The instruction count must not be trusted for allocating the instructions.
+        var count = data.clone();
+        ByteBuffer.wrap(count).putInt(trailer, Integer.MAX_VALUE);
+        assertMalformed(() -> decoder.decode(count));
+        var negative = data.clone();
+        ByteBuffer.wrap(negative).putInt(trailer, -1);
+        assertMalformed(() -> decoder.decode(negative));
+        var fewer = data.clone();
+        ByteBuffer.wrap(fewer).putInt(trailer, 2);
+        assertMalformed(() -> decoder.decode(fewer));
+        // The switch table size must not be trusted for allocating the switch table.
+        var size = data.clone();
+        ByteBuffer.wrap(size).putShort(data.length - 2 - switches + 1, (short) 0xffff);
+        assertMalformed(() -> decoder.decode(size));
+    }
+
+    @Test
+    void testUnknownOpcode() {
+        var instructions = new BytecodeInstruction[]{new BytecodeInstruction(1234, true, 0)};
+        var data = new BytecodeScript("unknown", 0, 0, 0, 0, 0, 0, instructions, new LinkedList<>(), true).encode();
+        assertMalformed(() -> decoder.decode(data));
+    }
+
+    static byte[] encode(boolean supportsLongPrimitiveType) {
+        var instructions = new BytecodeInstruction[]{
+                new BytecodeInstruction(PUSH_CONSTANT_INT, true, 123456789),
+                new BytecodeInstruction(PUSH_CONSTANT_STRING, true, "text"),
+                new BytecodeInstruction(PUSH_CONSTANT_LONG, true, Long.MAX_VALUE),
+                new BytecodeInstruction(PUSH_CONSTANT_INT, true, -5),
+                new BytecodeInstruction(SWITCH, true, 0),
+                new BytecodeInstruction(RETURN, false, 200),
+        };
+        var switchTables = new LinkedList<BytecodeSwitchTable>();
+        switchTables.add(new BytecodeSwitchTable(new int[]{1, 7}, new int[]{2, -3}));
+        switchTables.add(new BytecodeSwitchTable(new int[]{1_000_000}, new int[]{9}));
+        return new BytecodeScript("round_trip", 1, 2, 3, 4, 5, 6, instructions, switchTables, supportsLongPrimitiveType).encode();
+    }
+
+    static void assertMalformed(Executable executable) {
+        var exception = assertThrows(IllegalArgumentException.class, executable);
+        assertTrue(exception.getMessage().startsWith("Malformed script data"), exception.getMessage());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.runtime.script;
+
+import lombok.var;
+import org.junit.jupiter.api.Test;
+
+import static me.waliedyassen.runescript.runtime.TestHelper.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwitchTableTest {
+
+    @Test
+    void testDense() {
+        var table = SwitchTable.of(new int[]{12, 10, 11, 14}, new int[]{3, 1, 2, 4});
+        assertTrue(table.isDense());
+        assertEquals(1, table.lookup(10));
+        assertEquals(2, table.lookup(11));
+        assertEquals(3, table.lookup(12));
+        assertEquals(4, table.lookup(14));
+        assertEquals(SwitchTable.NO_JUMP, table.lookup(13));
+        assertEquals(SwitchTable.NO_JUMP, table.lookup(9));
+        assertEquals(SwitchTable.NO_JUMP, table.lookup(15));
+        assertEquals(SwitchTable.NO_JUMP, table.lookup(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void testSparse() {
+        var table = SwitchTable.of(new int[]{1_000_000, -5, 42, Integer.MAX_VALUE}, new int[]{1, 2, 3, 4});
+        assertFalse(table.isDense());
+        assertEquals(1, table.lookup(1_000_000));
+        assertEquals(2, table.lookup(-5));
+        assertEquals(3, table.lookup(42));
+        assertEquals(4, table.lookup(Integer.MAX_VALUE));
+        assertEquals(SwitchTable.NO_JUMP, table.lookup(43));
+        assertEquals(SwitchTable.NO_JUMP, table.lookup(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void testExtremeRange() {
+        var table = SwitchTable.of(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE}, new int[]{-1, -2});
+        assertFalse(table.isDense());
+        assertEquals(-1, table.lookup(Integer.MIN_VALUE));
+        assertEquals(-2, table.lookup(Integer.MAX_VALUE));
+        assertEquals(SwitchTable.NO_JUMP, table.lookup(0));
+    }
+
+    @Test
+    void testEmpty() {
+        var table = SwitchTable.of(new int[0], new int[0]);
+        assertEquals(SwitchTable.NO_JUMP, table.lookup(0));
+        assertThrows(IllegalArgumentException.class, () -> SwitchTable.of(new int[1], new int[2]));
+    }
+
+    @Test
+    void testSwitch() {
+        var script = script("switch")
+                .switchTable(new int[]{1, 2}, new int[]{2, 4})
+                .switchTable(new int[]{5, 500_000}, new int[]{0, 2})
+                .instruction(PUSH_CONSTANT_INT, 0)
+                .instruction(SWITCH, 0)
+                .instruction(PUSH_CONSTANT_INT, 10)
+                .instruction(BRANCH, 4)
+                .instruction(PUSH_CONSTANT_INT, 20)
+                .instruction(BRANCH, 2)
+                .instruction(PUSH_CONSTANT_INT, 30)
+                .instruction(BRANCH, 0)
+                .build();
+        var executor = createExecutor(new TestScriptCache());
+        for (var key = 0; key <= 2; key++) {
+            try (var runtime = executor.getPool().pop()) {
+                script.getIntOperands()[0] = key;
+                executor.execute(runtime, script);
+                assertEquals(10 * (key + 1), runtime.popInt());
+                assertEquals(0, runtime.getIntStackSize());
+            }
+        }
+    }
+}